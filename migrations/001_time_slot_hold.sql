@@ -0,0 +1,11 @@
+-- Slot holds: a slot is HELD for a customer while the payment runs, then confirmed to BOOKED
+-- ddl-auto=update adds the columns but does not touch the existing status CHECK constraint
+ALTER TABLE time_slot ADD COLUMN IF NOT EXISTS held_until TIMESTAMP;
+ALTER TABLE time_slot ADD COLUMN IF NOT EXISTS held_by_user_id BIGINT;
+
+ALTER TABLE time_slot DROP CONSTRAINT IF EXISTS time_slot_status_check;
+ALTER TABLE time_slot ADD CONSTRAINT time_slot_status_check
+    CHECK (status IN ('AVAILABLE', 'BOOKED', 'BLOCKED', 'HELD'));
+
+-- Sweeper looks up expired holds only
+CREATE INDEX IF NOT EXISTS idx_time_slot_held_until ON time_slot (held_until) WHERE status = 'HELD';
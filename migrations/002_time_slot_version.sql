@@ -0,0 +1,6 @@
+-- Optimistic locking on time_slot (@Version)
+-- ddl-auto=update may already have added the column as nullable - existing rows need a version
+ALTER TABLE time_slot ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE time_slot SET version = 0 WHERE version IS NULL;
+ALTER TABLE time_slot ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE time_slot ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,17 @@
+-- Transactional outbox: side effects of booking transactions, dispatched by OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'REFUND')),
+    aggregate_id BIGINT,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'PROCESSING', 'PROCESSED', 'FAILED')),
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Relay polls due events only - processed rows stay out of the index
+CREATE INDEX IF NOT EXISTS idx_outbox_event_due ON outbox_event (available_at, id)
+    WHERE status IN ('PENDING', 'PROCESSING');
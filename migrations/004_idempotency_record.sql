@@ -0,0 +1,16 @@
+-- Idempotency-Key support for POST /api/customer/bookings and POST /api/subscriptions/subscribe
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    endpoint VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_idempotency_record_user_endpoint_key UNIQUE (user_id, endpoint, idempotency_key)
+);
+
+-- Hourly purge of expired keys
+CREATE INDEX IF NOT EXISTS idx_idempotency_record_expires_at ON idempotency_record (expires_at);
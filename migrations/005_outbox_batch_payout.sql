@@ -0,0 +1,4 @@
+-- Bulk booking completion: one BATCH_PAYOUT outbox event per provider per batch
+ALTER TABLE outbox_event DROP CONSTRAINT IF EXISTS outbox_event_event_type_check;
+ALTER TABLE outbox_event ADD CONSTRAINT outbox_event_event_type_check
+    CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'BATCH_PAYOUT', 'REFUND'));
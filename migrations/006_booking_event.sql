@@ -0,0 +1,41 @@
+-- Booking state machine: append-only booking_event log and the provider_booking_stats projection
+CREATE TABLE IF NOT EXISTS booking_event (
+    id BIGSERIAL PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    provider_id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    from_status VARCHAR(20) CHECK (from_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW')),
+    to_status VARCHAR(20) NOT NULL CHECK (to_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW')),
+    amount DECIMAL(10, 2) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_event_booking ON booking_event (booking_id);
+
+CREATE TABLE IF NOT EXISTS provider_booking_stats (
+    provider_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    pending BIGINT NOT NULL DEFAULT 0,
+    confirmed BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    cancelled BIGINT NOT NULL DEFAULT 0,
+    no_show BIGINT NOT NULL DEFAULT 0,
+    completed_revenue DECIMAL(12, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS projection_checkpoint (
+    name VARCHAR(50) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL DEFAULT 0
+);
+
+-- Seed the log with the current state of existing bookings (one creation event each) so the
+-- projector builds provider_booking_stats from scratch on its first run
+INSERT INTO booking_event (booking_id, service_id, provider_id, customer_id, from_status, to_status, amount, occurred_at)
+SELECT b.id, b.service_id, s.provider_user_id, b.customer_id, NULL, b.status, b.total_price, b.created_at
+FROM booking b
+JOIN service s ON s.id = b.service_id
+WHERE NOT EXISTS (SELECT 1 FROM booking_event e WHERE e.booking_id = b.id)
+ORDER BY b.id;
+
+INSERT INTO projection_checkpoint (name, last_event_id) VALUES ('provider_booking_stats', 0)
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,11 @@
+-- Booking sweeper: NO_SHOW notifications and an index over active (PENDING / CONFIRMED) bookings
+ALTER TABLE notification DROP CONSTRAINT IF EXISTS notification_notification_type_check;
+ALTER TABLE notification ADD CONSTRAINT notification_notification_type_check
+    CHECK (notification_type IN ('BOOKING_CONFIRMED', 'BOOKING_CANCELLED', 'NEW_BOOKING_RECEIVED',
+                                 'BOOKING_REMINDER', 'BOOKING_NO_SHOW', 'REVIEW_RECEIVED', 'REFUND_APPROVED',
+                                 'REFUND_REJECTED', 'SUBSCRIPTION_EXPIRING', 'SUBSCRIPTION_EXPIRED',
+                                 'ACCOUNT_APPROVED', 'ACCOUNT_REJECTED', 'PAYMENT_SUCCESS', 'PAYMENT_FAILED'));
+
+-- Keyset sweeps (status = X AND id > :afterId ORDER BY id) read only the small active part of the table
+CREATE INDEX IF NOT EXISTS idx_booking_active ON booking (status, id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
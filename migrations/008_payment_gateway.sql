@@ -0,0 +1,24 @@
+-- Store the payment gateway on bookings and transactions instead of deriving it from gateway transaction IDs
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS payment_gateway VARCHAR(20)
+    CHECK (payment_gateway IN ('STRIPE', 'PAYPAL'));
+
+-- Backfill from the gateway ID prefix (PayPal IDs start with PAYPAL_, everything else went through Stripe)
+UPDATE transaction
+SET payment_gateway = CASE WHEN payment_gateway_transaction_id LIKE 'PAYPAL%' THEN 'PAYPAL' ELSE 'STRIPE' END
+WHERE payment_gateway IS NULL
+  AND payment_gateway_transaction_id IS NOT NULL;
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS payment_gateway VARCHAR(20)
+    CHECK (payment_gateway IN ('STRIPE', 'PAYPAL'));
+
+UPDATE booking b
+SET payment_gateway = t.payment_gateway
+FROM transaction t
+WHERE t.booking_id = b.id
+  AND t.transaction_type = 'BOOKING_PAYMENT'
+  AND b.payment_gateway IS NULL;
+
+-- Unpaid (PENDING) bookings - the default gateway
+UPDATE booking SET payment_gateway = 'STRIPE' WHERE payment_gateway IS NULL;
+
+ALTER TABLE booking ALTER COLUMN payment_gateway SET NOT NULL;
@@ -0,0 +1,4 @@
+-- Bulk refund approval: one BATCH_REFUND outbox event per settlement batch
+ALTER TABLE outbox_event DROP CONSTRAINT IF EXISTS outbox_event_event_type_check;
+ALTER TABLE outbox_event ADD CONSTRAINT outbox_event_event_type_check
+    CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'BATCH_PAYOUT', 'REFUND', 'BATCH_REFUND'));
@@ -0,0 +1,17 @@
+-- Service search on PostgreSQL (service.search.backend=POSTGRES; also used while the in-memory index is built)
+-- CREATE INDEX CONCURRENTLY cannot run inside a transaction block - run this file in autocommit mode
+-- (psql -f), searches and service writes keep running while the indexes are built
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Stored generated column: title (weight A) + description (weight B)
+-- Adding it rewrites the service table once under an exclusive lock
+ALTER TABLE service ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_search_vector ON service USING GIN (search_vector);
+
+-- Answers title ILIKE '%term%' and fuzzy title % term
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_title_trgm ON service USING GIN (title gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- Keyset pagination of the public service listing (GET /api/services)
+-- CREATE INDEX CONCURRENTLY cannot run inside a transaction block - run this file in autocommit mode
+-- (psql -f), browsing and service writes keep running while the indexes are built
+-- Partial indexes on active services, one per ordering - id breaks ties so every (key, id) seek is exact
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_active_created ON service (created_at DESC, id DESC) WHERE is_active = true;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_active_price ON service (price, id) WHERE is_active = true;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_active_category_created ON service (category_id, created_at DESC, id DESC) WHERE is_active = true;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_service_active_category_price ON service (category_id, price, id) WHERE is_active = true;
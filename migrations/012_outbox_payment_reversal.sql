@@ -0,0 +1,4 @@
+-- Refund of a captured payment whose booking was discarded (hold expired while paying), retried by the relay
+ALTER TABLE outbox_event DROP CONSTRAINT IF EXISTS outbox_event_event_type_check;
+ALTER TABLE outbox_event ADD CONSTRAINT outbox_event_event_type_check
+    CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'BATCH_PAYOUT', 'REFUND', 'BATCH_REFUND', 'PAYMENT_REVERSAL'));
@@ -0,0 +1,4 @@
+-- Requests that failed after the payment may have gone through keep their Idempotency-Key as FAILED
+ALTER TABLE idempotency_record DROP CONSTRAINT IF EXISTS idempotency_record_status_check;
+ALTER TABLE idempotency_record ADD CONSTRAINT idempotency_record_status_check
+    CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED'));
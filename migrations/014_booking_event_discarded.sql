@@ -0,0 +1,18 @@
+-- Unpaid bookings deleted before payment are logged as PENDING -> DISCARDED instead of PENDING -> CANCELLED,
+-- so provider_booking_stats no longer counts them as cancellations
+-- Run in one transaction (psql -1 -f) while the projector is paused or between its runs
+ALTER TABLE booking_event DROP CONSTRAINT IF EXISTS booking_event_from_status_check;
+ALTER TABLE booking_event DROP CONSTRAINT IF EXISTS booking_event_to_status_check;
+ALTER TABLE booking_event ADD CONSTRAINT booking_event_from_status_check
+    CHECK (from_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW', 'DISCARDED'));
+ALTER TABLE booking_event ADD CONSTRAINT booking_event_to_status_check
+    CHECK (to_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW', 'DISCARDED'));
+
+-- Earlier discards: the booking row is gone, a real cancellation keeps it
+UPDATE booking_event e SET to_status = 'DISCARDED'
+WHERE e.from_status = 'PENDING' AND e.to_status = 'CANCELLED'
+AND NOT EXISTS (SELECT 1 FROM booking b WHERE b.id = e.booking_id);
+
+-- Rebuild the read model from the corrected log
+TRUNCATE provider_booking_stats;
+UPDATE projection_checkpoint SET last_event_id = 0 WHERE name = 'provider_booking_stats';
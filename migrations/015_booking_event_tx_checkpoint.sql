@@ -0,0 +1,14 @@
+-- Gap-tolerant projection checkpoint: booking_event is read in (inserting transaction, id) order, only from
+-- transactions older than every running one - an event committed late can no longer land behind the checkpoint
+-- Run in one transaction (psql -1 -f); needs PostgreSQL 13+ (pg_current_xact_id)
+ALTER TABLE booking_event ADD COLUMN IF NOT EXISTS tx_id BIGINT;
+
+-- Existing events are all committed: tx_id 0 keeps them in ID order, ahead of every new event
+UPDATE booking_event SET tx_id = 0 WHERE tx_id IS NULL;
+ALTER TABLE booking_event ALTER COLUMN tx_id SET DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE booking_event ALTER COLUMN tx_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_booking_event_tx ON booking_event (tx_id, id);
+
+-- (0, last_event_id) is the same position as before
+ALTER TABLE projection_checkpoint ADD COLUMN IF NOT EXISTS last_tx_id BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Captured payment of a PENDING booking, stored before it is confirmed
+-- The booking sweeper refunds it when the booking is discarded instead of confirmed
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS payment_gateway_transaction_id VARCHAR(255);
@@ -1,3 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 CREATE TABLE role (
                       id SERIAL PRIMARY KEY,
                       name VARCHAR(50) UNIQUE NOT NULL CHECK (name IN ('CUSTOMER', 'SERVICE_PROVIDER', 'ADMIN'))
@@ -54,7 +56,12 @@ CREATE TABLE service (
                          location_address TEXT,
                          is_active BOOLEAN DEFAULT TRUE,
                          created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                         updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                         updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- full-text search document: title (weight A) + description (weight B)
+                         search_vector tsvector GENERATED ALWAYS AS (
+                             setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                             setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                         ) STORED
 );
 
 -- this table create because if I want add new subscription as in Chatgpt(plus,pro,business etc..)
@@ -105,7 +112,10 @@ CREATE TABLE time_slot (
                            slot_date DATE NOT NULL,
                            start_time TIME NOT NULL,
                            end_time TIME NOT NULL,
-                           status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE' CHECK (status IN ('AVAILABLE', 'BOOKED', 'BLOCKED')),
+                           status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE' CHECK (status IN ('AVAILABLE', 'BOOKED', 'BLOCKED', 'HELD')),
+                           held_until TIMESTAMP,
+                           held_by_user_id BIGINT,
+                           version BIGINT NOT NULL DEFAULT 0,
                            created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                            updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                            CONSTRAINT check_slot_times CHECK (end_time > start_time),
@@ -122,6 +132,10 @@ CREATE TABLE booking (
                              booking_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                              total_price DECIMAL(10,2) NOT NULL CHECK (total_price > 0),
                              status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW')),
+    -- gateway the customer paid with - payouts and refunds go through the same one
+                             payment_gateway VARCHAR(20) NOT NULL CHECK (payment_gateway IN ('STRIPE', 'PAYPAL')),
+    -- captured payment, stored before confirming - an abandoned PENDING booking with one is refunded
+                             payment_gateway_transaction_id VARCHAR(255),
                              cancellation_reason TEXT,
                              cancelled_at TIMESTAMP,
                              completed_at TIMESTAMP,
@@ -131,7 +145,7 @@ CREATE TABLE booking (
 
 -- BOOKING_PAYMENT: Customer pays for a booking , booking_id
 -- SUBSCRIPTION_PAYMENT: Provider pays for monthly subscription , subscription_id
--- REFUND: Money returned to customer (cancelled booking)
+-- REFUND: Money returned to customer (cancelled booking, or no booking when the hold expired while paying)
 -- PAYOUT: Money transferred to provider (completed booking)
 CREATE TABLE transaction (
                              id BIGSERIAL PRIMARY KEY,
@@ -141,6 +155,7 @@ CREATE TABLE transaction (
                              transaction_type VARCHAR(20) NOT NULL CHECK (transaction_type IN ('BOOKING_PAYMENT', 'SUBSCRIPTION_PAYMENT', 'REFUND', 'PAYOUT')),
                              amount DECIMAL(10,2) NOT NULL CHECK (amount > 0),
                              payment_method VARCHAR(50),
+                             payment_gateway VARCHAR(20) CHECK (payment_gateway IN ('STRIPE', 'PAYPAL')),
     -- number from payment way useful in check and return for this transaction
     -- and for make connection between strip and my website
                              payment_gateway_transaction_id VARCHAR(255),
@@ -186,6 +201,7 @@ CREATE TABLE notification (
                                                                                                   'BOOKING_CANCELLED',
                                                                                                   'NEW_BOOKING_RECEIVED',
                                                                                                   'BOOKING_REMINDER',
+                                                                                                  'BOOKING_NO_SHOW',
                                                                                                   'REVIEW_RECEIVED',
                                                                                                   'REFUND_APPROVED',
                                                                                                   'REFUND_REJECTED',
@@ -201,4 +217,84 @@ CREATE TABLE notification (
                               is_read BOOLEAN DEFAULT FALSE,
                               read_at TIMESTAMP,
                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+-- Transactional outbox: notifications, payouts and refunds written in the booking transaction,
+-- dispatched afterwards by the relay (PROCESSING = claimed until available_at)
+CREATE TABLE outbox_event (
+                              id BIGSERIAL PRIMARY KEY,
+                              event_type VARCHAR(20) NOT NULL CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'BATCH_PAYOUT', 'REFUND', 'BATCH_REFUND', 'PAYMENT_REVERSAL')),
+                              aggregate_id BIGINT,
+                              payload TEXT NOT NULL,
+                              status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'PROCESSING', 'PROCESSED', 'FAILED')),
+                              attempts INT NOT NULL DEFAULT 0,
+                              available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              last_error TEXT,
+                              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              processed_at TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_event_due ON outbox_event (available_at, id) WHERE status IN ('PENDING', 'PROCESSING');
+
+-- Idempotency-Key -> stored response of booking / subscription creation (retries are replayed, not re-charged)
+CREATE TABLE idempotency_record (
+                                    id BIGSERIAL PRIMARY KEY,
+                                    user_id BIGINT NOT NULL,
+                                    endpoint VARCHAR(100) NOT NULL,
+                                    idempotency_key VARCHAR(100) NOT NULL,
+                                    request_hash VARCHAR(64) NOT NULL,
+                                    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED')),
+                                    response_body TEXT,
+                                    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                    expires_at TIMESTAMP NOT NULL,
+                                    UNIQUE(user_id, endpoint, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
+
+-- Active bookings only - keeps status sweeps and dashboards off the completed / cancelled history
+CREATE INDEX idx_booking_active ON booking (status, id) WHERE status IN ('PENDING', 'CONFIRMED');
+
+-- Service search (service.search.backend=POSTGRES): full-text on search_vector, substring / fuzzy on title
+CREATE INDEX idx_service_search_vector ON service USING GIN (search_vector);
+CREATE INDEX idx_service_title_trgm ON service USING GIN (title gin_trgm_ops);
+-- Keyset pagination of the public listing: one partial index per ordering, id breaks ties
+CREATE INDEX idx_service_active_created ON service (created_at DESC, id DESC) WHERE is_active = true;
+CREATE INDEX idx_service_active_price ON service (price, id) WHERE is_active = true;
+CREATE INDEX idx_service_active_category_created ON service (category_id, created_at DESC, id DESC) WHERE is_active = true;
+CREATE INDEX idx_service_active_category_price ON service (category_id, price, id) WHERE is_active = true;
+
+-- Append-only log of booking status transitions (no FK: discarded unpaid bookings keep their events)
+CREATE TABLE booking_event (
+                               id BIGSERIAL PRIMARY KEY,
+                               booking_id BIGINT NOT NULL,
+                               service_id BIGINT NOT NULL,
+                               provider_id BIGINT NOT NULL,
+                               customer_id BIGINT NOT NULL,
+                               from_status VARCHAR(20) CHECK (from_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW', 'DISCARDED')),
+                               to_status VARCHAR(20) NOT NULL CHECK (to_status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW', 'DISCARDED')),
+                               amount DECIMAL(10, 2) NOT NULL,
+                               occurred_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Inserting transaction: the projector reads (tx_id, id) of finished transactions only
+                               tx_id BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint
+);
+
+CREATE INDEX idx_booking_event_booking ON booking_event (booking_id);
+CREATE INDEX idx_booking_event_tx ON booking_event (tx_id, id);
+
+-- Read model projected from booking_event by BookingStatsProjector
+CREATE TABLE provider_booking_stats (
+                                        provider_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+                                        pending BIGINT NOT NULL DEFAULT 0,
+                                        confirmed BIGINT NOT NULL DEFAULT 0,
+                                        completed BIGINT NOT NULL DEFAULT 0,
+                                        cancelled BIGINT NOT NULL DEFAULT 0,
+                                        no_show BIGINT NOT NULL DEFAULT 0,
+                                        completed_revenue DECIMAL(12, 2) NOT NULL DEFAULT 0
+);
+
+-- Last booking_event (tx_id, id) consumed per projection
+CREATE TABLE projection_checkpoint (
+                                       name VARCHAR(50) PRIMARY KEY,
+                                       last_tx_id BIGINT NOT NULL DEFAULT 0,
+                                       last_event_id BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,73 @@
+package com.testing.traningproject.config;
+
+import com.testing.traningproject.service.payment.AdaptiveConcurrencyLimiter;
+import com.testing.traningproject.service.payment.BulkheadPaymentStrategy;
+import com.testing.traningproject.service.payment.GatewayCircuitBreaker;
+import com.testing.traningproject.service.payment.LatePaymentReversal;
+import com.testing.traningproject.service.payment.PaymentStrategy;
+import com.testing.traningproject.service.payment.ResilientPaymentStrategy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Payment Gateway Configuration
+ * Every payment gateway gets its own circuit breaker, adaptive concurrency limit and bulkhead
+ * (bounded threads + queue + timeout), so a slow gateway cannot take the threads of the other one
+ * or of the request pool
+ */
+@Configuration
+@EnableConfigurationProperties({PaymentGatewayProperties.class, PaymentSimulatorProperties.class})
+public class PaymentGatewayConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ResilientPaymentStrategy stripeAsyncPayment(@Qualifier("stripePayment") PaymentStrategy stripePayment,
+                                                       LatePaymentReversal latePaymentReversal,
+                                                       PaymentGatewayProperties properties) {
+        return resilient(stripePayment, latePaymentReversal, properties.forGateway("stripe"));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ResilientPaymentStrategy paypalAsyncPayment(@Qualifier("paypalPayment") PaymentStrategy paypalPayment,
+                                                       LatePaymentReversal latePaymentReversal,
+                                                       PaymentGatewayProperties properties) {
+        return resilient(paypalPayment, latePaymentReversal, properties.forGateway("paypal"));
+    }
+
+    /**
+     * Runs what follows a gateway call (recording the payment) off the gateway threads
+     * A full queue runs the callback on the submitting thread instead of rejecting it - the callback
+     * confirms or reverses a captured payment, dropping it would leave the request and the payment hanging
+     */
+    @Bean
+    public ThreadPoolTaskExecutor paymentCallbackExecutor(
+            @Value("${payment.callback.pool-size:8}") int poolSize,
+            @Value("${payment.callback.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-callback-");
+        executor.setRejectedExecutionHandler((callback, pool) -> callback.run());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    private static ResilientPaymentStrategy resilient(PaymentStrategy strategy, LatePaymentReversal latePaymentReversal,
+                                                      PaymentGatewayProperties.Gateway settings) {
+        BulkheadPaymentStrategy bulkhead = new BulkheadPaymentStrategy(strategy, latePaymentReversal,
+                settings.getMaxConcurrentCalls(), settings.getQueueCapacity(), settings.getTimeoutMs());
+
+        GatewayCircuitBreaker circuitBreaker = new GatewayCircuitBreaker(settings.getWindowSize(),
+                settings.getMinimumCalls(), settings.getFailureRateThreshold(), settings.getSlowCallMs(),
+                settings.getOpenMs(), settings.getHalfOpenCalls());
+
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(settings.getInitialLimit(),
+                settings.getMinLimit(), settings.getMaxLimit(), settings.getBackoffRatio(), settings.getSlowCallMs());
+
+        return new ResilientPaymentStrategy(bulkhead, circuitBreaker, concurrencyLimiter);
+    }
+}
@@ -0,0 +1,48 @@
+package com.testing.traningproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-gateway resilience settings (payment.gateway.&lt;name&gt;.*)
+ * A gateway without properties runs with the defaults below
+ */
+@Data
+@ConfigurationProperties(prefix = "payment")
+public class PaymentGatewayProperties {
+
+    private Map<String, Gateway> gateway = new HashMap<>();
+
+    public Gateway forGateway(String name) {
+        return gateway.getOrDefault(name, new Gateway());
+    }
+
+    @Data
+    public static class Gateway {
+
+        // Bulkhead
+        private int maxConcurrentCalls = 20;
+        private int queueCapacity = 100;
+        private long timeoutMs = 10000; // Payments only - refunds / payouts wait for the gateway
+
+        // Gateway client (connect + read) timeout of every call - keep below outbox.relay.lease-seconds
+        private long clientTimeoutMs = 30000;
+
+        // Circuit breaker - opens when failureRateThreshold % of the last windowSize calls failed or were slow
+        private int windowSize = 50;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private long slowCallMs = 3000;
+        private long openMs = 30000;
+        private int halfOpenCalls = 3;
+
+        // Adaptive concurrency limit (AIMD) - additive increase on fast successes, multiplicative decrease otherwise
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 20;
+        private double backoffRatio = 0.7;
+    }
+}
@@ -0,0 +1,56 @@
+package com.testing.traningproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Simulated gateway behavior (payment.simulator.*)
+ * A profile describes latency, failures and rate limit of a gateway; one profile is active for all gateways,
+ * unless a gateway names its own in gateway-profile.&lt;name&gt;
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.simulator")
+public class PaymentSimulatorProperties {
+
+    private String profile = "instant";
+    private Map<String, Profile> profiles = new HashMap<>();
+    private Map<String, String> gatewayProfile = new HashMap<>();
+
+    /**
+     * Active profile of a gateway
+     * @throws IllegalStateException if the profile is not configured (instant is always available)
+     */
+    public Profile forGateway(String gateway) {
+        return forProfile(gatewayProfile.getOrDefault(gateway, profile));
+    }
+
+    public Profile forProfile(String name) {
+        Profile selected = profiles.get(name);
+        if (selected == null) {
+            if ("instant".equals(name)) {
+                return new Profile();
+            }
+            throw new IllegalStateException("Unknown payment simulator profile: " + name);
+        }
+        return selected;
+    }
+
+    @Data
+    public static class Profile {
+
+        // Latency - log-normal through the median and the 99th percentile (p99 <= p50: constant p50)
+        private long p50Ms = 0;
+        private long p99Ms = 0;
+
+        // Fractions of calls that fail with a gateway error, or hang for hangMs and then fail
+        private double errorRate = 0;
+        private double timeoutRate = 0;
+        private long hangMs = 30000;
+
+        // Calls per second per gateway before the gateway answers "too many requests" (0 = unlimited)
+        private int rateLimitPerSecond = 0;
+    }
+}
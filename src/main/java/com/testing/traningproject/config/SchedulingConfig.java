@@ -0,0 +1,13 @@
+package com.testing.traningproject.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled background jobs (e.g., time slot horizon roller)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
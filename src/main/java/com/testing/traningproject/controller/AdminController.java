@@ -1,5 +1,6 @@
 package com.testing.traningproject.controller;
 
+import com.testing.traningproject.model.dto.request.BulkRefundDecisionRequest;
 import com.testing.traningproject.model.dto.request.CategoryRequest;
 import com.testing.traningproject.model.dto.request.CreateSubscriptionPlanRequest;
 import com.testing.traningproject.model.dto.request.ProviderApprovalRequest;
@@ -9,6 +10,7 @@ import com.testing.traningproject.model.dto.response.*;
 import com.testing.traningproject.service.AdminService;
 import com.testing.traningproject.service.CategoryService;
 import com.testing.traningproject.service.TransactionService;
+import com.testing.traningproject.service.payment.PaymentStrategyFactory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +35,7 @@ public class AdminController {
     private final AdminService adminService;
     private final TransactionService transactionService;
     private final CategoryService categoryService;
+    private final PaymentStrategyFactory paymentStrategyFactory;
 
     /**
      * Get all pending service provider registrations
@@ -112,6 +115,25 @@ public class AdminController {
         return ResponseEntity.ok("Refund rejected successfully");
     }
 
+    /**
+     * Approve many refund requests at once
+     * Refunds are settled in the background with one gateway batch refund per payment gateway
+     */
+    @PutMapping("/refunds/bulk-approve")
+    public ResponseEntity<BulkRefundDecisionResponse> approveRefunds(@Valid @RequestBody BulkRefundDecisionRequest request) {
+        log.info("Admin: Bulk approving {} refunds", request.getRefundIds().size());
+        return ResponseEntity.ok(adminService.approveRefunds(request));
+    }
+
+    /**
+     * Reject many refund requests at once
+     */
+    @PutMapping("/refunds/bulk-reject")
+    public ResponseEntity<BulkRefundDecisionResponse> rejectRefunds(@Valid @RequestBody BulkRefundDecisionRequest request) {
+        log.info("Admin: Bulk rejecting {} refunds", request.getRefundIds().size());
+        return ResponseEntity.ok(adminService.rejectRefunds(request));
+    }
+
     /**
      * Get platform statistics
      */
@@ -122,6 +144,14 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Payment gateway health: circuit breaker, adaptive concurrency limit and bulkhead per gateway
+     */
+    @GetMapping("/payment-gateways")
+    public ResponseEntity<List<PaymentGatewayMetricsResponse>> getPaymentGatewayMetrics() {
+        return ResponseEntity.ok(paymentStrategyFactory.getGatewayMetrics());
+    }
+
     // ==================== Subscription Plan Management ====================
 
     /**
@@ -2,28 +2,40 @@ package com.testing.traningproject.controller;
 
 import com.testing.traningproject.model.dto.request.CancelBookingRequest;
 import com.testing.traningproject.model.dto.request.CreateBookingRequest;
+import com.testing.traningproject.model.dto.request.CreateRecurringBookingRequest;
 import com.testing.traningproject.model.dto.request.CreateReviewRequest;
+import com.testing.traningproject.model.dto.request.HoldSlotRequest;
 import com.testing.traningproject.model.dto.response.BookingResponse;
+import com.testing.traningproject.model.dto.response.RecurringBookingResponse;
 import com.testing.traningproject.model.dto.response.RefundResponse;
 import com.testing.traningproject.model.dto.response.ReviewResponse;
+import com.testing.traningproject.model.dto.response.SlotHoldResponse;
+import com.testing.traningproject.model.dto.response.SlotMonthSummaryResponse;
 import com.testing.traningproject.model.dto.response.TimeSlotResponse;
 import com.testing.traningproject.model.dto.response.TransactionResponse;
 import com.testing.traningproject.security.CustomUserDetails;
 import com.testing.traningproject.service.BookingService;
 import com.testing.traningproject.service.RefundService;
 import com.testing.traningproject.service.ReviewService;
+import com.testing.traningproject.service.SlotHoldService;
 import com.testing.traningproject.service.TimeSlotService;
 import com.testing.traningproject.service.TransactionService;
+import com.testing.traningproject.service.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for Customer operations
@@ -40,6 +52,9 @@ public class CustomerController {
     private final TransactionService transactionService;
     private final TimeSlotService timeSlotService;
     private final RefundService refundService;
+    private final SlotHoldService slotHoldService;
+    private final IdempotencyService idempotencyService;
+    private final JsonMapper jsonMapper;
 
     // ==================== Time Slot Endpoints ====================
 
@@ -68,22 +83,110 @@ public class CustomerController {
         return ResponseEntity.ok(slots);
     }
 
+    /**
+     * Get per-day slot counts of a service for a month (calendar view)
+     * - month: YYYY-MM (default: current month)
+     * Supports conditional requests - send If-None-Match with the last ETag to get 304 Not Modified
+     */
+    @GetMapping("/services/{serviceId}/slots/summary")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<SlotMonthSummaryResponse> getSlotMonthSummary(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable Long serviceId,
+            @RequestParam(required = false) String month,
+            WebRequest webRequest) {
+
+        log.info("Customer ID: {} fetching slot summary for service ID: {} (month: {})",
+                userDetails.getId(), serviceId, month);
+
+        SlotMonthSummaryResponse summary = timeSlotService.getMonthSummary(serviceId, month);
+
+        // ETag is a digest of the serialized summary - unchanged month => 304 with an empty body
+        String etag = "\"" + DigestUtils.md5DigestAsHex(jsonMapper.writeValueAsBytes(summary)) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(summary);
+    }
+
+    /**
+     * Hold a slot for a few minutes before paying
+     * Book it with POST /bookings (same slotId) before heldUntil, or release it
+     */
+    @PostMapping("/slots/hold")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<SlotHoldResponse> holdSlot(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody HoldSlotRequest request) {
+
+        log.info("Customer ID: {} holding a slot of service ID: {}", userDetails.getId(), request.getServiceId());
+
+        SlotHoldResponse response = slotHoldService.holdSlot(userDetails.getId(), request);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Release a held slot without booking
+     */
+    @DeleteMapping("/slots/{slotId}/hold")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<Void> releaseSlotHold(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable Long slotId) {
+
+        log.info("Customer ID: {} releasing hold on slot ID: {}", userDetails.getId(), slotId);
+
+        slotHoldService.cancelHold(userDetails.getId(), slotId);
+
+        return ResponseEntity.noContent().build();
+    }
+
     // ==================== Booking Endpoints ====================
 
     /**
      * Create a new booking
+     * With an Idempotency-Key header a retried request returns the first response instead of paying again
+     * Asynchronous - the request thread is released while the payment gateway runs
      */
     @PostMapping("/bookings")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<BookingResponse> createBooking(
+    public CompletableFuture<ResponseEntity<BookingResponse>> createBooking(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateBookingRequest request) {
 
         log.info("Customer ID: {} creating booking for service ID: {}", userDetails.getId(), request.getServiceId());
 
-        BookingResponse response = bookingService.createBooking(userDetails.getId(), request);
+        return idempotencyService.executeAsync(
+                        userDetails.getId(), "POST /api/customer/bookings", idempotencyKey, request, BookingResponse.class,
+                        () -> bookingService.createBooking(userDetails.getId(), request))
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * Book a recurring series (same start time every intervalWeeks weeks) with one payment
+     * All occurrences are booked, or none is; supports Idempotency-Key like single bookings
+     */
+    @PostMapping("/bookings/recurring")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public CompletableFuture<ResponseEntity<RecurringBookingResponse>> createRecurringBooking(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateRecurringBookingRequest request) {
+
+        log.info("Customer ID: {} creating {} recurring bookings for service ID: {}",
+                userDetails.getId(), request.getOccurrences(), request.getServiceId());
+
+        return idempotencyService.executeAsync(
+                        userDetails.getId(), "POST /api/customer/bookings/recurring", idempotencyKey, request,
+                        RecurringBookingResponse.class,
+                        () -> bookingService.createRecurringBooking(userDetails.getId(), request))
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
 
     /**
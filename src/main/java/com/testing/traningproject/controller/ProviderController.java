@@ -1,10 +1,17 @@
 package com.testing.traningproject.controller;
 
+import com.testing.traningproject.model.dto.request.BlockTimeSlotRequest;
+import com.testing.traningproject.model.dto.request.BulkCompleteBookingsRequest;
+import com.testing.traningproject.model.dto.request.BulkTimeSlotStatusRequest;
 import com.testing.traningproject.model.dto.request.CreateServiceRequest;
 import com.testing.traningproject.model.dto.request.SetAvailabilityRequest;
 import com.testing.traningproject.model.dto.request.UpdateServiceRequest;
+import com.testing.traningproject.model.dto.response.AvailabilityDeletionResponse;
 import com.testing.traningproject.model.dto.response.BookingResponse;
+import com.testing.traningproject.model.dto.response.BulkCompleteBookingsResponse;
+import com.testing.traningproject.model.dto.response.BulkTimeSlotStatusResponse;
 import com.testing.traningproject.model.dto.response.ProviderAvailabilityResponse;
+import com.testing.traningproject.model.dto.response.ProviderBookingStatsResponse;
 import com.testing.traningproject.model.dto.response.ReviewResponse;
 import com.testing.traningproject.model.dto.response.ServiceResponse;
 import com.testing.traningproject.model.dto.response.TimeSlotResponse;
@@ -109,14 +116,15 @@ public class ProviderController {
 
     /**
      * Delete availability
+     * Future unbooked slots in its window are deleted; booked slots are kept and reported
      */
     @DeleteMapping("/availability/{id}")
-    public ResponseEntity<Void> deleteAvailability(
+    public ResponseEntity<AvailabilityDeletionResponse> deleteAvailability(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long id) {
 
-        providerService.deleteAvailability(userDetails.getId(), id);
-        return ResponseEntity.noContent().build();
+        AvailabilityDeletionResponse response = providerService.deleteAvailability(userDetails.getId(), id);
+        return ResponseEntity.ok(response);
     }
 
     // ==================== Time Slot Management ====================
@@ -152,6 +160,44 @@ public class ProviderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Block a time slot by service, date and start time
+     * Works for slots that are not stored yet (virtual availability mode)
+     */
+    @PutMapping("/time-slots/block")
+    public ResponseEntity<TimeSlotResponse> blockTimeSlotByKey(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BlockTimeSlotRequest request) {
+
+        TimeSlotResponse response = timeSlotService.blockTimeSlot(userDetails.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Block all available slots in a date range (e.g., vacation week) with one statement
+     * Optional serviceId (default: all services) and daily time window (fromTime/toTime)
+     */
+    @PutMapping("/time-slots/bulk-block")
+    public ResponseEntity<BulkTimeSlotStatusResponse> bulkBlockTimeSlots(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BulkTimeSlotStatusRequest request) {
+
+        BulkTimeSlotStatusResponse response = timeSlotService.bulkBlockTimeSlots(userDetails.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Unblock all blocked slots in a date range with one statement
+     */
+    @PutMapping("/time-slots/bulk-unblock")
+    public ResponseEntity<BulkTimeSlotStatusResponse> bulkUnblockTimeSlots(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BulkTimeSlotStatusRequest request) {
+
+        BulkTimeSlotStatusResponse response = timeSlotService.bulkUnblockTimeSlots(userDetails.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Unblock a previously blocked time slot
      * Makes the slot available for booking again
@@ -177,6 +223,16 @@ public class ProviderController {
         return ResponseEntity.ok(bookingService.getProviderBookings(userDetails.getId()));
     }
 
+    /**
+     * Booking counts per status and completed revenue (dashboard)
+     */
+    @GetMapping("/bookings/stats")
+    public ResponseEntity<ProviderBookingStatsResponse> getMyBookingStats(
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        return ResponseEntity.ok(bookingService.getProviderBookingStats(userDetails.getId()));
+    }
+
     /**
      * Mark booking as completed (triggers PAYOUT transaction)
      */
@@ -189,6 +245,19 @@ public class ProviderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Mark many CONFIRMED bookings as completed at once (e.g., closing out a day)
+     * Payout is aggregated into one gateway payout per payment gateway
+     */
+    @PutMapping("/bookings/bulk-complete")
+    public ResponseEntity<BulkCompleteBookingsResponse> bulkCompleteBookings(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BulkCompleteBookingsRequest request) {
+
+        BulkCompleteBookingsResponse response = bookingService.bulkCompleteBookings(userDetails.getId(), request);
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== Review Management ====================
 
     /**
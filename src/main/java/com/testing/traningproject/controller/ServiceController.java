@@ -1,5 +1,7 @@
 package com.testing.traningproject.controller;
 
+import com.testing.traningproject.model.dto.response.AvailableProviderResponse;
+import com.testing.traningproject.model.dto.response.ServicePageResponse;
 import com.testing.traningproject.model.dto.response.ServiceResponse;
 import com.testing.traningproject.service.PublicServiceService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalTime;
 import java.util.List;
 
 /**
@@ -22,23 +25,26 @@ public class ServiceController {
 
     private final PublicServiceService publicServiceService;
     /**
-     * Get all active services
-     * Supports filtering by category, search term, price range, and sorting
+     * Get active services - one page at a time
+     * Supports filtering by category, search term, price range (combined), sorting and keyset pagination
+     * Example: /api/services?search=yoga&maxPrice=50&sortBy=price_low&size=20 - then add &cursor={nextCursor}
      */
     @GetMapping
-    public ResponseEntity<List<ServiceResponse>> getAllServices(
+    public ResponseEntity<ServicePageResponse> getAllServices(
             @RequestParam(required = false) Integer categoryId,
             @RequestParam(required = false) String categoryName,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
-            @RequestParam(required = false, defaultValue = "newest") String sortBy) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
 
-        log.info("GET /api/services - categoryId: {}, categoryName: {}, search: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
-                categoryId, categoryName, search, minPrice, maxPrice, sortBy);
+        log.info("GET /api/services - categoryId: {}, categoryName: {}, search: {}, minPrice: {}, maxPrice: {}, sortBy: {}, size: {}",
+                categoryId, categoryName, search, minPrice, maxPrice, sortBy, size);
 
-        List<ServiceResponse> services = publicServiceService.searchServices(
-                categoryId, categoryName, search, minPrice, maxPrice, sortBy);
+        ServicePageResponse services = publicServiceService.searchServices(
+                categoryId, categoryName, search, minPrice, maxPrice, sortBy, cursor, size);
 
         return ResponseEntity.ok(services);
     }
@@ -53,6 +59,26 @@ public class ServiceController {
         return ResponseEntity.ok(service);
     }
 
+    /**
+     * Find providers available for a whole time window
+     * Example: /api/services/providers/available?dayOfWeek=TUESDAY&startTime=14:00&endTime=15:00
+     */
+    @GetMapping("/providers/available")
+    public ResponseEntity<List<AvailableProviderResponse>> getAvailableProviders(
+            @RequestParam(required = false) String dayOfWeek,
+            @RequestParam(required = false) String date,
+            @RequestParam LocalTime startTime,
+            @RequestParam LocalTime endTime) {
+
+        log.info("GET /api/services/providers/available - dayOfWeek: {}, date: {}, startTime: {}, endTime: {}",
+                dayOfWeek, date, startTime, endTime);
+
+        List<AvailableProviderResponse> providers =
+                publicServiceService.findAvailableProviders(dayOfWeek, date, startTime, endTime);
+
+        return ResponseEntity.ok(providers);
+    }
+
     /**
      * Get services by category ID
      */
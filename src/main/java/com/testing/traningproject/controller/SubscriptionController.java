@@ -5,6 +5,7 @@ import com.testing.traningproject.model.dto.response.SubscriptionPlanResponse;
 import com.testing.traningproject.model.dto.response.SubscriptionResponse;
 import com.testing.traningproject.security.CustomUserDetails;
 import com.testing.traningproject.service.SubscriptionService;
+import com.testing.traningproject.service.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -24,6 +25,7 @@ import java.util.List;
 public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Get all available subscription plans
@@ -36,14 +38,18 @@ public class SubscriptionController {
     /**
      * Subscribe to a plan
      * Requires SERVICE_PROVIDER role
+     * With an Idempotency-Key header a retried request returns the first response instead of paying again
      */
     @PostMapping("/subscribe")
     @PreAuthorize("hasRole('SERVICE_PROVIDER')")
     public ResponseEntity<SubscriptionResponse> subscribe(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody SubscribeRequest request) {
 
-        SubscriptionResponse response = subscriptionService.subscribe(userDetails.getId(), request);
+        SubscriptionResponse response = idempotencyService.execute(
+                userDetails.getId(), "POST /api/subscriptions/subscribe", idempotencyKey, request, SubscriptionResponse.class,
+                () -> subscriptionService.subscribe(userDetails.getId(), request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
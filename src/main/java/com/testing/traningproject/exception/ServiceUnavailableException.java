@@ -0,0 +1,18 @@
+package com.testing.traningproject.exception;
+
+/**
+ * Exception thrown when a downstream dependency cannot take the request right now
+ * HTTP Status: 503 Service Unavailable
+ *
+ * Example: Payment gateway saturated or timing out
+ */
+public class ServiceUnavailableException extends BaseException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
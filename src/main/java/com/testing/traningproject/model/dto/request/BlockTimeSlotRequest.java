@@ -0,0 +1,30 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request DTO for blocking a time slot by its date and start time
+ * Works for slots that are not stored yet (VIRTUAL availability mode)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlockTimeSlotRequest {
+
+    @NotNull(message = "Service ID is required")
+    private Long serviceId;
+
+    @NotNull(message = "Slot date is required")
+    private LocalDate slotDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+}
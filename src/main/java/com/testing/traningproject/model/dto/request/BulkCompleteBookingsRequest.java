@@ -0,0 +1,24 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for marking many CONFIRMED bookings as completed (e.g., closing out a day)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCompleteBookingsRequest {
+
+    @NotEmpty(message = "At least one booking ID is required")
+    @Size(max = 200, message = "At most 200 bookings can be completed at once")
+    private List<Long> bookingIds;
+}
@@ -0,0 +1,29 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for approving or rejecting many refund requests at once (e.g., clearing a backlog)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRefundDecisionRequest {
+
+    @NotEmpty(message = "At least one refund ID is required")
+    @Size(max = 1000, message = "At most 1000 refunds can be decided at once")
+    private List<Long> refundIds;
+
+    /**
+     * Admin notes explaining the decision (same notes for every refund)
+     */
+    private String adminNotes;
+}
@@ -0,0 +1,35 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request DTO for blocking/unblocking all slots in a date range (e.g., a vacation week)
+ * Optional filters:
+ * - serviceId: one service (default: all provider's services)
+ * - fromTime/toTime: only slots inside this daily window (default: whole day)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTimeSlotStatusRequest {
+
+    private Long serviceId;
+
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+
+    private LocalTime fromTime;
+
+    private LocalTime toTime;
+}
@@ -1,14 +1,20 @@
 package com.testing.traningproject.model.dto.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 /**
  * Request DTO for creating a booking
+ * The slot is referenced either by slotId or by slotDate + startTime
+ * (slots computed on the fly in VIRTUAL availability mode have no ID yet)
  */
 @Data
 @Builder
@@ -19,13 +25,21 @@ public class CreateBookingRequest {
     @NotNull(message = "Service ID is required")
     private Long serviceId;
 
-    @NotNull(message = "Time slot ID is required")
     private Long slotId;
 
+    private LocalDate slotDate;
+
+    private LocalTime startTime;
+
     @NotNull(message = "Payment method is required")
     private String paymentMethod; // e.g., "Credit Card", "Debit Card"
 
     @NotNull(message = "Payment card information is required")
     @Valid
     private PaymentCardRequest paymentCard;
+
+    @AssertTrue(message = "Either slotId or slotDate and startTime are required")
+    public boolean isSlotReferenced() {
+        return slotId != null || (slotDate != null && startTime != null);
+    }
 }
@@ -0,0 +1,30 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Request DTO for booking a recurring series (e.g., the same weekly session for 10 weeks)
+ * The inherited slot reference is the first occurrence; the following ones start at the same time
+ * every intervalWeeks weeks. All slots are booked together with one payment, or none is
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class CreateRecurringBookingRequest extends CreateBookingRequest {
+
+    @NotNull(message = "Number of occurrences is required")
+    @Min(value = 2, message = "A recurring booking needs at least 2 occurrences")
+    @Max(value = 26, message = "A recurring booking can have at most 26 occurrences")
+    private Integer occurrences;
+
+    @Min(value = 1, message = "Interval must be at least 1 week")
+    @Max(value = 4, message = "Interval can be at most 4 weeks")
+    private Integer intervalWeeks = 1;
+}
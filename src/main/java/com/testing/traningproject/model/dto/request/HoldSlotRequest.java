@@ -0,0 +1,36 @@
+package com.testing.traningproject.model.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request DTO for holding a slot before paying
+ * The slot is referenced either by slotId or by slotDate + startTime
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldSlotRequest {
+
+    @NotNull(message = "Service ID is required")
+    private Long serviceId;
+
+    private Long slotId;
+
+    private LocalDate slotDate;
+
+    private LocalTime startTime;
+
+    @AssertTrue(message = "Either slotId or slotDate and startTime are required")
+    public boolean isSlotReferenced() {
+        return slotId != null || (slotDate != null && startTime != null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for deleting an availability period
+ * Booked slots (or slots referenced by a booking) are kept and reported as skipped
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityDeletionResponse {
+
+    private Long availabilityId;
+    private String dayOfWeek;
+    private int deletedSlots;
+    private long skippedBookedSlots;
+}
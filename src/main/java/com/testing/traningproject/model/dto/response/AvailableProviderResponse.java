@@ -0,0 +1,22 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a provider whose weekly availability covers a requested time window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableProviderResponse {
+
+    private Long providerId;
+    private String firstName;
+    private String lastName;
+    private String professionalTitle;
+    private String profilePictureUrl;
+}
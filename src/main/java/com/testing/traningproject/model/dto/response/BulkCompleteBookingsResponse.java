@@ -0,0 +1,24 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a bulk booking completion
+ * Skipped bookings do not exist, belong to another provider or are not CONFIRMED
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCompleteBookingsResponse {
+
+    private List<Long> completedBookingIds;
+    private List<Long> skippedBookingIds;
+    private BigDecimal payoutAmount; // Total queued for payout (one payout per payment gateway)
+}
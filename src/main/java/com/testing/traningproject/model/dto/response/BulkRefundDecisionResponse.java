@@ -0,0 +1,24 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a bulk refund decision
+ * Skipped refunds do not exist or are not PENDING
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRefundDecisionResponse {
+
+    private List<Long> processedRefundIds;
+    private List<Long> skippedRefundIds;
+    private BigDecimal totalAmount; // Total approved (queued for settlement) or rejected
+}
@@ -0,0 +1,23 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Response DTO for a bulk block/unblock - number of slots whose status changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTimeSlotStatusResponse {
+
+    private String status; // New status: BLOCKED or AVAILABLE
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int affectedSlots;
+}
@@ -0,0 +1,24 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Response DTO for the slot counts of one day (month calendar view)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DaySlotSummaryResponse {
+
+    private LocalDate date;
+    private long available;
+    private long booked;
+    private long blocked;
+    private long held; // Reserved while a customer is paying
+}
@@ -0,0 +1,33 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for the health of one payment gateway (admin monitoring)
+ * Rejection counters are cumulative since startup
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentGatewayMetricsResponse {
+
+    private String gateway;
+
+    // Circuit breaker
+    private String circuitState; // CLOSED, OPEN, HALF_OPEN
+    private Integer failureRate; // % of failed or slow calls in the current window
+    private Long rejectedByCircuitBreaker;
+
+    // Adaptive concurrency limit
+    private Integer concurrencyLimit;
+    private Integer inFlight;
+    private Long rejectedByLimiter;
+
+    // Bulkhead
+    private Integer activeCalls;
+    private Integer queuedCalls;
+}
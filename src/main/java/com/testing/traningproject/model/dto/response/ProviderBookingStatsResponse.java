@@ -0,0 +1,26 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Response DTO for the provider booking dashboard
+ * Projected from the booking event log - may lag a few seconds behind the latest changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderBookingStatsResponse {
+
+    private Long pending;
+    private Long confirmed;
+    private Long completed;
+    private Long cancelled;
+    private Long noShow;
+    private BigDecimal completedRevenue;
+}
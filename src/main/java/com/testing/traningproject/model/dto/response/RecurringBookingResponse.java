@@ -0,0 +1,23 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a recurring booking - one booking per occurrence, paid with one charge
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringBookingResponse {
+
+    private int occurrences;
+    private BigDecimal totalPaid;
+    private List<BookingResponse> bookings; // Ordered by date
+}
@@ -0,0 +1,23 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of the public service listing
+ * Pass nextCursor (with the same filters and sortBy) to fetch the following page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServicePageResponse {
+
+    private List<ServiceResponse> content;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+}
@@ -0,0 +1,28 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Response DTO for a slot held for the customer
+ * Book it (POST /api/customer/bookings with the slotId) before heldUntil
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotHoldResponse {
+
+    private Long slotId;
+    private Long serviceId;
+    private LocalDate slotDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime heldUntil;
+}
@@ -0,0 +1,23 @@
+package com.testing.traningproject.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for the month calendar of a service
+ * Only days that have slots are listed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotMonthSummaryResponse {
+
+    private Long serviceId;
+    private String month; // YYYY-MM
+    private List<DaySlotSummaryResponse> days;
+}
@@ -1,6 +1,7 @@
 package com.testing.traningproject.model.entity;
 
 import com.testing.traningproject.model.enums.BookingStatus;
+import com.testing.traningproject.model.enums.PaymentGateway;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -49,6 +50,15 @@ public class Booking {
     @Builder.Default
     private BookingStatus status = BookingStatus.PENDING;
 
+    // Gateway the customer paid with - payouts and refunds go through the same gateway
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_gateway", nullable = false, length = 20)
+    private PaymentGateway paymentGateway;
+
+    // Captured payment of a booking that is still PENDING - lets the sweeper reverse it if the booking is never confirmed
+    @Column(name = "payment_gateway_transaction_id", length = 255)
+    private String paymentGatewayTransactionId;
+
     @Column(name = "cancellation_reason", columnDefinition = "TEXT")
     private String cancellationReason;
 
@@ -0,0 +1,62 @@
+package com.testing.traningproject.model.entity;
+
+import com.testing.traningproject.model.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Booking Event Entity - append-only log of booking status transitions
+ * Rows are never updated; read models (e.g., provider booking stats) are rebuilt from it incrementally
+ * No foreign key to booking: bookings discarded before payment keep their events
+ */
+@Entity
+@Table(name = "booking_event", indexes = {
+        @Index(name = "idx_booking_event_booking", columnList = "booking_id"),
+        @Index(name = "idx_booking_event_tx", columnList = "tx_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    // Null for the creation event
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private BookingStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private BookingStatus toStatus;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Set by the database: ID of the inserting transaction - projections read the log in (txId, id) order
+    @Column(name = "tx_id", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT pg_current_xact_id()::text::bigint")
+    private Long txId;
+}
@@ -0,0 +1,55 @@
+package com.testing.traningproject.model.entity;
+
+import com.testing.traningproject.model.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency Record Entity - response of a write request stored under the client's Idempotency-Key
+ * A retried request with the same key gets the stored response instead of running (and paying) again
+ */
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_idempotency_record_user_endpoint_key",
+                columnNames = {"user_id", "endpoint", "idempotency_key"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "endpoint", nullable = false, length = 100)
+    private String endpoint;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body - a key reused with another body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    // JSON response body, set once COMPLETED
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.testing.traningproject.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Projection Checkpoint Entity - last event a read model has consumed, as a (txId, id) position of booking_event
+ */
+@Entity
+@Table(name = "projection_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionCheckpoint {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "last_tx_id", nullable = false)
+    private Long lastTxId;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+}
@@ -0,0 +1,48 @@
+package com.testing.traningproject.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Provider Booking Stats Entity - read model projected from booking_event
+ * Current number of bookings per status and the revenue of completed bookings, per provider
+ */
+@Entity
+@Table(name = "provider_booking_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderBookingStats {
+
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "pending", nullable = false)
+    @Builder.Default
+    private Long pending = 0L;
+
+    @Column(name = "confirmed", nullable = false)
+    @Builder.Default
+    private Long confirmed = 0L;
+
+    @Column(name = "completed", nullable = false)
+    @Builder.Default
+    private Long completed = 0L;
+
+    @Column(name = "cancelled", nullable = false)
+    @Builder.Default
+    private Long cancelled = 0L;
+
+    @Column(name = "no_show", nullable = false)
+    @Builder.Default
+    private Long noShow = 0L;
+
+    @Column(name = "completed_revenue", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal completedRevenue = BigDecimal.ZERO;
+}
@@ -15,7 +15,8 @@ import java.time.LocalTime;
  * مثال: 2025-12-30 09:00-10:00 AVAILABLE
  */
 @Entity
-@Table(name = "time_slot")
+@Table(name = "time_slot",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"service_id", "slot_date", "start_time"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +46,19 @@ public class TimeSlot {
     @Builder.Default
     private TimeSlotStatus status = TimeSlotStatus.AVAILABLE;
 
+    // Set while status is HELD - the hold expires at heldUntil and is released by the sweeper
+    @Column(name = "held_until")
+    private LocalDateTime heldUntil;
+
+    @Column(name = "held_by_user_id")
+    private Long heldByUserId;
+
+    // Optimistic lock - two concurrent writers of the same slot cannot both commit
+    // Conditional UPDATE queries on time_slot bump it as well
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,5 +1,6 @@
 package com.testing.traningproject.model.entity;
 
+import com.testing.traningproject.model.enums.PaymentGateway;
 import com.testing.traningproject.model.enums.TransactionStatus;
 import com.testing.traningproject.model.enums.TransactionType;
 import jakarta.persistence.*;
@@ -48,6 +49,10 @@ public class Transaction {
     @Column(name = "payment_method", length = 50)
     private String paymentMethod;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_gateway", length = 20)
+    private PaymentGateway paymentGateway;
+
     @Column(name = "payment_gateway_transaction_id", length = 255)
     private String paymentGatewayTransactionId;
 
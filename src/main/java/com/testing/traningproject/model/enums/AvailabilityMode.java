@@ -0,0 +1,13 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for how open time slots are produced (deployment switch: timeslot.availability-mode)
+ * Not persisted
+ * - MATERIALIZED: every slot is stored in time_slot ahead of time by SlotHorizonRoller
+ * - VIRTUAL: open slots are computed from ProviderAvailability on read; a time_slot row is only
+ *   written when a slot is booked or blocked
+ */
+public enum AvailabilityMode {
+    MATERIALIZED,
+    VIRTUAL
+}
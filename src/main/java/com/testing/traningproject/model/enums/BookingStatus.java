@@ -3,12 +3,14 @@ package com.testing.traningproject.model.enums;
 /**
  * Enum for Booking status
  * Maps to: CHECK (status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED', 'NO_SHOW'))
+ * DISCARDED exists only in booking_event: an unpaid PENDING booking that was deleted (never a booking's status)
  */
 public enum BookingStatus {
     PENDING,
     CONFIRMED,
     COMPLETED,
     CANCELLED,
-    NO_SHOW
+    NO_SHOW,
+    DISCARDED
 }
 
@@ -0,0 +1,12 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for Idempotency record status
+ * Maps to: CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED'))
+ * FAILED: the request failed after the payment may have reached the gateway - the key is never run again
+ */
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
@@ -9,6 +9,7 @@ public enum NotificationType {
     BOOKING_CANCELLED,
     NEW_BOOKING_RECEIVED,
     BOOKING_REMINDER,
+    BOOKING_NO_SHOW,
     REVIEW_RECEIVED,
     REFUND_APPROVED,
     REFUND_REJECTED,
@@ -0,0 +1,17 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for Outbox event type - the side effect the relay performs
+ * Maps to: CHECK (event_type IN ('NOTIFICATION', 'PAYOUT', 'BATCH_PAYOUT', 'REFUND', 'BATCH_REFUND', 'PAYMENT_REVERSAL'))
+ * BATCH_PAYOUT: one gateway payout for many completed bookings of a provider
+ * BATCH_REFUND: settlement of many approved refunds with one gateway batch refund per payment gateway
+ * PAYMENT_REVERSAL: refund of a captured payment whose booking could not be confirmed (hold expired while paying)
+ */
+public enum OutboxEventType {
+    NOTIFICATION,
+    PAYOUT,
+    BATCH_PAYOUT,
+    REFUND,
+    BATCH_REFUND,
+    PAYMENT_REVERSAL
+}
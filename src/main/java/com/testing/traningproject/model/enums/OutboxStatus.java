@@ -0,0 +1,14 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for Outbox event status
+ * Maps to: CHECK (status IN ('PENDING', 'PROCESSING', 'PROCESSED', 'FAILED'))
+ * PROCESSING: claimed by a relay until available_at (re-claimed if the relay died)
+ * FAILED: gave up after the maximum number of attempts
+ */
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for the payment gateway that processed a booking / transaction
+ * Maps to: CHECK (payment_gateway IN ('STRIPE', 'PAYPAL'))
+ */
+public enum PaymentGateway {
+    STRIPE,
+    PAYPAL
+}
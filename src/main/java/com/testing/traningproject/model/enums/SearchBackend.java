@@ -0,0 +1,12 @@
+package com.testing.traningproject.model.enums;
+
+/**
+ * Enum for where service search runs (deployment switch: service.search.backend)
+ * Not persisted
+ * - INDEX: in-memory inverted index (ServiceSearchIndex), built on startup on every instance
+ * - POSTGRES: ranked native queries over the generated search_vector column (GIN) and a pg_trgm title index
+ */
+public enum SearchBackend {
+    INDEX,
+    POSTGRES
+}
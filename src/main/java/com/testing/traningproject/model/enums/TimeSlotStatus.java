@@ -2,11 +2,13 @@ package com.testing.traningproject.model.enums;
 
 /**
  * Enum for Time Slot status
- * Maps to: CHECK (status IN ('AVAILABLE', 'BOOKED', 'BLOCKED'))
+ * Maps to: CHECK (status IN ('AVAILABLE', 'BOOKED', 'BLOCKED', 'HELD'))
+ * HELD: reserved for a customer while the payment runs (expires at held_until)
  */
 public enum TimeSlotStatus {
     AVAILABLE,
     BOOKED,
-    BLOCKED
+    BLOCKED,
+    HELD
 }
 
@@ -0,0 +1,18 @@
+package com.testing.traningproject.model.projection;
+
+/**
+ * Change fingerprint of a service's slots in one month - one row per (service, year, month)
+ * Every slot insert, update (version + 1) or delete changes the slot count or the version sum
+ */
+public interface SlotMonthFingerprintProjection {
+
+    Long getServiceId();
+
+    Integer getSlotYear();
+
+    Integer getSlotMonth();
+
+    Long getSlotCount();
+
+    Long getVersionSum();
+}
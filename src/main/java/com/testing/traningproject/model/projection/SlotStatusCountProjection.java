@@ -0,0 +1,17 @@
+package com.testing.traningproject.model.projection;
+
+import com.testing.traningproject.model.enums.TimeSlotStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a per-day slot count - one row per (slot_date, status)
+ */
+public interface SlotStatusCountProjection {
+
+    LocalDate getSlotDate();
+
+    TimeSlotStatus getStatus();
+
+    Long getSlotCount();
+}
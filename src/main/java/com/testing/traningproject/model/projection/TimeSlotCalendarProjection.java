@@ -0,0 +1,27 @@
+package com.testing.traningproject.model.projection;
+
+import com.testing.traningproject.model.enums.TimeSlotStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projection of the columns needed to build a slot calendar (no entity, no timestamps)
+ * The version feeds the month's change fingerprint (see SlotMonthFingerprintProjection)
+ */
+public interface TimeSlotCalendarProjection {
+
+    Long getId();
+
+    Long getServiceId();
+
+    LocalDate getSlotDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    TimeSlotStatus getStatus();
+
+    Long getVersion();
+}
@@ -0,0 +1,15 @@
+package com.testing.traningproject.model.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projection of the natural key of a TimeSlot
+ * Maps to: UNIQUE(service_id, slot_date, start_time) - service is implied by the query
+ */
+public interface TimeSlotKeyProjection {
+
+    LocalDate getSlotDate();
+
+    LocalTime getStartTime();
+}
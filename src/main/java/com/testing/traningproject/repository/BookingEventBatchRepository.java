@@ -0,0 +1,18 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Batch write operations for BookingEvent table
+ * Spring Data fragment - implemented with plain JDBC batching in BookingEventBatchRepositoryImpl
+ */
+public interface BookingEventBatchRepository {
+
+    /**
+     * Append events in JDBC batches (joins the caller's transaction)
+     * @param events Transient events (all columns except id must be set, fromStatus may be null)
+     */
+    void insertAll(List<BookingEvent> events);
+}
@@ -0,0 +1,42 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.BookingEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JDBC implementation of BookingEventBatchRepository
+ * Append-only audit rows - nothing reads them back in the writing transaction, so they never need to be managed entities
+ */
+@RequiredArgsConstructor
+public class BookingEventBatchRepositoryImpl implements BookingEventBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO booking_event (booking_id, service_id, provider_id, customer_id, " +
+            "from_status, to_status, amount, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<BookingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, BATCH_SIZE, (ps, event) -> {
+            ps.setLong(1, event.getBookingId());
+            ps.setLong(2, event.getServiceId());
+            ps.setLong(3, event.getProviderId());
+            ps.setLong(4, event.getCustomerId());
+            ps.setString(5, event.getFromStatus() != null ? event.getFromStatus().name() : null);
+            ps.setString(6, event.getToStatus().name());
+            ps.setBigDecimal(7, event.getAmount());
+            ps.setObject(8, event.getOccurredAt());
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.BookingEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for BookingEvent entity (append-only - rows are inserted through BookingEventBatchRepository)
+ */
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long>, BookingEventBatchRepository {
+
+    // Events after a (txId, id) checkpoint in that order (projections)
+    // Only events of transactions older than every transaction still running: they are all committed
+    // (or rolled back), so no event can appear behind the checkpoint later, however late it commits
+    @Query(value = "SELECT * FROM booking_event e " +
+            "WHERE (e.tx_id, e.id) > (:lastTxId, :lastEventId) " +
+            "AND e.tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint " +
+            "ORDER BY e.tx_id, e.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<BookingEvent> findFinishedAfter(@Param("lastTxId") long lastTxId,
+                                         @Param("lastEventId") long lastEventId,
+                                         @Param("limit") int limit);
+
+    // Full history of a booking
+    List<BookingEvent> findByBookingIdOrderByIdAsc(Long bookingId);
+}
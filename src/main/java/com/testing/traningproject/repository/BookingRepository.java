@@ -2,11 +2,18 @@ package com.testing.traningproject.repository;
 
 import com.testing.traningproject.model.entity.Booking;
 import com.testing.traningproject.model.enums.BookingStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,14 +36,84 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.service.provider.id = :providerId ORDER BY b.createdAt DESC")
     List<Booking> findByProviderId(@Param("providerId") Long providerId);
 
-    // Find booking by ID and customer ID (security check)
-    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND b.customer.id = :customerId")
+    // Find booking by ID and customer ID (security check) - slot, service, provider and customer fetched in the same query
+    @Query("SELECT b FROM Booking b JOIN FETCH b.slot JOIN FETCH b.service s JOIN FETCH s.provider JOIN FETCH b.customer " +
+            "WHERE b.id = :bookingId AND b.customer.id = :customerId")
     Optional<Booking> findByIdAndCustomerId(@Param("bookingId") Long bookingId, @Param("customerId") Long customerId);
 
-    // Find booking by ID and provider ID (security check)
-    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND b.service.provider.id = :providerId")
+    // Find booking by ID and provider ID (security check) - slot, service, provider and customer fetched in the same query
+    @Query("SELECT b FROM Booking b JOIN FETCH b.slot JOIN FETCH b.service s JOIN FETCH s.provider JOIN FETCH b.customer " +
+            "WHERE b.id = :bookingId AND s.provider.id = :providerId")
     Optional<Booking> findByIdAndProviderId(@Param("bookingId") Long bookingId, @Param("providerId") Long providerId);
 
+    // Find booking by ID with slot, service, provider and customer (write paths that notify both parties)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.slot JOIN FETCH b.service s JOIN FETCH s.provider JOIN FETCH b.customer " +
+            "WHERE b.id = :bookingId")
+    Optional<Booking> findWithDetailsById(@Param("bookingId") Long bookingId);
+
+    // Find bookings by IDs with slot, service, provider and customer, ordered by slot date (recurring series)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.slot sl JOIN FETCH b.service s JOIN FETCH s.provider JOIN FETCH b.customer " +
+            "WHERE b.id IN :bookingIds ORDER BY sl.slotDate, sl.startTime")
+    List<Booking> findWithDetailsByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Store the captured payment on PENDING bookings before they are confirmed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.paymentGatewayTransactionId = :paymentTransactionId " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = com.testing.traningproject.model.enums.BookingStatus.PENDING")
+    int recordPaymentCapture(@Param("bookingIds") Collection<Long> bookingIds,
+                             @Param("paymentTransactionId") String paymentTransactionId);
+
+    // Lock the provider's CONFIRMED bookings among the IDs (bulk completion) - customer fetched for notifications
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.service s JOIN FETCH b.customer " +
+            "WHERE b.id IN :bookingIds AND s.provider.id = :providerId " +
+            "AND b.status = com.testing.traningproject.model.enums.BookingStatus.CONFIRMED " +
+            "ORDER BY b.id")
+    List<Booking> findConfirmedByIdInAndProviderIdForUpdate(@Param("bookingIds") Collection<Long> bookingIds,
+                                                           @Param("providerId") Long providerId);
+
+    // Lock PENDING bookings among the IDs before they are discarded (deleted)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = com.testing.traningproject.model.enums.BookingStatus.PENDING " +
+            "ORDER BY b.id")
+    List<Booking> findPendingByIdInForUpdate(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Lock the next page of CONFIRMED bookings whose slot ended at or before the cutoff (NO_SHOW sweeper)
+    // Keyset paged by ID; rows locked by a concurrent request are skipped and picked up by the next run
+    @Query(value = "SELECT b.id FROM booking b " +
+            "JOIN time_slot sl ON sl.id = b.slot_id " +
+            "WHERE b.status = 'CONFIRMED' AND b.id > :afterId " +
+            "AND (sl.slot_date < :cutoffDate OR (sl.slot_date = :cutoffDate AND sl.end_time <= :cutoffTime)) " +
+            "ORDER BY b.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE OF b SKIP LOCKED", nativeQuery = true)
+    List<Long> lockEndedConfirmedIds(@Param("afterId") Long afterId,
+                                     @Param("cutoffDate") LocalDate cutoffDate,
+                                     @Param("cutoffTime") LocalTime cutoffTime,
+                                     @Param("limit") int limit);
+
+    // Lock the next page of PENDING bookings created before the cutoff (payment never finished)
+    @Query(value = "SELECT b.id FROM booking b " +
+            "WHERE b.status = 'PENDING' AND b.id > :afterId AND b.created_at < :createdBefore " +
+            "ORDER BY b.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockStalePendingIds(@Param("afterId") Long afterId,
+                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                   @Param("limit") int limit);
+
+    // Move bookings to a new status with one UPDATE (rows must be locked by the caller)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :toStatus, b.updatedAt = :now " +
+            "WHERE b.id IN :bookingIds AND b.status = :fromStatus")
+    int updateStatus(@Param("bookingIds") Collection<Long> bookingIds,
+                     @Param("fromStatus") BookingStatus fromStatus,
+                     @Param("toStatus") BookingStatus toStatus,
+                     @Param("now") LocalDateTime now);
+
     // Count bookings by status
     long countByStatus(BookingStatus status);
 
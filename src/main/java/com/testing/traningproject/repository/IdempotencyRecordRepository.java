@@ -0,0 +1,73 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for IdempotencyRecord entity
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    // Claim the key with an IN_PROGRESS record - 0 when another request already owns it
+    // An expired record, or an IN_PROGRESS one left behind by a crashed request, is taken over
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record " +
+            "(user_id, endpoint, idempotency_key, request_hash, status, created_at, expires_at) " +
+            "VALUES (:userId, :endpoint, :key, :requestHash, 'IN_PROGRESS', :now, :expiresAt) " +
+            "ON CONFLICT (user_id, endpoint, idempotency_key) DO UPDATE SET " +
+            "request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', response_body = NULL, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_record.expires_at < :now " +
+            "OR (idempotency_record.status = 'IN_PROGRESS' AND idempotency_record.created_at < :staleBefore)",
+            nativeQuery = true)
+    int claim(@Param("userId") Long userId,
+              @Param("endpoint") String endpoint,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Find the record of a key
+    Optional<IdempotencyRecord> findByUserIdAndEndpointAndIdempotencyKey(Long userId, String endpoint, String idempotencyKey);
+
+    // Store the response of a claimed key
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.testing.traningproject.model.enums.IdempotencyStatus.COMPLETED, " +
+            "r.responseBody = :responseBody " +
+            "WHERE r.userId = :userId AND r.endpoint = :endpoint AND r.idempotencyKey = :key")
+    int complete(@Param("userId") Long userId,
+                 @Param("endpoint") String endpoint,
+                 @Param("key") String key,
+                 @Param("responseBody") String responseBody);
+
+    // Record the outcome of a claimed key whose request failed with an unknown payment outcome
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.testing.traningproject.model.enums.IdempotencyStatus.FAILED, " +
+            "r.responseBody = :error " +
+            "WHERE r.userId = :userId AND r.endpoint = :endpoint AND r.idempotencyKey = :key")
+    int fail(@Param("userId") Long userId,
+             @Param("endpoint") String endpoint,
+             @Param("key") String key,
+             @Param("error") String error);
+
+    // Release a claimed key after the request failed, so the client can retry
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.userId = :userId AND r.endpoint = :endpoint AND r.idempotencyKey = :key " +
+            "AND r.status = com.testing.traningproject.model.enums.IdempotencyStatus.IN_PROGRESS")
+    int release(@Param("userId") Long userId, @Param("endpoint") String endpoint, @Param("key") String key);
+
+    // Purge expired records
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
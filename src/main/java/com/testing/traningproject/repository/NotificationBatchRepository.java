@@ -0,0 +1,18 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Notification;
+
+import java.util.List;
+
+/**
+ * Batch write operations for Notification table
+ * Spring Data fragment - implemented with plain JDBC batching in NotificationBatchRepositoryImpl
+ */
+public interface NotificationBatchRepository {
+
+    /**
+     * Insert notifications in JDBC batches
+     * @param notifications Transient notifications (user, notificationType, title and message must be set)
+     */
+    void insertAll(List<Notification> notifications);
+}
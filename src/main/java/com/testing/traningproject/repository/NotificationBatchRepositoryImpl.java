@@ -0,0 +1,41 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of NotificationBatchRepository
+ * One relay batch of NOTIFICATION events becomes one multi-row insert, is_read always starts FALSE
+ */
+@RequiredArgsConstructor
+public class NotificationBatchRepositoryImpl implements NotificationBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notification (user_id, notification_type, title, message, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, FALSE, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL, notifications, BATCH_SIZE, (ps, notification) -> {
+            ps.setLong(1, notification.getUser().getId());
+            ps.setString(2, notification.getNotificationType().name());
+            ps.setString(3, notification.getTitle());
+            ps.setString(4, notification.getMessage());
+            ps.setObject(5, notification.getCreatedAt() != null ? notification.getCreatedAt() : now);
+        });
+    }
+}
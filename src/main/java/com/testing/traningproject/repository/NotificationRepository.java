@@ -11,7 +11,7 @@ import java.util.List;
  * Notification Repository
  */
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBatchRepository {
 
     /**
      * Find all notifications for a user ordered by creation date (newest first)
@@ -0,0 +1,18 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Batch write operations for OutboxEvent table
+ * Spring Data fragment - implemented with plain JDBC batching in OutboxEventBatchRepositoryImpl
+ */
+public interface OutboxEventBatchRepository {
+
+    /**
+     * Insert new outbox events in JDBC batches (joins the caller's transaction)
+     * @param events Transient events (eventType, payload, status, attempts, availableAt and createdAt must be set)
+     */
+    void insertAll(List<OutboxEvent> events);
+}
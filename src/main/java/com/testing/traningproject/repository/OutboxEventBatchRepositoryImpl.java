@@ -0,0 +1,45 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC implementation of OutboxEventBatchRepository
+ * Called from the beforeCommit flush of OutboxService, where a Hibernate persist would trigger another flush
+ */
+@RequiredArgsConstructor
+public class OutboxEventBatchRepositoryImpl implements OutboxEventBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO outbox_event (event_type, aggregate_id, payload, status, attempts, available_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, BATCH_SIZE, (ps, event) -> {
+            ps.setString(1, event.getEventType().name());
+            if (event.getAggregateId() != null) {
+                ps.setLong(2, event.getAggregateId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, event.getPayload());
+            ps.setString(4, event.getStatus().name());
+            ps.setInt(5, event.getAttempts());
+            ps.setObject(6, event.getAvailableAt());
+            ps.setObject(7, event.getCreatedAt());
+        });
+    }
+}
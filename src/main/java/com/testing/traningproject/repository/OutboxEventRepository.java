@@ -0,0 +1,81 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for OutboxEvent entity
+ * Events are claimed with FOR UPDATE SKIP LOCKED so several relays never dispatch the same event
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBatchRepository {
+
+    // Lock due events (pending, or claimed by a relay whose lease ran out) - rows locked by another relay are skipped
+    @Query(value = "SELECT id FROM outbox_event " +
+            "WHERE status IN ('PENDING', 'PROCESSING') AND available_at <= :now " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueEventIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claim locked events until the lease expires
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSING, " +
+            "e.attempts = e.attempts + 1, e.availableAt = :leaseUntil " +
+            "WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Load claimed events in creation order
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Extend the lease of a claimed event - attempts is the claim's fencing token (0 rows: re-claimed by another relay)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :leaseUntil " +
+            "WHERE e.id = :id AND e.attempts = :attempts " +
+            "AND e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSING")
+    int renewLease(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Mark a claimed event as dispatched - only while the claim (attempts) is still ours
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSED, " +
+            "e.processedAt = :now, e.lastError = null " +
+            "WHERE e.id = :id AND e.attempts = :attempts " +
+            "AND e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSING")
+    int markProcessed(@Param("id") Long id, @Param("attempts") int attempts, @Param("now") LocalDateTime now);
+
+    // Mark claimed notification events as dispatched (inserted right after the claim, well within the lease)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSED, " +
+            "e.processedAt = :now, e.lastError = null " +
+            "WHERE e.id IN :ids AND e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSING")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Put a failed event back in the queue after a backoff (unless another relay re-claimed it)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.testing.traningproject.model.enums.OutboxStatus.PENDING, " +
+            "e.availableAt = :availableAt, e.lastError = :error " +
+            "WHERE e.id = :id AND e.attempts = :attempts")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts,
+                   @Param("availableAt") LocalDateTime availableAt, @Param("error") String error);
+
+    // Give up on an event (unless another relay re-claimed it)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.testing.traningproject.model.enums.OutboxStatus.FAILED, " +
+            "e.lastError = :error " +
+            "WHERE e.id = :id AND e.attempts = :attempts")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+
+    // Purge dispatched events older than the retention window
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e " +
+            "WHERE e.status = com.testing.traningproject.model.enums.OutboxStatus.PROCESSED AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,30 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.ProjectionCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for ProjectionCheckpoint entity
+ */
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+
+    // Create the checkpoint of a projection at 0 if it does not exist yet
+    @Modifying
+    @Query(value = "INSERT INTO projection_checkpoint (name, last_tx_id, last_event_id) VALUES (:name, 0, 0) " +
+            "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int initialize(@Param("name") String name);
+
+    // Lock the checkpoint - one projector instance advances it at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectionCheckpoint c WHERE c.name = :name")
+    Optional<ProjectionCheckpoint> findForUpdate(@Param("name") String name);
+}
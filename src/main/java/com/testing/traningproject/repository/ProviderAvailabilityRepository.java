@@ -5,6 +5,7 @@ import com.testing.traningproject.model.enums.DayOfWeek;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalTime;
 import java.util.List;
 
 @Repository
@@ -20,9 +21,26 @@ public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAv
      */
     List<ProviderAvailability> findByProviderIdAndDayOfWeek(Long providerId, DayOfWeek dayOfWeek);
 
+    /**
+     * Does any availability of the provider on that day overlap [startTime, endTime)
+     * Call with (providerId, dayOfWeek, endTime, startTime): existing.start < endTime AND existing.end > startTime
+     */
+    boolean existsByProviderIdAndDayOfWeekAndStartTimeBeforeAndEndTimeAfter(Long providerId, DayOfWeek dayOfWeek,
+                                                                            LocalTime endTime, LocalTime startTime);
+
     /**
      * Find active availability for a provider
      */
     List<ProviderAvailability> findByProviderIdAndIsActiveTrue(Long providerId);
+
+    /**
+     * Find active availability of all providers on one day (provider search before the index is built)
+     */
+    List<ProviderAvailability> findByDayOfWeekAndIsActiveTrue(DayOfWeek dayOfWeek);
+
+    /**
+     * Find all active availability (nightly slot horizon roll)
+     */
+    List<ProviderAvailability> findByIsActiveTrue();
 }
 
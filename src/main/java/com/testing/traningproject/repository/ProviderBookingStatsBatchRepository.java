@@ -0,0 +1,18 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.ProviderBookingStats;
+
+import java.util.Collection;
+
+/**
+ * Batch write operations for ProviderBookingStats table
+ * Spring Data fragment - implemented with plain JDBC batching in ProviderBookingStatsBatchRepositoryImpl
+ */
+public interface ProviderBookingStatsBatchRepository {
+
+    /**
+     * Add deltas to the providers' counters in JDBC batches (rows are created on first use)
+     * @param deltas One entry per provider - every counter holds the change, not the new value
+     */
+    void applyDeltas(Collection<ProviderBookingStats> deltas);
+}
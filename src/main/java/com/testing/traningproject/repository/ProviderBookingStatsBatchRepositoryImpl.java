@@ -0,0 +1,48 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.ProviderBookingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+/**
+ * JDBC implementation of ProviderBookingStatsBatchRepository
+ * One upsert per provider - counters are incremented in place, never read back
+ */
+@RequiredArgsConstructor
+public class ProviderBookingStatsBatchRepositoryImpl implements ProviderBookingStatsBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_STATS_SQL =
+            "INSERT INTO provider_booking_stats AS s " +
+            "(provider_id, pending, confirmed, completed, cancelled, no_show, completed_revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (provider_id) DO UPDATE SET " +
+            "pending = s.pending + EXCLUDED.pending, " +
+            "confirmed = s.confirmed + EXCLUDED.confirmed, " +
+            "completed = s.completed + EXCLUDED.completed, " +
+            "cancelled = s.cancelled + EXCLUDED.cancelled, " +
+            "no_show = s.no_show + EXCLUDED.no_show, " +
+            "completed_revenue = s.completed_revenue + EXCLUDED.completed_revenue";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyDeltas(Collection<ProviderBookingStats> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_STATS_SQL, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setLong(1, delta.getProviderId());
+            ps.setLong(2, delta.getPending());
+            ps.setLong(3, delta.getConfirmed());
+            ps.setLong(4, delta.getCompleted());
+            ps.setLong(5, delta.getCancelled());
+            ps.setLong(6, delta.getNoShow());
+            ps.setBigDecimal(7, delta.getCompletedRevenue());
+        });
+    }
+}
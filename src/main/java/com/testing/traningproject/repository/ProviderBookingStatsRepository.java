@@ -0,0 +1,13 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.ProviderBookingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ProviderBookingStats read model
+ */
+@Repository
+public interface ProviderBookingStatsRepository
+        extends JpaRepository<ProviderBookingStats, Long>, ProviderBookingStatsBatchRepository {
+}
@@ -2,12 +2,17 @@ package com.testing.traningproject.repository;
 
 import com.testing.traningproject.model.entity.Refund;
 import com.testing.traningproject.model.enums.RefundStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -45,5 +50,45 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
      */
     @Query("SELECT SUM(r.refundAmount) FROM Refund r WHERE r.status = :status")
     BigDecimal sumRefundAmountByStatus(@Param("status") RefundStatus status);
+
+    /**
+     * Lock the PENDING refunds among the IDs (bulk approve / reject) - customer fetched for notifications
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Refund r JOIN FETCH r.booking b JOIN FETCH b.customer " +
+            "WHERE r.id IN :refundIds " +
+            "AND r.status = com.testing.traningproject.model.enums.RefundStatus.PENDING " +
+            "ORDER BY r.id")
+    List<Refund> findPendingByIdInForUpdate(@Param("refundIds") Collection<Long> refundIds);
+
+    /**
+     * Find the APPROVED refunds among the IDs with their bookings (refund settlement)
+     */
+    @Query("SELECT r FROM Refund r JOIN FETCH r.booking " +
+            "WHERE r.id IN :refundIds " +
+            "AND r.status = com.testing.traningproject.model.enums.RefundStatus.APPROVED " +
+            "ORDER BY r.id")
+    List<Refund> findApprovedWithBookingByIdIn(@Param("refundIds") Collection<Long> refundIds);
+
+    /**
+     * Lock the APPROVED refunds among the IDs (settlement completion) - customer fetched for notifications
+     * A refund settled concurrently is already COMPLETED when the lock is granted, so it is completed only once
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Refund r JOIN FETCH r.booking b JOIN FETCH b.customer " +
+            "WHERE r.id IN :refundIds " +
+            "AND r.status = com.testing.traningproject.model.enums.RefundStatus.APPROVED " +
+            "ORDER BY r.id")
+    List<Refund> findApprovedByIdInForUpdate(@Param("refundIds") Collection<Long> refundIds);
+
+    /**
+     * Complete settled refunds with one statement, linking each to the REFUND transaction of its booking
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE refund r SET status = 'COMPLETED', transaction_id = t.id, updated_at = :now " +
+            "FROM transaction t " +
+            "WHERE t.booking_id = r.booking_id AND t.transaction_type = 'REFUND' " +
+            "AND r.id IN (:refundIds) AND r.status = 'APPROVED'", nativeQuery = true)
+    int completeSettled(@Param("refundIds") Collection<Long> refundIds, @Param("now") LocalDateTime now);
 }
 
@@ -2,19 +2,20 @@ package com.testing.traningproject.repository;
 
 import com.testing.traningproject.model.entity.Service;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
  * Repository for Service entity
  * Provides database access methods for Service table
+ * Public browsing composes its filters as Specifications (see ServiceSpecifications)
  */
 @Repository
-public interface ServiceRepository extends JpaRepository<Service, Long> {
+public interface ServiceRepository extends JpaRepository<Service, Long>, JpaSpecificationExecutor<Service> {
 
     /**
      * Find all services by provider ID ordered by creation date descending
@@ -37,28 +38,21 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     List<Service> findByCategoryIdAndIsActiveTrueOrderByCreatedAtDesc(Integer categoryId);
 
     /**
-     * Search services by title (case-insensitive)
+     * Search services by title OR description - IDs of the best matches, best match first
+     * Full-text match on the generated search_vector (title weight A, description weight B - GIN index)
+     * or fuzzy title match (pg_trgm GIN index), ranked by ts_rank + title similarity
+     * @param prefixQuery to_tsquery input, every term a prefix match (e.g. "yoga:* & less:*")
+     * @param searchTerm The raw search term for the fuzzy title match
      */
-    @Query("SELECT s FROM Service s WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) AND s.isActive = true ORDER BY s.createdAt DESC")
-    List<Service> searchByTitle(@Param("searchTerm") String searchTerm);
-
-    /**
-     * Search services by title OR description
-     */
-    @Query("SELECT s FROM Service s WHERE (LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(s.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND s.isActive = true ORDER BY s.createdAt DESC")
-    List<Service> searchByTitleOrDescription(@Param("searchTerm") String searchTerm);
-
-    /**
-     * Find services by category and price range
-     */
-    @Query("SELECT s FROM Service s WHERE s.category.id = :categoryId AND s.price BETWEEN :minPrice AND :maxPrice AND s.isActive = true ORDER BY s.price ASC")
-    List<Service> findByCategoryAndPriceRange(@Param("categoryId") Integer categoryId, @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
-
-    /**
-     * Find services by price range only
-     */
-    @Query("SELECT s FROM Service s WHERE s.price BETWEEN :minPrice AND :maxPrice AND s.isActive = true ORDER BY s.price ASC")
-    List<Service> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
+    @Query(value = "SELECT s.id FROM service s " +
+            "WHERE s.is_active = true " +
+            "AND (s.search_vector @@ to_tsquery('english', :prefixQuery) OR s.title % :searchTerm) " +
+            "ORDER BY ts_rank(s.search_vector, to_tsquery('english', :prefixQuery)) + similarity(s.title, :searchTerm) DESC, " +
+            "s.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> searchIdsByTitleOrDescription(@Param("prefixQuery") String prefixQuery,
+                                             @Param("searchTerm") String searchTerm,
+                                             @Param("limit") int limit);
 
     /**
      * Find services by category ordered by price (low to high)
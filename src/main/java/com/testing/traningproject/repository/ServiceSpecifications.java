@@ -0,0 +1,81 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Service;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Composable filters for public service browsing
+ * Keyset predicates seek past the last row of the previous page - (sort key, id) is unique,
+ * so a page boundary never skips or repeats a service
+ */
+public final class ServiceSpecifications {
+
+    private ServiceSpecifications() {
+    }
+
+    /**
+     * Only active services
+     */
+    public static Specification<Service> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    /**
+     * Services in a category
+     */
+    public static Specification<Service> inCategory(Integer categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    /**
+     * Services priced at least minPrice
+     */
+    public static Specification<Service> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    /**
+     * Services priced at most maxPrice
+     */
+    public static Specification<Service> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    /**
+     * Services among the given IDs (e.g. search matches)
+     */
+    public static Specification<Service> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Keyset for (createdAt DESC, id DESC) - services after the cursor row
+     */
+    public static Specification<Service> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Keyset for (price ASC, id ASC) - services after the cursor row
+     */
+    public static Specification<Service> priceAbove(BigDecimal price, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("price"), price),
+                cb.and(cb.equal(root.get("price"), price), cb.greaterThan(root.get("id"), id)));
+    }
+
+    /**
+     * Keyset for (price DESC, id DESC) - services after the cursor row
+     */
+    public static Specification<Service> priceBelow(BigDecimal price, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("price"), price),
+                cb.and(cb.equal(root.get("price"), price), cb.lessThan(root.get("id"), id)));
+    }
+}
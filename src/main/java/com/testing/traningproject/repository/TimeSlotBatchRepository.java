@@ -0,0 +1,20 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.TimeSlot;
+
+import java.util.List;
+
+/**
+ * Batch write operations for TimeSlot table
+ * Spring Data fragment - implemented with plain JDBC batching in TimeSlotBatchRepositoryImpl
+ */
+public interface TimeSlotBatchRepository {
+
+    /**
+     * Insert new time slots in JDBC batches
+     * Rows that collide with UNIQUE(service_id, slot_date, start_time) are skipped (ON CONFLICT DO NOTHING)
+     * @param slots Transient slots (service, slotDate, startTime, endTime and status must be set)
+     * @return Number of rows inserted (upper bound when the driver rewrites batched inserts)
+     */
+    int insertIgnoringDuplicates(List<TimeSlot> slots);
+}
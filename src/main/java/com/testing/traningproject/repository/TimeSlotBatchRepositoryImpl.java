@@ -0,0 +1,54 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.TimeSlot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of TimeSlotBatchRepository
+ * Native SQL because ON CONFLICT DO NOTHING lets concurrent slot generators skip each other's rows instead of failing
+ */
+@RequiredArgsConstructor
+public class TimeSlotBatchRepositoryImpl implements TimeSlotBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO time_slot (service_id, slot_date, start_time, end_time, status, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoringDuplicates(List<TimeSlot> slots) {
+        if (slots.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, slots, BATCH_SIZE, (ps, slot) -> {
+            ps.setLong(1, slot.getService().getId());
+            ps.setObject(2, slot.getSlotDate());
+            ps.setObject(3, slot.getStartTime());
+            ps.setObject(4, slot.getEndTime());
+            ps.setString(5, slot.getStatus().name());
+            ps.setObject(6, now);
+            ps.setObject(7, now);
+        });
+
+        // With reWriteBatchedInserts the driver reports SUCCESS_NO_INFO instead of real counts
+        int inserted = 0;
+        for (int[] batch : results) {
+            for (int count : batch) {
+                inserted += (count == Statement.SUCCESS_NO_INFO) ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+}
@@ -2,21 +2,30 @@ package com.testing.traningproject.repository;
 
 import com.testing.traningproject.model.entity.TimeSlot;
 import com.testing.traningproject.model.enums.TimeSlotStatus;
+import com.testing.traningproject.model.projection.SlotMonthFingerprintProjection;
+import com.testing.traningproject.model.projection.SlotStatusCountProjection;
+import com.testing.traningproject.model.projection.TimeSlotCalendarProjection;
+import com.testing.traningproject.model.projection.TimeSlotKeyProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for TimeSlot entity
  * Provides database access methods for TimeSlot table
  */
 @Repository
-public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
+public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long>, TimeSlotBatchRepository {
 
     // Find available time slots for a service (ordered by date and time)
     List<TimeSlot> findByServiceIdAndStatusAndSlotDateGreaterThanEqualOrderBySlotDateAscStartTimeAsc(
@@ -33,6 +42,15 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
             LocalDate toDate
     );
 
+    // Find available time slots within date range, limited in the database (customer slot browsing)
+    List<TimeSlot> findByServiceIdAndStatusAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+            Long serviceId,
+            TimeSlotStatus status,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Limit limit
+    );
+
     // Find time slots within date range (any status)
     List<TimeSlot> findByServiceIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
             Long serviceId,
@@ -55,6 +73,13 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
             LocalDate toDate
     );
 
+    // Find the slots starting at the same time on several dates (recurring series)
+    List<TimeSlot> findByServiceIdAndStartTimeAndSlotDateInOrderBySlotDateAsc(
+            Long serviceId,
+            LocalTime startTime,
+            Collection<LocalDate> slotDates
+    );
+
     // Check if slot already exists
     boolean existsByServiceIdAndSlotDateAndStartTime(
             Long serviceId,
@@ -62,6 +87,250 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
             LocalTime startTime
     );
 
+    // Find slot by its natural key (booking/blocking by date and start time)
+    Optional<TimeSlot> findByServiceIdAndSlotDateAndStartTime(
+            Long serviceId,
+            LocalDate slotDate,
+            LocalTime startTime
+    );
+
+    // Find (date, start time) keys of existing slots in a date range - one query per materialization run
+    @Query("SELECT ts.slotDate AS slotDate, ts.startTime AS startTime FROM TimeSlot ts " +
+           "WHERE ts.service.id = :serviceId " +
+           "AND ts.slotDate BETWEEN :fromDate AND :toDate")
+    List<TimeSlotKeyProjection> findSlotKeysByServiceIdAndSlotDateBetween(
+            @Param("serviceId") Long serviceId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    // Find calendar rows of several services in a date range - builds the cached bitset calendars
+    @Query("SELECT ts.id AS id, ts.service.id AS serviceId, ts.slotDate AS slotDate, " +
+           "ts.startTime AS startTime, ts.endTime AS endTime, ts.status AS status, ts.version AS version " +
+           "FROM TimeSlot ts " +
+           "WHERE ts.service.id IN :serviceIds " +
+           "AND ts.slotDate BETWEEN :fromDate AND :toDate " +
+           "ORDER BY ts.slotDate, ts.startTime")
+    List<TimeSlotCalendarProjection> findCalendarRowsByServiceIdInAndSlotDateBetween(
+            @Param("serviceIds") Collection<Long> serviceIds,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    // Change fingerprint per service and month in a date range - revalidates cached calendars without loading rows
+    @Query("SELECT ts.service.id AS serviceId, YEAR(ts.slotDate) AS slotYear, MONTH(ts.slotDate) AS slotMonth, " +
+           "COUNT(ts) AS slotCount, SUM(ts.version) AS versionSum FROM TimeSlot ts " +
+           "WHERE ts.service.id IN :serviceIds " +
+           "AND ts.slotDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY ts.service.id, YEAR(ts.slotDate), MONTH(ts.slotDate)")
+    List<SlotMonthFingerprintProjection> findMonthFingerprintsByServiceIdInAndSlotDateBetween(
+            @Param("serviceIds") Collection<Long> serviceIds,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    // Count slots per day and status in a date range (month calendar summary)
+    @Query("SELECT ts.slotDate AS slotDate, ts.status AS status, COUNT(ts) AS slotCount FROM TimeSlot ts " +
+           "WHERE ts.service.id = :serviceId " +
+           "AND ts.slotDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY ts.slotDate, ts.status " +
+           "ORDER BY ts.slotDate")
+    List<SlotStatusCountProjection> countByServiceIdAndSlotDateBetweenGroupByDateAndStatus(
+            @Param("serviceId") Long serviceId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    // Change the status of all provider's slots in a date range and daily time window (bulk block/unblock)
+    // Ownership is part of the statement - slots of other providers are never touched
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts SET ts.status = :newStatus, ts.updatedAt = :updatedAt, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.status = :currentStatus " +
+           "AND ts.slotDate BETWEEN :fromDate AND :toDate " +
+           "AND ts.startTime >= :fromTime AND ts.endTime <= :toTime " +
+           "AND (:serviceId IS NULL OR ts.service.id = :serviceId) " +
+           "AND ts.service.id IN (SELECT s.id FROM Service s WHERE s.provider.id = :providerId)")
+    int updateStatusInRange(
+            @Param("providerId") Long providerId,
+            @Param("serviceId") Long serviceId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("fromTime") LocalTime fromTime,
+            @Param("toTime") LocalTime toTime,
+            @Param("currentStatus") TimeSlotStatus currentStatus,
+            @Param("newStatus") TimeSlotStatus newStatus,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    // Delete future, unbooked slots of all provider's services inside a weekly window (availability removal)
+    // ISODOW: Monday=1, ..., Sunday=7 - slots referenced by any booking are kept (ON DELETE RESTRICT)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM time_slot ts USING service s " +
+           "WHERE ts.service_id = s.id " +
+           "AND s.provider_user_id = :providerId " +
+           "AND EXTRACT(ISODOW FROM ts.slot_date) = :isoDayOfWeek " +
+           "AND ts.start_time >= :fromTime AND ts.end_time <= :toTime " +
+           "AND (ts.slot_date > :today OR (ts.slot_date = :today AND ts.start_time > :now)) " +
+           "AND ts.status NOT IN ('BOOKED', 'HELD') " +
+           "AND NOT EXISTS (SELECT 1 FROM booking b WHERE b.slot_id = ts.id)",
+           nativeQuery = true)
+    int deleteUnbookedFutureSlotsInWindow(
+            @Param("providerId") Long providerId,
+            @Param("isoDayOfWeek") int isoDayOfWeek,
+            @Param("fromTime") LocalTime fromTime,
+            @Param("toTime") LocalTime toTime,
+            @Param("today") LocalDate today,
+            @Param("now") LocalTime now
+    );
+
+    // Count the future slots in the same window that are kept because they are booked or held
+    @Query(value = "SELECT COUNT(*) FROM time_slot ts JOIN service s ON ts.service_id = s.id " +
+           "WHERE s.provider_user_id = :providerId " +
+           "AND EXTRACT(ISODOW FROM ts.slot_date) = :isoDayOfWeek " +
+           "AND ts.start_time >= :fromTime AND ts.end_time <= :toTime " +
+           "AND (ts.slot_date > :today OR (ts.slot_date = :today AND ts.start_time > :now)) " +
+           "AND (ts.status IN ('BOOKED', 'HELD') OR EXISTS (SELECT 1 FROM booking b WHERE b.slot_id = ts.id))",
+           nativeQuery = true)
+    long countBookedFutureSlotsInWindow(
+            @Param("providerId") Long providerId,
+            @Param("isoDayOfWeek") int isoDayOfWeek,
+            @Param("fromTime") LocalTime fromTime,
+            @Param("toTime") LocalTime toTime,
+            @Param("today") LocalDate today,
+            @Param("now") LocalTime now
+    );
+
+    // Hold a slot for a customer - succeeds when it is AVAILABLE, its hold expired, or the customer already holds it
+    // A hold the customer already has keeps its expiry - holding again never extends it
+    // A slot still referenced by a booking (e.g., payment in flight after the hold was swept) cannot be held
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD, " +
+           "ts.heldUntil = CASE WHEN ts.heldByUserId = :customerId AND ts.heldUntil >= :now " +
+           "  THEN ts.heldUntil ELSE :heldUntil END, " +
+           "ts.heldByUserId = :customerId, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id = :slotId " +
+           "AND (ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.AVAILABLE " +
+           "  OR (ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "      AND (ts.heldUntil < :now OR ts.heldByUserId = :customerId))) " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.slot.id = ts.id)")
+    int holdSlot(
+            @Param("slotId") Long slotId,
+            @Param("customerId") Long customerId,
+            @Param("heldUntil") LocalDateTime heldUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    // Active holds of a customer on other slots than the given ones
+    @Query("SELECT COUNT(ts) FROM TimeSlot ts " +
+           "WHERE ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldByUserId = :customerId AND ts.heldUntil >= :now " +
+           "AND ts.id NOT IN :slotIds")
+    long countActiveHoldsExcluding(
+            @Param("customerId") Long customerId,
+            @Param("slotIds") Collection<Long> slotIds,
+            @Param("now") LocalDateTime now
+    );
+
+    // Turn the customer's hold into a booking - fails when the hold was released in the meantime
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.BOOKED, " +
+           "ts.heldUntil = NULL, ts.heldByUserId = NULL, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id = :slotId " +
+           "AND ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldByUserId = :customerId")
+    int confirmHeldSlot(
+            @Param("slotId") Long slotId,
+            @Param("customerId") Long customerId,
+            @Param("now") LocalDateTime now
+    );
+
+    // Release the customer's hold (payment failed or customer gave up)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.AVAILABLE, " +
+           "ts.heldUntil = NULL, ts.heldByUserId = NULL, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id = :slotId " +
+           "AND ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldByUserId = :customerId")
+    int releaseHeldSlot(
+            @Param("slotId") Long slotId,
+            @Param("customerId") Long customerId,
+            @Param("now") LocalDateTime now
+    );
+
+    // Hold all slots of a recurring series in one statement - same rules as holdSlot
+    // The caller compares the count with the number of slots (all or nothing)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD, " +
+           "ts.heldUntil = CASE WHEN ts.heldByUserId = :customerId AND ts.heldUntil >= :now " +
+           "  THEN ts.heldUntil ELSE :heldUntil END, " +
+           "ts.heldByUserId = :customerId, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id IN :slotIds " +
+           "AND (ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.AVAILABLE " +
+           "  OR (ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "      AND (ts.heldUntil < :now OR ts.heldByUserId = :customerId))) " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.slot.id = ts.id)")
+    int holdSlots(
+            @Param("slotIds") Collection<Long> slotIds,
+            @Param("customerId") Long customerId,
+            @Param("heldUntil") LocalDateTime heldUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    // Turn the customer's holds on a series into bookings in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.BOOKED, " +
+           "ts.heldUntil = NULL, ts.heldByUserId = NULL, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id IN :slotIds " +
+           "AND ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldByUserId = :customerId")
+    int confirmHeldSlots(
+            @Param("slotIds") Collection<Long> slotIds,
+            @Param("customerId") Long customerId,
+            @Param("now") LocalDateTime now
+    );
+
+    // Release the customer's holds on a series in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.AVAILABLE, " +
+           "ts.heldUntil = NULL, ts.heldByUserId = NULL, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.id IN :slotIds " +
+           "AND ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldByUserId = :customerId")
+    int releaseHeldSlots(
+            @Param("slotIds") Collection<Long> slotIds,
+            @Param("customerId") Long customerId,
+            @Param("now") LocalDateTime now
+    );
+
+    // Services with expired holds (calendar eviction after the sweep)
+    @Query("SELECT DISTINCT ts.service.id FROM TimeSlot ts " +
+           "WHERE ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldUntil < :now")
+    List<Long> findServiceIdsWithExpiredHolds(@Param("now") LocalDateTime now);
+
+    // Release every expired hold in one statement (hold sweeper)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TimeSlot ts " +
+           "SET ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.AVAILABLE, " +
+           "ts.heldUntil = NULL, ts.heldByUserId = NULL, ts.updatedAt = :now, " +
+           "ts.version = ts.version + 1 " +
+           "WHERE ts.status = com.testing.traningproject.model.enums.TimeSlotStatus.HELD " +
+           "AND ts.heldUntil < :now")
+    int releaseExpiredHolds(@Param("now") LocalDateTime now);
+
     // Find available time slots for a service (legacy query)
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.service.id = :serviceId " +
            "AND ts.slotDate >= :fromDate " +
@@ -0,0 +1,18 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Batch write operations for Transaction table
+ * Spring Data fragment - implemented with plain JDBC batching in TransactionBatchRepositoryImpl
+ */
+public interface TransactionBatchRepository {
+
+    /**
+     * Insert booking transactions in JDBC batches (joins the caller's transaction)
+     * @param transactions Transient transactions (user, booking, transactionType, amount and status must be set)
+     */
+    void insertAll(List<Transaction> transactions);
+}
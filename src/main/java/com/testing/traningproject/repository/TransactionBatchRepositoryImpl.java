@@ -0,0 +1,57 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of TransactionBatchRepository
+ * Payment, payout and refund rows of a whole booking or payout batch - persisting them one by one would
+ * cost one INSERT per row because IDENTITY ids force Hibernate to insert immediately
+ */
+@RequiredArgsConstructor
+public class TransactionBatchRepositoryImpl implements TransactionBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transaction (user_id, booking_id, transaction_type, amount, payment_method, " +
+            "payment_gateway, payment_gateway_transaction_id, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions, BATCH_SIZE, (ps, transaction) -> {
+            ps.setLong(1, transaction.getUser().getId());
+            if (transaction.getBooking() != null) {
+                ps.setLong(2, transaction.getBooking().getId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, transaction.getTransactionType().name());
+            ps.setBigDecimal(4, transaction.getAmount());
+            ps.setString(5, transaction.getPaymentMethod());
+            if (transaction.getPaymentGateway() != null) {
+                ps.setString(6, transaction.getPaymentGateway().name());
+            } else {
+                ps.setNull(6, Types.VARCHAR);
+            }
+            ps.setString(7, transaction.getPaymentGatewayTransactionId());
+            ps.setString(8, transaction.getStatus().name());
+            ps.setObject(9, now);
+            ps.setObject(10, now);
+        });
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,7 +17,7 @@ import java.util.List;
  * Provides database access methods for Transaction table
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionBatchRepository {
 
     // Find all transactions for a user
     @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
@@ -26,6 +27,11 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.booking.id = :bookingId AND t.transactionType = :type")
     Transaction findByBookingIdAndTransactionType(@Param("bookingId") Long bookingId, @Param("type") TransactionType type);
 
+    // Find transactions of one type for many bookings
+    @Query("SELECT t FROM Transaction t WHERE t.booking.id IN :bookingIds AND t.transactionType = :type")
+    List<Transaction> findByBookingIdInAndTransactionType(@Param("bookingIds") Collection<Long> bookingIds,
+                                                          @Param("type") TransactionType type);
+
     // Find transactions by type
     List<Transaction> findByTransactionType(TransactionType transactionType);
 
@@ -4,6 +4,7 @@ import com.testing.traningproject.exception.BadRequestException;
 import com.testing.traningproject.exception.ResourceNotFoundException;
 import com.testing.traningproject.mapper.AdminMapper;
 import com.testing.traningproject.mapper.SubscriptionMapper;
+import com.testing.traningproject.model.dto.request.BulkRefundDecisionRequest;
 import com.testing.traningproject.model.dto.request.CreateSubscriptionPlanRequest;
 import com.testing.traningproject.model.dto.request.ProviderApprovalRequest;
 import com.testing.traningproject.model.dto.request.RefundDecisionRequest;
@@ -11,13 +12,16 @@ import com.testing.traningproject.model.dto.request.UpdateSubscriptionPlanReques
 import com.testing.traningproject.model.dto.response.*;
 import com.testing.traningproject.model.entity.*;
 import com.testing.traningproject.model.enums.AccountStatus;
+import com.testing.traningproject.model.enums.NotificationType;
 import com.testing.traningproject.model.enums.RefundStatus;
 import com.testing.traningproject.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -39,12 +43,15 @@ public class AdminService {
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
     private final NotificationService notificationService;
-    private final com.testing.traningproject.service.payment.PaymentStrategyFactory paymentStrategyFactory;
+    private final com.testing.traningproject.service.outbox.OutboxService outboxService;
     private final AdminMapper adminMapper; // ✅ MapStruct mapper
     private final SubscriptionMapper subscriptionMapper; // ✅ MapStruct mapper
     private final com.testing.traningproject.mapper.ServiceMapper serviceMapper; // ✅ MapStruct mapper
     private final com.testing.traningproject.mapper.BookingMapper bookingMapper; // ✅ MapStruct mapper
 
+    @Value("${refund.settlement.batch-size:100}")
+    private int settlementBatchSize;
+
     /**
      * Get all pending service provider registrations
      */
@@ -139,12 +146,7 @@ public class AdminService {
      */
     @Transactional
     public void approveRefund(Long refundId, RefundDecisionRequest request) {
-        Refund refund = refundRepository.findById(refundId)
-                .orElseThrow(() -> new ResourceNotFoundException("Refund not found with ID: " + refundId));
-
-        if (refund.getStatus() != RefundStatus.PENDING) {
-            throw new IllegalStateException("Refund is not in pending status");
-        }
+        Refund refund = lockPendingRefund(refundId);
 
         refund.setStatus(RefundStatus.APPROVED);
         refund.setAdminNotes(request.getAdminNotes());
@@ -153,68 +155,9 @@ public class AdminService {
         refundRepository.save(refund);
         log.info("Refund ID: {} approved by admin", refundId);
 
-        // Get original payment transaction
-        Transaction originalTransaction = transactionRepository.findByBookingIdAndTransactionType(
-                refund.getBooking().getId(),
-                com.testing.traningproject.model.enums.TransactionType.BOOKING_PAYMENT
-            );
-
-        String refundTransactionId;
-        String paymentMethodUsed = "stripe"; // Default
-        try {
-            // Extract payment method from original transaction
-            if (originalTransaction != null && originalTransaction.getPaymentGatewayTransactionId() != null) {
-                if (originalTransaction.getPaymentGatewayTransactionId().startsWith("PAYPAL_")) {
-                    paymentMethodUsed = "paypal";
-                }
-            }
-
-            // Get payment strategy and process refund
-            var paymentStrategy = paymentStrategyFactory.getStrategy(paymentMethodUsed);
-            refundTransactionId = paymentStrategy.processRefund(
-                originalTransaction != null ? originalTransaction.getPaymentGatewayTransactionId() : "N/A",
-                refund.getRefundAmount()
-            );
-
-            log.info("Refund processed successfully via {} - Refund ID: {}",
-                    paymentStrategy.getPaymentMethodName(), refundTransactionId);
-        } catch (Exception e) {
-            log.error("Refund processing failed: {}", e.getMessage());
-            refundTransactionId = "REFUND_FAILED_" + System.currentTimeMillis();
-        }
-
-        // Create REFUND transaction
-        Transaction refundTransaction = Transaction.builder()
-                .user(refund.getBooking().getCustomer())
-                .booking(refund.getBooking())
-                .transactionType(com.testing.traningproject.model.enums.TransactionType.REFUND)
-                .amount(refund.getRefundAmount())
-                .paymentMethod("Refund to original payment method")
-                .status(com.testing.traningproject.model.enums.TransactionStatus.SUCCESS)
-                .paymentGatewayTransactionId(refundTransactionId)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        transactionRepository.save(refundTransaction);
-        log.info("REFUND transaction created with ID: {} - Amount: {}", refundTransaction.getId(), refundTransaction.getAmount());
-
-        // Update refund with transaction ID
-        refund.setTransaction(refundTransaction);
-        refund.setStatus(com.testing.traningproject.model.enums.RefundStatus.COMPLETED);
-        refund.setUpdatedAt(LocalDateTime.now());
-        refundRepository.save(refund);
-        log.info("Refund ID: {} marked as COMPLETED", refund.getId());
-
-        // Send notification to customer (REFUND_APPROVED)
-        notificationService.createNotification(
-            refund.getBooking().getCustomer(),
-            com.testing.traningproject.model.enums.NotificationType.REFUND_APPROVED,
-            "Refund Approved ✅",
-            "Your refund request for booking #" + refund.getBooking().getId() +
-            " has been approved. Amount: $" + refund.getRefundAmount() +
-            " will be refunded to your original payment method."
-        );
+        // Queue the gateway refund - OutboxRelay records the REFUND transaction,
+        // completes the refund and notifies the customer
+        outboxService.enqueueRefund(refund);
 
         log.info("Refund approved successfully: {}", refundId);
     }
@@ -224,12 +167,7 @@ public class AdminService {
      */
     @Transactional
     public void rejectRefund(Long refundId, RefundDecisionRequest request) {
-        Refund refund = refundRepository.findById(refundId)
-                .orElseThrow(() -> new ResourceNotFoundException("Refund not found with ID: " + refundId));
-
-        if (refund.getStatus() != RefundStatus.PENDING) {
-            throw new IllegalStateException("Refund is not in pending status");
-        }
+        Refund refund = lockPendingRefund(refundId);
 
         refund.setStatus(RefundStatus.REJECTED);
         refund.setAdminNotes(request.getAdminNotes());
@@ -253,6 +191,112 @@ public class AdminService {
         log.info("Refund rejected successfully: {}", refundId);
     }
 
+    /**
+     * Lock a PENDING refund - same locking read as the bulk decisions, so a single and a bulk decision
+     * on the same refund run one after the other and the second one sees it is no longer PENDING
+     */
+    private Refund lockPendingRefund(Long refundId) {
+        List<Refund> refunds = refundRepository.findPendingByIdInForUpdate(List.of(refundId));
+        if (refunds.isEmpty()) {
+            if (!refundRepository.existsById(refundId)) {
+                throw new ResourceNotFoundException("Refund not found with ID: " + refundId);
+            }
+            throw new IllegalStateException("Refund is not in pending status");
+        }
+        return refunds.get(0);
+    }
+
+    /**
+     * Approve many PENDING refunds in one transaction
+     * The refunds are locked and updated in one JDBC batch at commit; settlement is queued as BATCH_REFUND
+     * outbox events of refund.settlement.batch-size refunds (one gateway batch refund per payment gateway each)
+     * Refunds that do not exist or are not PENDING are skipped
+     */
+    @Transactional
+    public BulkRefundDecisionResponse approveRefunds(BulkRefundDecisionRequest request) {
+        List<Long> requestedIds = request.getRefundIds().stream().distinct().toList();
+        log.info("Bulk approving {} refunds", requestedIds.size());
+
+        List<Refund> refunds = refundRepository.findPendingByIdInForUpdate(requestedIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Refund refund : refunds) {
+            refund.setStatus(RefundStatus.APPROVED);
+            refund.setAdminNotes(request.getAdminNotes());
+            refund.setProcessedAt(now);
+            refund.setUpdatedAt(now);
+            totalAmount = totalAmount.add(refund.getRefundAmount());
+        }
+
+        List<Long> approvedIds = refunds.stream().map(Refund::getId).toList();
+        for (int from = 0; from < approvedIds.size(); from += settlementBatchSize) {
+            outboxService.enqueueBatchRefund(
+                    approvedIds.subList(from, Math.min(from + settlementBatchSize, approvedIds.size())));
+        }
+
+        List<Long> skippedIds = requestedIds.stream()
+                .filter(refundId -> !approvedIds.contains(refundId))
+                .toList();
+
+        log.info("Bulk refund approval - {} approved, {} skipped, settlement queued: {}",
+                approvedIds.size(), skippedIds.size(), totalAmount);
+
+        return BulkRefundDecisionResponse.builder()
+                .processedRefundIds(approvedIds)
+                .skippedRefundIds(skippedIds)
+                .totalAmount(totalAmount)
+                .build();
+    }
+
+    /**
+     * Reject many PENDING refunds in one transaction (customer notifications go out through the outbox)
+     * Refunds that do not exist or are not PENDING are skipped
+     */
+    @Transactional
+    public BulkRefundDecisionResponse rejectRefunds(BulkRefundDecisionRequest request) {
+        List<Long> requestedIds = request.getRefundIds().stream().distinct().toList();
+        log.info("Bulk rejecting {} refunds", requestedIds.size());
+
+        List<Refund> refunds = refundRepository.findPendingByIdInForUpdate(requestedIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Refund refund : refunds) {
+            refund.setStatus(RefundStatus.REJECTED);
+            refund.setAdminNotes(request.getAdminNotes());
+            refund.setProcessedAt(now);
+            refund.setUpdatedAt(now);
+            totalAmount = totalAmount.add(refund.getRefundAmount());
+
+            // Queue REFUND_REJECTED notification to customer
+            String notificationMessage = "Your refund request for booking #" + refund.getBooking().getId() + " has been rejected.";
+            if (request.getAdminNotes() != null) {
+                notificationMessage += "\n\nReason: " + request.getAdminNotes();
+            }
+
+            outboxService.enqueueNotification(
+                refund.getBooking().getCustomer(),
+                NotificationType.REFUND_REJECTED,
+                "Refund Rejected ❌",
+                notificationMessage
+            );
+        }
+
+        List<Long> rejectedIds = refunds.stream().map(Refund::getId).toList();
+        List<Long> skippedIds = requestedIds.stream()
+                .filter(refundId -> !rejectedIds.contains(refundId))
+                .toList();
+
+        log.info("Bulk refund rejection - {} rejected, {} skipped", rejectedIds.size(), skippedIds.size());
+
+        return BulkRefundDecisionResponse.builder()
+                .processedRefundIds(rejectedIds)
+                .skippedRefundIds(skippedIds)
+                .totalAmount(totalAmount)
+                .build();
+    }
+
     /**
      * Get platform statistics for admin dashboard
      */
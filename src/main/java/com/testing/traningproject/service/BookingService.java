@@ -2,22 +2,38 @@ package com.testing.traningproject.service;
 
 import com.testing.traningproject.exception.BadRequestException;
 import com.testing.traningproject.exception.ResourceNotFoundException;
+import com.testing.traningproject.exception.ServiceUnavailableException;
 import com.testing.traningproject.mapper.BookingMapper;
+import com.testing.traningproject.model.dto.request.BulkCompleteBookingsRequest;
 import com.testing.traningproject.model.dto.request.CancelBookingRequest;
 import com.testing.traningproject.model.dto.request.CreateBookingRequest;
+import com.testing.traningproject.model.dto.request.CreateRecurringBookingRequest;
 import com.testing.traningproject.model.dto.response.BookingResponse;
+import com.testing.traningproject.model.dto.response.BulkCompleteBookingsResponse;
+import com.testing.traningproject.model.dto.response.ProviderBookingStatsResponse;
+import com.testing.traningproject.model.dto.response.RecurringBookingResponse;
 import com.testing.traningproject.model.entity.*;
 import com.testing.traningproject.model.enums.*;
 import com.testing.traningproject.repository.*;
+import com.testing.traningproject.service.booking.BookingStateMachine;
+import com.testing.traningproject.service.calendar.TimeSlotsChangedEvent;
+import com.testing.traningproject.service.outbox.OutboxService;
+import com.testing.traningproject.service.payment.AsyncPaymentStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for Customer Booking operations
@@ -34,136 +50,435 @@ public class BookingService {
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final RefundRepository refundRepository;
-    private final NotificationService notificationService;
+    private final ProviderBookingStatsRepository providerBookingStatsRepository;
+    private final OutboxService outboxService;
+    private final SlotHoldService slotHoldService;
+    private final BookingStateMachine bookingStateMachine;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor paymentCallbackExecutor;
+    private final ApplicationEventPublisher eventPublisher;
     private final com.testing.traningproject.service.payment.PaymentStrategyFactory paymentStrategyFactory;
     private final BookingMapper bookingMapper; // ✅ MapStruct mapper
 
     /**
      * Create a new booking (BOOKING_PAYMENT transaction)
+     * Two-phase so no connection or lock is held while the payment gateway runs:
+     * 1. Short transaction: hold the slot (HELD) and create the PENDING booking
+     * 2. Payment outside any transaction, on the gateway's bulkhead - the request thread is released
+     * 3. Short transactions on a payment callback thread: store the captured payment on the PENDING booking,
+     *    then confirm HELD -> BOOKED, record the transaction, CONFIRMED
+     * Validation errors of phase 1 are thrown directly; payment failures complete the future exceptionally
+     * A captured payment whose booking cannot be confirmed is reversed (see reverseUnconfirmed)
      */
-    @Transactional
-    public BookingResponse createBooking(Long customerId, CreateBookingRequest request) {
-        // Validate customer exists
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+    public CompletableFuture<BookingResponse> createBooking(Long customerId, CreateBookingRequest request) {
+        // Unsupported payment methods are rejected before anything is held
+        PaymentGateway paymentGateway = paymentStrategyFactory.resolveGateway(request.getPaymentMethod());
+
+        // Phase 1: hold the slot and create the PENDING booking
+        PendingBooking pending = transactionTemplate.execute(status -> {
+            // Validate service, slot and hold it for this customer (fails if someone else holds/booked it)
+            // Runs first - the hold UPDATE clears the persistence context
+            TimeSlot timeSlot = slotHoldService.holdSlot(customerId, request.getServiceId(),
+                    request.getSlotId(), request.getSlotDate(), request.getStartTime());
+            com.testing.traningproject.model.entity.Service service = timeSlot.getService();
+
+            // Authenticated customer - a reference is enough for the foreign key (no SELECT)
+            User customer = userRepository.getReferenceById(customerId);
+
+            // 5. Create booking
+            Booking booking = Booking.builder()
+                    .customer(customer)
+                    .service(service)
+                    .slot(timeSlot)
+                    .totalPrice(service.getPrice())
+                    .status(BookingStatus.PENDING)
+                    .paymentGateway(paymentGateway)
+                    .bookingDate(LocalDateTime.now())
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            booking = bookingRepository.save(booking);
+            bookingStateMachine.created(List.of(booking));
+            log.info("Booking created with ID: {} - Status: PENDING", booking.getId());
 
-        // Validate service exists and is active
-        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(request.getServiceId())
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+            return new PendingBooking(booking.getId(), timeSlot.getId(), service.getId(), service.getPrice(), service.getTitle());
+        });
 
-        if (!service.getIsActive()) {
-            throw new BadRequestException("Service is not active");
+        // Phase 2: process BOOKING_PAYMENT via Strategy Pattern - no transaction open, no thread held
+        AsyncPaymentStrategy paymentStrategy;
+        CompletableFuture<String> payment;
+        try {
+            // Get payment strategy based on payment method
+            paymentStrategy = paymentStrategyFactory.getAsyncStrategy(paymentGateway);
+
+            // Process payment
+            payment = paymentStrategy.processPayment(
+                customerId,
+                pending.amount(),
+                request.getPaymentCard(),
+                "Booking payment for: " + pending.serviceTitle()
+            );
+        } catch (RuntimeException e) {
+            discardBooking(pending, customerId, e);
+            throw paymentFailure(e);
         }
 
-        // Validate time slot exists and is available
-        TimeSlot timeSlot = timeSlotRepository.findById(request.getSlotId())
-                .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"));
+        // Mask card number for storage
+        String maskedCard = maskCardNumber(request.getPaymentCard().getCardNumber());
+
+        return payment.handleAsync((paymentTransactionId, failure) -> {
+            if (failure != null) {
+                // Payment failed - delete booking, release the hold and throw error
+                discardBooking(pending, customerId, failure);
+                throw paymentFailure(failure);
+            }
+            log.info("Payment processed successfully via {} - Gateway TXN ID: {}",
+                    paymentStrategy.getPaymentMethodName(), paymentTransactionId);
+
+            List<Long> bookingIds = List.of(pending.bookingId());
+            Runnable releaseHold = () -> slotHoldService.releaseHold(pending.slotId(), customerId);
+            try {
+                recordPaymentCapture(customerId, bookingIds, pending.amount(), paymentStrategy.getGateway(),
+                        paymentTransactionId, releaseHold);
+                return confirmBooking(customerId, request, pending, paymentTransactionId, maskedCard);
+            } catch (RuntimeException e) {
+                throw reverseUnconfirmed(customerId, bookingIds, pending.amount(),
+                        paymentStrategy.getGateway(), paymentTransactionId, releaseHold, e);
+            }
+        }, paymentCallbackExecutor);
+    }
+
+    /**
+     * Phase 3 of createBooking: confirm the hold and record the payment
+     * The final state is computed first and written in one flush at commit (outbox rows in one JDBC batch)
+     */
+    private BookingResponse confirmBooking(Long customerId, CreateBookingRequest request, PendingBooking pending,
+                                           String paymentTransactionId, String maskedCard) {
+        BookingResponse response = transactionTemplate.execute(status -> {
+            // Update time slot status HELD -> BOOKED (only if this customer still holds it)
+            if (!slotHoldService.confirmHold(pending.slotId(), customerId, pending.serviceId())) {
+                // Hold expired while paying and the slot was released - the caller reverses the payment
+                return null;
+            }
+            log.info("Time slot ID: {} marked as BOOKED", pending.slotId());
+
+            Booking booking = bookingRepository.findWithDetailsById(pending.bookingId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+            User customer = booking.getCustomer();
+            com.testing.traningproject.model.entity.Service service = booking.getService();
+            TimeSlot timeSlot = booking.getSlot();
+
+            // Update booking status to CONFIRMED (after successful payment) - managed, written at commit
+            bookingStateMachine.transition(booking, BookingStatus.CONFIRMED);
+
+            Transaction transaction = Transaction.builder()
+                    .user(customer)
+                    .booking(booking)
+                    .transactionType(TransactionType.BOOKING_PAYMENT)
+                    .amount(pending.amount())
+                    .paymentMethod(request.getPaymentMethod() + " - " + maskedCard)
+                    .paymentGateway(booking.getPaymentGateway())
+                    .status(TransactionStatus.SUCCESS)
+                    .paymentGatewayTransactionId(paymentTransactionId)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            transactionRepository.save(transaction);
+            log.info("BOOKING_PAYMENT transaction created with ID: {} - Amount: {}", transaction.getId(), transaction.getAmount());
+            log.info("Booking ID: {} updated to CONFIRMED after successful payment", booking.getId());
+
+            // Queue BOOKING_CONFIRMED notification to customer
+            outboxService.enqueueNotification(
+                customer,
+                NotificationType.BOOKING_CONFIRMED,
+                "Booking Confirmed ✅",
+                "Your booking for '" + service.getTitle() + "' on " +
+                timeSlot.getSlotDate() + " at " + timeSlot.getStartTime() +
+                " has been confirmed. Total paid: $" + booking.getTotalPrice()
+            );
+
+            // Queue NEW_BOOKING_RECEIVED notification to provider
+            outboxService.enqueueNotification(
+                service.getProvider(),
+                NotificationType.NEW_BOOKING_RECEIVED,
+                "New Booking Received 🔔",
+                "You have a new booking for '" + service.getTitle() + "' from " +
+                customer.getFirstName() + " " + customer.getLastName() +
+                " on " + timeSlot.getSlotDate() + " at " + timeSlot.getStartTime()
+            );
 
-        if (!timeSlot.getStatus().equals(TimeSlotStatus.AVAILABLE)) {
-            throw new BadRequestException("Time slot is not available");
+            return bookingMapper.toResponse(booking);
+        });
+
+        if (response == null) {
+            throw new BadRequestException("Time slot hold expired during payment - payment is being refunded");
         }
 
-        if (!timeSlot.getService().getId().equals(service.getId())) {
-            throw new BadRequestException("Time slot does not belong to this service");
+        return response;
+    }
+
+    /**
+     * Store the captured payment on the PENDING bookings before they are confirmed
+     * If the confirmation then fails and the request never compensates, the sweeper reverses it
+     * When the sweeper already discarded some of them (without the payment), the rest is discarded
+     * and the whole payment reversed in the same transaction
+     * @throws BadRequestException when the bookings expired during payment
+     */
+    private void recordPaymentCapture(Long customerId, List<Long> bookingIds, BigDecimal amount,
+                                      PaymentGateway paymentGateway, String paymentTransactionId,
+                                      Runnable releaseHolds) {
+        Boolean recorded = transactionTemplate.execute(status -> {
+            if (bookingRepository.recordPaymentCapture(bookingIds, paymentTransactionId) == bookingIds.size()) {
+                return true;
+            }
+            bookingStateMachine.discard(bookingIds);
+            releaseHolds.run();
+            outboxService.enqueuePaymentReversal(customerId, paymentGateway, paymentTransactionId, amount,
+                    "booking expired during payment");
+            return false;
+        });
+        if (!Boolean.TRUE.equals(recorded)) {
+            throw new BadRequestException("Booking expired during payment - payment is being refunded");
         }
+    }
 
-        // Check if slot date is in the future
-        if (timeSlot.getSlotDate().isBefore(java.time.LocalDate.now())) {
-            throw new BadRequestException("Cannot book a slot in the past");
+    /**
+     * Compensate a captured payment whose bookings could not be confirmed (hold expired, database error, ...)
+     * One transaction discards the bookings that are still PENDING, releases their holds and queues the
+     * reversal for them - bookings already confirmed or discarded by the sweeper are not reversed again
+     * @return Exception the request fails with
+     */
+    private RuntimeException reverseUnconfirmed(Long customerId, List<Long> bookingIds, BigDecimal pricePerBooking,
+                                                PaymentGateway paymentGateway, String paymentTransactionId,
+                                                Runnable releaseHolds, RuntimeException failure) {
+        try {
+            Integer discarded = transactionTemplate.execute(status -> {
+                int count = bookingStateMachine.discard(bookingIds);
+                if (count > 0) {
+                    releaseHolds.run();
+                    outboxService.enqueuePaymentReversal(customerId, paymentGateway, paymentTransactionId,
+                            pricePerBooking.multiply(BigDecimal.valueOf(count)),
+                            "booking could not be confirmed: " + failure.getMessage());
+                }
+                return count;
+            });
+            if (discarded == null || discarded == 0) {
+                return failure;
+            }
+        } catch (RuntimeException e) {
+            log.error("Payment {} could not be reversed - left to the booking sweeper: {}",
+                    paymentTransactionId, e.getMessage());
+            return failure;
         }
 
-        // 5. Create booking
-        Booking booking = Booking.builder()
-                .customer(customer)
-                .service(service)
-                .slot(timeSlot)
-                .totalPrice(service.getPrice())
-                .status(BookingStatus.PENDING)
-                .bookingDate(LocalDateTime.now())
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
+        log.warn("Booking not confirmed after payment {} - payment is being refunded: {}",
+                paymentTransactionId, failure.getMessage());
+        if (failure instanceof BadRequestException) {
+            return failure;
+        }
+        return new BadRequestException("Booking could not be confirmed - payment is being refunded");
+    }
 
-        booking = bookingRepository.save(booking);
-        log.info("Booking created with ID: {} - Status: PENDING", booking.getId());
+    private void discardBooking(PendingBooking pending, Long customerId, Throwable failure) {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingStateMachine.discard(List.of(pending.bookingId()));
+            slotHoldService.releaseHold(pending.slotId(), customerId);
+        });
+        log.error("Payment failed for booking - Booking deleted: {}", unwrap(failure).getMessage());
+    }
 
-        // Process BOOKING_PAYMENT transaction via Strategy Pattern
-        String paymentTransactionId;
-        String maskedCard;
+    /**
+     * Book a recurring series (one booking per occurrence) with a single payment
+     * Same three phases as createBooking, but set-based:
+     * 1. Short transaction: hold all slots with one UPDATE (all or nothing) and create the PENDING bookings
+     * 2. One payment for the whole series outside any transaction
+     * 3. Short transaction: confirm all holds with one UPDATE, record one BOOKING_PAYMENT row per booking
+     *    (JDBC batch, same gateway transaction - so single bookings can still be refunded) and queue one
+     *    notification per party for the series
+     * If any hold expired while paying (or confirming fails otherwise), the whole series is released
+     * and the payment refunded
+     */
+    public CompletableFuture<RecurringBookingResponse> createRecurringBooking(Long customerId,
+                                                                             CreateRecurringBookingRequest request) {
+        int occurrences = request.getOccurrences();
+        int intervalWeeks = (request.getIntervalWeeks() != null) ? request.getIntervalWeeks() : 1;
+        PaymentGateway paymentGateway = paymentStrategyFactory.resolveGateway(request.getPaymentMethod());
+
+        // Phase 1: hold every slot of the series and create the PENDING bookings
+        PendingSeries pending = transactionTemplate.execute(status -> {
+            // Runs first - the hold UPDATE clears the persistence context
+            List<TimeSlot> slots = slotHoldService.holdSeries(customerId, request.getServiceId(), request.getSlotId(),
+                    request.getSlotDate(), request.getStartTime(), occurrences, intervalWeeks);
+            com.testing.traningproject.model.entity.Service service = slots.get(0).getService();
+
+            // Authenticated customer - a reference is enough for the foreign key (no SELECT)
+            User customer = userRepository.getReferenceById(customerId);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Booking> bookings = slots.stream()
+                    .map(slot -> Booking.builder()
+                            .customer(customer)
+                            .service(service)
+                            .slot(slot)
+                            .totalPrice(service.getPrice())
+                            .status(BookingStatus.PENDING)
+                            .paymentGateway(paymentGateway)
+                            .bookingDate(now)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build())
+                    .toList();
+
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            bookingStateMachine.created(saved);
+            List<Long> bookingIds = saved.stream().map(Booking::getId).toList();
+            log.info("{} recurring bookings created for customer ID: {} - Status: PENDING", bookingIds.size(), customerId);
+
+            return new PendingSeries(bookingIds, slots.stream().map(TimeSlot::getId).toList(), service.getId(),
+                    service.getPrice(), service.getPrice().multiply(BigDecimal.valueOf(slots.size())), service.getTitle());
+        });
+
+        // Phase 2: one BOOKING_PAYMENT for the whole series - no transaction open, no thread held
+        AsyncPaymentStrategy paymentStrategy;
+        CompletableFuture<String> payment;
         try {
-            // Get payment strategy based on payment method
-            var paymentStrategy = paymentStrategyFactory.getStrategy(request.getPaymentMethod());
+            paymentStrategy = paymentStrategyFactory.getAsyncStrategy(paymentGateway);
 
-            // Process payment
-            paymentTransactionId = paymentStrategy.processPayment(
-                service.getPrice(),
+            payment = paymentStrategy.processPayment(
+                customerId,
+                pending.total(),
                 request.getPaymentCard(),
-                "Booking payment for: " + service.getTitle()
+                "Recurring booking payment (" + occurrences + " sessions) for: " + pending.serviceTitle()
             );
+        } catch (RuntimeException e) {
+            releaseSeries(pending, customerId);
+            log.error("Payment failed for recurring booking - Bookings deleted: {}", e.getMessage());
+            throw paymentFailure(e);
+        }
 
-            // Mask card number for storage
-            maskedCard = request.getPaymentCard().getCardNumber().substring(0, 4) + "********" +
-                        request.getPaymentCard().getCardNumber().substring(request.getPaymentCard().getCardNumber().length() - 4);
+        String maskedCard = maskCardNumber(request.getPaymentCard().getCardNumber());
 
-            log.info("Payment processed successfully via {} - Gateway TXN ID: {}",
+        return payment.handleAsync((paymentTransactionId, failure) -> {
+            if (failure != null) {
+                // Payment failed - delete the bookings, release the holds and throw error
+                releaseSeries(pending, customerId);
+                log.error("Payment failed for recurring booking - Bookings deleted: {}", unwrap(failure).getMessage());
+                throw paymentFailure(failure);
+            }
+            log.info("Recurring booking payment processed successfully via {} - Gateway TXN ID: {}",
                     paymentStrategy.getPaymentMethodName(), paymentTransactionId);
-        } catch (Exception e) {
-            // Payment failed - delete booking and throw error
-            bookingRepository.delete(booking);
-            log.error("Payment failed for booking - Booking deleted: {}", e.getMessage());
-            throw new com.testing.traningproject.exception.BadRequestException(
-                "Payment failed: " + e.getMessage()
+
+            Runnable releaseHolds = () -> slotHoldService.releaseHolds(pending.slotIds(), customerId, pending.serviceId());
+            try {
+                recordPaymentCapture(customerId, pending.bookingIds(), pending.total(), paymentStrategy.getGateway(),
+                        paymentTransactionId, releaseHolds);
+                return confirmSeries(customerId, request, pending, paymentTransactionId, maskedCard);
+            } catch (RuntimeException e) {
+                throw reverseUnconfirmed(customerId, pending.bookingIds(), pending.price(),
+                        paymentStrategy.getGateway(), paymentTransactionId, releaseHolds, e);
+            }
+        }, paymentCallbackExecutor);
+    }
+
+    /**
+     * Phase 3 of createRecurringBooking: confirm every hold and record the payment
+     */
+    private RecurringBookingResponse confirmSeries(Long customerId, CreateRecurringBookingRequest request,
+                                                   PendingSeries pending, String paymentTransactionId,
+                                                   String maskedCard) {
+        RecurringBookingResponse response = transactionTemplate.execute(status -> {
+            if (slotHoldService.confirmHolds(pending.slotIds(), customerId, pending.serviceId()) != pending.slotIds().size()) {
+                // Some holds expired - undo the confirmations, the series is released below
+                status.setRollbackOnly();
+                return null;
+            }
+            log.info("{} time slots marked as BOOKED", pending.slotIds().size());
+
+            List<Booking> bookings = bookingRepository.findWithDetailsByIdIn(pending.bookingIds());
+            User customer = bookings.get(0).getCustomer();
+            com.testing.traningproject.model.entity.Service service = bookings.get(0).getService();
+
+            // Final state first - the bookings are written as one batched update at commit
+            LocalDateTime now = LocalDateTime.now();
+            List<Transaction> payments = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                bookingStateMachine.transition(booking, BookingStatus.CONFIRMED, now);
+
+                payments.add(Transaction.builder()
+                        .user(customer)
+                        .booking(booking)
+                        .transactionType(TransactionType.BOOKING_PAYMENT)
+                        .amount(booking.getTotalPrice())
+                        .paymentMethod(request.getPaymentMethod() + " - " + maskedCard)
+                        .paymentGateway(booking.getPaymentGateway())
+                        .status(TransactionStatus.SUCCESS)
+                        .paymentGatewayTransactionId(paymentTransactionId)
+                        .build());
+            }
+
+            transactionRepository.insertAll(payments);
+            log.info("{} BOOKING_PAYMENT transactions created - Total: {}", payments.size(), pending.total());
+
+            TimeSlot first = bookings.get(0).getSlot();
+            TimeSlot last = bookings.get(bookings.size() - 1).getSlot();
+
+            // Queue BOOKING_CONFIRMED notification to customer (one for the series)
+            outboxService.enqueueNotification(
+                customer,
+                NotificationType.BOOKING_CONFIRMED,
+                "Recurring Booking Confirmed ✅",
+                "Your " + bookings.size() + " sessions of '" + service.getTitle() + "' from " +
+                first.getSlotDate() + " to " + last.getSlotDate() + " at " + first.getStartTime() +
+                " have been confirmed. Total paid: $" + pending.total()
             );
-        }
 
-        Transaction transaction = Transaction.builder()
-                .user(customer)
-                .booking(booking)
-                .transactionType(TransactionType.BOOKING_PAYMENT)
-                .amount(service.getPrice())
-                .paymentMethod(request.getPaymentMethod() + " - " + maskedCard)
-                .status(TransactionStatus.SUCCESS)
-                .paymentGatewayTransactionId(paymentTransactionId)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
+            // Queue NEW_BOOKING_RECEIVED notification to provider (one for the series)
+            outboxService.enqueueNotification(
+                service.getProvider(),
+                NotificationType.NEW_BOOKING_RECEIVED,
+                "New Recurring Booking Received 🔔",
+                "You have " + bookings.size() + " new bookings for '" + service.getTitle() + "' from " +
+                customer.getFirstName() + " " + customer.getLastName() +
+                " (" + first.getSlotDate() + " to " + last.getSlotDate() + " at " + first.getStartTime() + ")"
+            );
 
-        transactionRepository.save(transaction);
-        log.info("BOOKING_PAYMENT transaction created with ID: {} - Amount: {}", transaction.getId(), transaction.getAmount());
+            return RecurringBookingResponse.builder()
+                    .occurrences(bookings.size())
+                    .totalPaid(pending.total())
+                    .bookings(bookingMapper.toResponseList(bookings))
+                    .build();
+        });
 
-        // Update booking status to CONFIRMED (after successful payment)
-        booking.setStatus(BookingStatus.CONFIRMED);
-        booking.setUpdatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
-        log.info("Booking ID: {} updated to CONFIRMED after successful payment", booking.getId());
+        if (response == null) {
+            // Holds expired while paying - the caller releases the series and reverses the payment
+            throw new BadRequestException("Time slot holds expired during payment - payment is being refunded");
+        }
 
-        // Update time slot status to BOOKED
-        timeSlot.setStatus(TimeSlotStatus.BOOKED);
-        timeSlot.setUpdatedAt(LocalDateTime.now());
-        timeSlotRepository.save(timeSlot);
-        log.info("Time slot ID: {} marked as BOOKED", timeSlot.getId());
+        return response;
+    }
 
-        // Send BOOKING_CONFIRMED notification to customer
-        notificationService.createNotification(
-            customer,
-            NotificationType.BOOKING_CONFIRMED,
-            "Booking Confirmed ✅",
-            "Your booking for '" + service.getTitle() + "' on " +
-            timeSlot.getSlotDate() + " at " + timeSlot.getStartTime() +
-            " has been confirmed. Total paid: $" + booking.getTotalPrice()
-        );
+    /**
+     * Exception a failed payment is reported with - gateway saturation / timeouts stay 503 (retryable)
+     */
+    private static RuntimeException paymentFailure(Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof ServiceUnavailableException unavailable) {
+            return unavailable;
+        }
+        return new BadRequestException("Payment failed: " + cause.getMessage());
+    }
 
-        // Send NEW_BOOKING_RECEIVED notification to provider
-        notificationService.createNotification(
-            service.getProvider(),
-            NotificationType.NEW_BOOKING_RECEIVED,
-            "New Booking Received 🔔",
-            "You have a new booking for '" + service.getTitle() + "' from " +
-            customer.getFirstName() + " " + customer.getLastName() +
-            " on " + timeSlot.getSlotDate() + " at " + timeSlot.getStartTime()
-        );
+    private static Throwable unwrap(Throwable failure) {
+        return (failure instanceof CompletionException && failure.getCause() != null) ? failure.getCause() : failure;
+    }
 
-        return bookingMapper.toResponse(booking);
+    private void releaseSeries(PendingSeries pending, Long customerId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingStateMachine.discard(pending.bookingIds());
+            slotHoldService.releaseHolds(pending.slotIds(), customerId, pending.serviceId());
+        });
     }
 
     /**
@@ -190,7 +505,7 @@ public class BookingService {
     }
 
     /**
-     * Cancel booking (create REFUND transaction)
+     * Cancel booking (auto-approved refunds are queued for the outbox relay)
      */
     @Transactional
     public BookingResponse cancelBooking(Long customerId, Long bookingId, CancelBookingRequest request) {
@@ -198,8 +513,14 @@ public class BookingService {
         Booking booking = bookingRepository.findByIdAndCustomerId(bookingId, customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found or access denied"));
 
-        //  Check if booking can be cancelled (only PENDING or CONFIRMED)
-        if (!booking.getStatus().equals(BookingStatus.PENDING) && !booking.getStatus().equals(BookingStatus.CONFIRMED)) {
+        // A PENDING booking is still being paid - createBooking either confirms it or discards it
+        // and gives the money back, so cancelling it here would refund a payment that is not captured yet
+        if (booking.getStatus() == BookingStatus.PENDING) {
+            throw new BadRequestException("Booking payment is still being processed - try again once it is confirmed");
+        }
+
+        //  Check if booking can be cancelled (only CONFIRMED)
+        if (!BookingStateMachine.canTransition(booking.getStatus(), BookingStatus.CANCELLED)) {
             throw new BadRequestException("Booking cannot be cancelled. Current status: " + booking.getStatus());
         }
 
@@ -208,19 +529,20 @@ public class BookingService {
         Duration timeUntilBooking = Duration.between(LocalDateTime.now(), slotDateTime);
         long hoursUntilBooking = timeUntilBooking.toHours();
 
-        // 4Update booking status
-        booking.setStatus(BookingStatus.CANCELLED);
+        // 4Update booking status (managed - flushed together with the slot below)
+        bookingStateMachine.transition(booking, BookingStatus.CANCELLED);
         booking.setCancellationReason(request.getCancellationReason());
-        booking.setCancelledAt(LocalDateTime.now());
-        booking.setUpdatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
         log.info("Booking ID: {} cancelled. Hours until booking: {}", bookingId, hoursUntilBooking);
 
         // Free up the time slot
+        // Flushed now - the version check makes a concurrent cancel fail here, before any refund is issued
         TimeSlot timeSlot = booking.getSlot();
         timeSlot.setStatus(TimeSlotStatus.AVAILABLE);
+        timeSlot.setHeldUntil(null);
+        timeSlot.setHeldByUserId(null);
         timeSlot.setUpdatedAt(LocalDateTime.now());
-        timeSlotRepository.save(timeSlot);
+        timeSlotRepository.saveAndFlush(timeSlot);
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(timeSlot.getService().getId()));
         log.info("Time slot ID: {} freed up and marked as AVAILABLE", timeSlot.getId());
 
         // Determine refund amount and status
@@ -259,83 +581,25 @@ public class BookingService {
         refund = refundRepository.save(refund);
         log.info("Refund record created with ID: {} - Amount: {} - Status: {}", refund.getId(), refundAmount, refundStatus);
 
-        // 8. If auto-approved, process REFUND transaction immediately
+        // 8. If auto-approved, queue the gateway refund - OutboxRelay records the REFUND transaction,
+        // completes the refund and notifies the customer
         if (refundStatus.equals(RefundStatus.APPROVED)) {
-            // Get original payment transaction
-            Transaction originalTransaction = transactionRepository.findByBookingIdAndTransactionType(
-                booking.getId(),
-                TransactionType.BOOKING_PAYMENT
-            );
-
-            String refundTransactionId;
-            String paymentMethodUsed = "stripe"; // Default
-            try {
-                // Extract payment method from original transaction
-                if (originalTransaction != null && originalTransaction.getPaymentGatewayTransactionId() != null) {
-                    if (originalTransaction.getPaymentGatewayTransactionId().startsWith("PAYPAL_")) {
-                        paymentMethodUsed = "paypal";
-                    }
-                }
-
-                // Get payment strategy and process refund
-                var paymentStrategy = paymentStrategyFactory.getStrategy(paymentMethodUsed);
-                refundTransactionId = paymentStrategy.processRefund(
-                    originalTransaction != null ? originalTransaction.getPaymentGatewayTransactionId() : "N/A",
-                    refundAmount
-                );
-
-                log.info("Auto-refund processed successfully via {} - Refund ID: {}",
-                        paymentStrategy.getPaymentMethodName(), refundTransactionId);
-            } catch (Exception e) {
-                log.error("Refund processing failed: {}", e.getMessage());
-                refundTransactionId = "REFUND_FAILED_" + System.currentTimeMillis();
-            }
-
-            Transaction refundTransaction = Transaction.builder()
-                    .user(booking.getCustomer())
-                    .booking(booking)
-                    .transactionType(TransactionType.REFUND)
-                    .amount(refundAmount)
-                    .paymentMethod("Refund to original payment method")
-                    .status(TransactionStatus.SUCCESS)
-                    .paymentGatewayTransactionId(refundTransactionId)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
-            transactionRepository.save(refundTransaction);
-            log.info("REFUND transaction created with ID: {} - Amount: {}", refundTransaction.getId(), refundAmount);
-
-            // Update refund with transaction ID
-            refund.setTransaction(refundTransaction);
-            refund.setStatus(RefundStatus.COMPLETED);
-            refund.setUpdatedAt(LocalDateTime.now());
-            refundRepository.save(refund);
-            log.info("Refund ID: {} marked as COMPLETED", refund.getId());
-
-            // Send REFUND_APPROVED notification to customer
-            notificationService.createNotification(
-                booking.getCustomer(),
-                NotificationType.REFUND_APPROVED,
-                "Refund Approved ✅",
-                "Your refund of $" + refundAmount + " for booking #" + booking.getId() +
-                " has been automatically approved and processed."
-            );
+            outboxService.enqueueRefund(refund);
         }
 
-        // Send BOOKING_CANCELLED notification to customer
-        notificationService.createNotification(
+        // Queue BOOKING_CANCELLED notification to customer
+        outboxService.enqueueNotification(
             booking.getCustomer(),
             NotificationType.BOOKING_CANCELLED,
             "Booking Cancelled",
             "Your booking for '" + booking.getService().getTitle() + "' has been cancelled. " +
             (refundStatus.equals(RefundStatus.APPROVED) ?
-                "Refund of $" + refundAmount + " has been processed." :
+                "Refund of $" + refundAmount + " has been approved and is being processed." :
                 "Refund request of $" + refundAmount + " is pending admin approval.")
         );
 
-        // Send BOOKING_CANCELLED notification to provider
-        notificationService.createNotification(
+        // Queue BOOKING_CANCELLED notification to provider
+        outboxService.enqueueNotification(
             booking.getService().getProvider(),
             NotificationType.BOOKING_CANCELLED,
             "Booking Cancelled by Customer",
@@ -358,7 +622,26 @@ public class BookingService {
     }
 
     /**
-     * Mark booking as completed (create PAYOUT transaction for provider)
+     * Booking counts per status and completed revenue for the provider dashboard
+     * Read from the provider_booking_stats projection (one row) instead of aggregating the bookings
+     */
+    @Transactional(readOnly = true)
+    public ProviderBookingStatsResponse getProviderBookingStats(Long providerId) {
+        ProviderBookingStats stats = providerBookingStatsRepository.findById(providerId)
+                .orElseGet(() -> ProviderBookingStats.builder().providerId(providerId).build());
+
+        return ProviderBookingStatsResponse.builder()
+                .pending(stats.getPending())
+                .confirmed(stats.getConfirmed())
+                .completed(stats.getCompleted())
+                .cancelled(stats.getCancelled())
+                .noShow(stats.getNoShow())
+                .completedRevenue(stats.getCompletedRevenue())
+                .build();
+    }
+
+    /**
+     * Mark booking as completed (PAYOUT for provider is queued for the outbox relay)
      */
     @Transactional
     public BookingResponse completeBooking(Long providerId, Long bookingId) {
@@ -373,79 +656,88 @@ public class BookingService {
             throw new BadRequestException("Only CONFIRMED bookings can be marked as completed. Current status: " + booking.getStatus());
         }
 
-        // Update booking status to COMPLETED
-        booking.setStatus(BookingStatus.COMPLETED);
-        booking.setCompletedAt(LocalDateTime.now());
-        booking.setUpdatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
+        // Update booking status to COMPLETED (managed - written at commit)
+        bookingStateMachine.transition(booking, BookingStatus.COMPLETED);
         log.info("Booking ID: {} marked as COMPLETED", bookingId);
 
-        // Process PAYOUT transaction for provider using Strategy Pattern
-        String payoutId;
-        String paymentMethodUsed = "stripe"; // Default
-        try {
-            // Get original booking payment transaction to determine payment method
-            Transaction originalTransaction = transactionRepository.findByBookingIdAndTransactionType(
-                booking.getId(),
-                TransactionType.BOOKING_PAYMENT
-            );
+        // Queue the provider PAYOUT - OutboxRelay calls the gateway, records the PAYOUT transaction
+        // and notifies the provider, retrying independently of this request
+        outboxService.enqueuePayout(booking);
 
-            if (originalTransaction != null && originalTransaction.getPaymentGatewayTransactionId() != null) {
-                if (originalTransaction.getPaymentGatewayTransactionId().startsWith("PAYPAL_")) {
-                    paymentMethodUsed = "paypal";
-                }
-            }
+        // Queue BOOKING_COMPLETED notification to customer
+        outboxService.enqueueNotification(
+            booking.getCustomer(),
+            NotificationType.BOOKING_CONFIRMED,
+            "Service Completed ✅",
+            "Your booking for '" + booking.getService().getTitle() + "' has been completed. " +
+            "You can now submit a review for this service."
+        );
+
+        return bookingMapper.toResponse(booking);
+    }
+
+    /**
+     * Mark many CONFIRMED bookings of the provider as completed in one transaction
+     * The bookings are locked, updated in one JDBC batch at commit and paid out with one
+     * BATCH_PAYOUT outbox event (one gateway payout per payment gateway instead of one per booking)
+     * Bookings that do not exist, belong to another provider or are not CONFIRMED are skipped
+     */
+    @Transactional
+    public BulkCompleteBookingsResponse bulkCompleteBookings(Long providerId, BulkCompleteBookingsRequest request) {
+        List<Long> requestedIds = request.getBookingIds().stream().distinct().toList();
+        log.info("Bulk completing {} bookings for provider ID: {}", requestedIds.size(), providerId);
+
+        List<Booking> bookings = bookingRepository.findConfirmedByIdInAndProviderIdForUpdate(requestedIds, providerId);
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal payoutAmount = BigDecimal.ZERO;
+        for (Booking booking : bookings) {
+            bookingStateMachine.transition(booking, BookingStatus.COMPLETED, now);
+            payoutAmount = payoutAmount.add(booking.getTotalPrice());
 
-            // Get payment strategy and process payout
-            var paymentStrategy = paymentStrategyFactory.getStrategy(paymentMethodUsed);
-            payoutId = paymentStrategy.processPayout(
-                booking.getTotalPrice(),
-                booking.getService().getProvider().getEmail(),
-                "Payout for completed booking: " + booking.getService().getTitle()
+            // Queue BOOKING_COMPLETED notification to customer
+            outboxService.enqueueNotification(
+                booking.getCustomer(),
+                NotificationType.BOOKING_CONFIRMED,
+                "Service Completed ✅",
+                "Your booking for '" + booking.getService().getTitle() + "' has been completed. " +
+                "You can now submit a review for this service."
             );
+        }
 
-            log.info("Payout processed successfully via {} - Payout ID: {} for provider: {}",
-                    paymentStrategy.getPaymentMethodName(), payoutId, booking.getService().getProvider().getEmail());
-        } catch (Exception e) {
-            log.error("Payout processing failed: {}", e.getMessage());
-            payoutId = "PAYOUT_FAILED_" + System.currentTimeMillis() + "_" + providerId;
+        List<Long> completedIds = bookings.stream().map(Booking::getId).toList();
+        if (!completedIds.isEmpty()) {
+            outboxService.enqueueBatchPayout(providerId, completedIds);
         }
 
-        Transaction payout = Transaction.builder()
-                .user(booking.getService().getProvider())
-                .booking(booking)
-                .transactionType(TransactionType.PAYOUT)
-                .amount(booking.getTotalPrice())
-                .paymentMethod("Platform Payout via " + paymentMethodUsed)
-                .status(TransactionStatus.SUCCESS)
-                .paymentGatewayTransactionId(payoutId)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
+        List<Long> skippedIds = requestedIds.stream()
+                .filter(bookingId -> !completedIds.contains(bookingId))
+                .toList();
 
-        transactionRepository.save(payout);
-        log.info("PAYOUT transaction created with ID: {} - Amount: {} for provider ID: {}",
-                payout.getId(), payout.getAmount(), providerId);
+        log.info("Bulk completion for provider ID: {} - {} completed, {} skipped, payout queued: {}",
+                providerId, completedIds.size(), skippedIds.size(), payoutAmount);
 
-        // Send BOOKING_COMPLETED notification to customer
-        notificationService.createNotification(
-            booking.getCustomer(),
-            NotificationType.BOOKING_CONFIRMED,
-            "Service Completed ✅",
-            "Your booking for '" + booking.getService().getTitle() + "' has been completed. " +
-            "You can now submit a review for this service."
-        );
+        return BulkCompleteBookingsResponse.builder()
+                .completedBookingIds(completedIds)
+                .skippedBookingIds(skippedIds)
+                .payoutAmount(payoutAmount)
+                .build();
+    }
 
-        // Send notification to provider about payout
-        notificationService.createNotification(
-            booking.getService().getProvider(),
-            NotificationType.PAYMENT_SUCCESS,
-            "Payout Processed 💰",
-            "Payment of $" + payout.getAmount() + " for booking #" + booking.getId() +
-            " ('" + booking.getService().getTitle() + "') has been processed and will be transferred to your account."
-        );
+    private static String maskCardNumber(String cardNumber) {
+        return cardNumber.substring(0, 4) + "********" + cardNumber.substring(cardNumber.length() - 4);
+    }
 
-        return bookingMapper.toResponse(booking);
+    /**
+     * What phase 1 of createBooking hands to the payment and confirm phases
+     */
+    private record PendingBooking(Long bookingId, Long slotId, Long serviceId, BigDecimal amount, String serviceTitle) {
     }
-}
 
+    /**
+     * What phase 1 of createRecurringBooking hands to the payment and confirm phases
+     */
+    private record PendingSeries(List<Long> bookingIds, List<Long> slotIds, Long serviceId,
+                                 BigDecimal price, BigDecimal total, String serviceTitle) {
+    }
+}
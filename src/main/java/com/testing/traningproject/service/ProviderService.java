@@ -8,14 +8,19 @@ import com.testing.traningproject.mapper.TimeSlotMapper;
 import com.testing.traningproject.model.dto.request.CreateServiceRequest;
 import com.testing.traningproject.model.dto.request.SetAvailabilityRequest;
 import com.testing.traningproject.model.dto.request.UpdateServiceRequest;
+import com.testing.traningproject.model.dto.response.AvailabilityDeletionResponse;
 import com.testing.traningproject.model.dto.response.ProviderAvailabilityResponse;
 import com.testing.traningproject.model.dto.response.ServiceResponse;
 import com.testing.traningproject.model.entity.*;
 import com.testing.traningproject.model.enums.DayOfWeek;
 import com.testing.traningproject.model.enums.ServiceType;
 import com.testing.traningproject.repository.*;
+import com.testing.traningproject.service.availability.AvailabilityChangedEvent;
+import com.testing.traningproject.service.calendar.TimeSlotsChangedEvent;
+import com.testing.traningproject.service.search.ServiceChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,7 +41,8 @@ public class ProviderService {
     private final ProviderAvailabilityRepository providerAvailabilityRepository;
     private final TimeSlotRepository timeSlotRepository;
     private final SubscriptionService subscriptionService;
-    private final TimeSlotService timeSlotService;
+    private final SlotHorizonRoller slotHorizonRoller;
+    private final ApplicationEventPublisher eventPublisher;
     private final ServiceMapper serviceMapper; // ✅ MapStruct mapper
     private final TimeSlotMapper timeSlotMapper; // ✅ MapStruct mapper
 
@@ -87,6 +93,10 @@ public class ProviderService {
         service = serviceRepository.save(service);
 
         log.info("Service created successfully - ID: {}", service.getId());
+        eventPublisher.publishEvent(new ServiceChangedEvent(service.getId()));
+
+        // Materialize slots right away - customer reads no longer generate them
+        slotHorizonRoller.rollService(service);
 
         return serviceMapper.toResponse(service);
     }
@@ -136,7 +146,9 @@ public class ProviderService {
             service.setLocationAddress(request.getLocationAddress());
         }
 
+        boolean reactivated = false;
         if (request.getIsActive() != null) {
+            reactivated = request.getIsActive() && !Boolean.TRUE.equals(service.getIsActive());
             service.setIsActive(request.getIsActive());
         }
 
@@ -144,6 +156,12 @@ public class ProviderService {
         service = serviceRepository.save(service);
 
         log.info("Service updated successfully - ID: {}", serviceId);
+        eventPublisher.publishEvent(new ServiceChangedEvent(serviceId));
+
+        // The roller skips inactive services, so catch up when a service comes back
+        if (reactivated) {
+            slotHorizonRoller.rollService(service);
+        }
 
         return serviceMapper.toResponse(service);
     }
@@ -163,6 +181,7 @@ public class ProviderService {
         serviceRepository.delete(service);
 
         log.info("Service deleted successfully - ID: {}", serviceId);
+        eventPublisher.publishEvent(new ServiceChangedEvent(serviceId));
     }
 
     /**
@@ -195,14 +214,8 @@ public class ProviderService {
 
         // Check for overlapping availability , if he creates availability time in same time previous
         DayOfWeek dayOfWeek = DayOfWeek.valueOf(request.getDayOfWeek());
-        List<ProviderAvailability> existingAvailability =
-            providerAvailabilityRepository.findByProviderIdAndDayOfWeek(providerId, dayOfWeek);
-
-        for (ProviderAvailability existing : existingAvailability) {
-            if (timeSlotsOverlap(request.getStartTime(), request.getEndTime(),
-                                existing.getStartTime(), existing.getEndTime())) {
-                throw new BadRequestException("This time slot overlaps with existing availability");
-            }
+        if (availabilityOverlaps(providerId, dayOfWeek, request.getStartTime(), request.getEndTime())) {
+            throw new BadRequestException("This time slot overlaps with existing availability");
         }
 
         // Create availability
@@ -220,21 +233,11 @@ public class ProviderService {
 
         log.info("Availability set successfully - ID: {}", availability.getId());
 
-        // Auto-generate time slots for all provider's active services
-        List<com.testing.traningproject.model.entity.Service> providerServices =
-                serviceRepository.findByProviderIdAndIsActiveTrue(providerId);
-
-        if (!providerServices.isEmpty()) {
-            log.info("Generating time slots for {} services", providerServices.size());
-            for (com.testing.traningproject.model.entity.Service service : providerServices) {
-                try {
-                    timeSlotService.generateTimeSlotsForService(service);
-                    log.info("Time slots generated for service ID: {}", service.getId());
-                } catch (Exception e) {
-                    log.error("Failed to generate time slots for service ID: {} - {}", service.getId(), e.getMessage());
-                }
-            }
-        }
+        // Availability index picks up the new period after commit
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(providerId));
+
+        // Materialize the slot horizon for all provider's active services
+        slotHorizonRoller.rollProvider(providerId);
 
         return timeSlotMapper.toAvailabilityResponse(availability);
     }
@@ -252,14 +255,12 @@ public class ProviderService {
     }
 
     /**
-     * Delete availability
-     */
-    /**
-     * Delete availability and all associated time slots
-     * ⚠️ WARNING: This will delete ALL time slots for this day across ALL provider's services
+     * Delete availability and its future, unbooked time slots
+     * Set-based: one DELETE ... USING service for all provider's services, limited to the
+     * availability's weekday and time window; booked slots are kept and reported as skipped
      */
     @Transactional
-    public void deleteAvailability(Long providerId, Long availabilityId) {
+    public AvailabilityDeletionResponse deleteAvailability(Long providerId, Long availabilityId) {
         ProviderAvailability availability = providerAvailabilityRepository.findById(availabilityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
 
@@ -267,38 +268,48 @@ public class ProviderService {
             throw new ForbiddenException("You can only delete your own availability");
         }
 
-        // Get the day of week for this availability
         DayOfWeek dayOfWeek = availability.getDayOfWeek();
+        int isoDayOfWeek = java.time.DayOfWeek.valueOf(dayOfWeek.name()).getValue();
+        java.time.LocalTime startTime = availability.getStartTime();
+        java.time.LocalTime endTime = availability.getEndTime();
+        LocalDateTime now = LocalDateTime.now();
 
-        // Find all services for this provider
-        List<com.testing.traningproject.model.entity.Service> providerServices =
-                serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId);
-
-        // Delete all time slots for this day of week across all provider's services
-        int deletedSlots = 0;
-        for (com.testing.traningproject.model.entity.Service service : providerServices) {
-            // Delete slots matching this day of week
-            List<TimeSlot> slotsToDelete = timeSlotRepository.findByServiceIdAndDayOfWeek(
-                    service.getId(), dayOfWeek.name());
-
-            if (!slotsToDelete.isEmpty()) {
-                timeSlotRepository.deleteAll(slotsToDelete);
-                deletedSlots += slotsToDelete.size();
-            }
-        }
-
-        // Delete the availability
+        // Delete the availability first - the slot purge clears the persistence context
         providerAvailabilityRepository.delete(availability);
 
-        log.info("Availability deleted - ID: {}, Deleted {} time slots for {}",
-                availabilityId, deletedSlots, dayOfWeek);
+        int deletedSlots = timeSlotRepository.deleteUnbookedFutureSlotsInWindow(
+                providerId, isoDayOfWeek, startTime, endTime, now.toLocalDate(), now.toLocalTime());
+
+        long skippedSlots = timeSlotRepository.countBookedFutureSlotsInWindow(
+                providerId, isoDayOfWeek, startTime, endTime, now.toLocalDate(), now.toLocalTime());
+
+        log.info("Availability deleted - ID: {}, Deleted {} time slots for {} {}-{}, kept {} booked slots",
+                availabilityId, deletedSlots, dayOfWeek, startTime, endTime, skippedSlots);
+
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(providerId));
+        if (deletedSlots > 0) {
+            serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId).forEach(service ->
+                    eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId())));
+        }
+
+        return AvailabilityDeletionResponse.builder()
+                .availabilityId(availabilityId)
+                .dayOfWeek(dayOfWeek.name())
+                .deletedSlots(deletedSlots)
+                .skippedBookedSlots(skippedSlots)
+                .build();
     }
 
     // ==================== Helper Methods ====================
 
-    private boolean timeSlotsOverlap(java.time.LocalTime start1, java.time.LocalTime end1,
-                                     java.time.LocalTime start2, java.time.LocalTime end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
+    /**
+     * Overlap check against the database - always current, whichever instance made the last change
+     * (the in-memory AvailabilityIndex is only refreshed on the instance that made it)
+     */
+    private boolean availabilityOverlaps(Long providerId, DayOfWeek dayOfWeek,
+                                         java.time.LocalTime startTime, java.time.LocalTime endTime) {
+        return providerAvailabilityRepository.existsByProviderIdAndDayOfWeekAndStartTimeBeforeAndEndTimeAfter(
+                providerId, dayOfWeek, endTime, startTime);
     }
 }
 
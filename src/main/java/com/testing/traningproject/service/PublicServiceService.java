@@ -1,20 +1,43 @@
 package com.testing.traningproject.service;
 
+import com.testing.traningproject.exception.BadRequestException;
 import com.testing.traningproject.exception.ResourceNotFoundException;
 import com.testing.traningproject.mapper.ServiceMapper;
+import com.testing.traningproject.model.dto.response.AvailableProviderResponse;
+import com.testing.traningproject.model.dto.response.ServicePageResponse;
 import com.testing.traningproject.model.dto.response.ServiceResponse;
 import com.testing.traningproject.model.entity.Category;
 import com.testing.traningproject.model.entity.Service;
+import com.testing.traningproject.model.entity.User;
+import com.testing.traningproject.model.enums.AccountStatus;
+import com.testing.traningproject.model.enums.DayOfWeek;
+import com.testing.traningproject.model.enums.SearchBackend;
 import com.testing.traningproject.repository.CategoryRepository;
 import com.testing.traningproject.repository.ServiceRepository;
+import com.testing.traningproject.repository.ServiceSpecifications;
+import com.testing.traningproject.repository.UserRepository;
+import com.testing.traningproject.service.availability.AvailabilityIndex;
+import com.testing.traningproject.service.search.ServiceCursor;
+import com.testing.traningproject.service.search.ServiceSearchIndex;
+import com.testing.traningproject.service.search.ServiceSortOrder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for public service browsing and search
@@ -25,53 +48,90 @@ import java.util.List;
 @Slf4j
 public class PublicServiceService {
 
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ServiceRepository serviceRepository;
     private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ServiceSearchIndex serviceSearchIndex;
     private final ServiceMapper serviceMapper; // ✅ MapStruct mapper
 
+    @Value("${service.search.backend:INDEX}")
+    private SearchBackend searchBackend;
+
+    @Value("${service.search.max-matches:1000}")
+    private int maxSearchMatches;
+
     /**
-     * Search and filter services with multiple criteria
+     * Search and filter services with multiple criteria - one page, keyset paginated
+     * All given filters are combined (AND) in a single query, ordered and limited by the database
+     * @param sortBy relevance (search only), newest, price_low or price_high - default: relevance when searching, newest otherwise
+     * @param cursor nextCursor of the previous page (same filters and sortBy), null for the first page
+     * @param size Page size (1-100)
      */
     @Transactional(readOnly = true)
-    public List<ServiceResponse> searchServices(Integer categoryId, String categoryName,
-                                                  String search, BigDecimal minPrice,
-                                                  BigDecimal maxPrice, String sortBy) {
-        log.info("Searching services - categoryId: {}, categoryName: {}, search: {}, minPrice: {}, maxPrice: {}, sortBy: {}",
-                categoryId, categoryName, search, minPrice, maxPrice, sortBy);
-
-        List<Service> services = new ArrayList<>();
+    public ServicePageResponse searchServices(Integer categoryId, String categoryName,
+                                              String search, BigDecimal minPrice,
+                                              BigDecimal maxPrice, String sortBy,
+                                              String cursor, int size) {
+        log.info("Searching services - categoryId: {}, categoryName: {}, search: {}, minPrice: {}, maxPrice: {}, sortBy: {}, size: {}",
+                categoryId, categoryName, search, minPrice, maxPrice, sortBy, size);
 
-        // Priority 1: Search by term (title or description)
-        if (search != null && !search.trim().isEmpty()) {
-            services = serviceRepository.searchByTitleOrDescription(search.trim());
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
-        // Priority 2: Filter by category ID
-        else if (categoryId != null) {
-            services = filterByCategory(categoryId, minPrice, maxPrice, sortBy);
-        }
-        // Priority 3: Filter by category name
-        else if (categoryName != null && !categoryName.trim().isEmpty()) {
+
+        boolean searched = search != null && !search.trim().isEmpty();
+        ServiceSortOrder order = ServiceSortOrder.of(sortBy, searched);
+        ServiceCursor after = cursor != null && !cursor.isBlank() ? ServiceCursor.decode(cursor, order) : null;
+
+        Specification<Service> filters = ServiceSpecifications.isActive();
+        if (categoryId != null) {
+            filters = filters.and(ServiceSpecifications.inCategory(categoryId));
+        } else if (categoryName != null && !categoryName.trim().isEmpty()) {
             Category category = categoryRepository.findByName(categoryName.trim())
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found: " + categoryName));
-            services = filterByCategory(category.getId(), minPrice, maxPrice, sortBy);
+            filters = filters.and(ServiceSpecifications.inCategory(category.getId()));
         }
-        // Priority 4: Filter by price range only
-        else if (minPrice != null || maxPrice != null) {
-            BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
-            BigDecimal max = maxPrice != null ? maxPrice : new BigDecimal("999999.99");
-            services = serviceRepository.findByPriceRange(min, max);
+        if (minPrice != null) {
+            filters = filters.and(ServiceSpecifications.priceAtLeast(minPrice));
         }
-        // Default: Get all active services
-        else {
-            services = serviceRepository.findByIsActiveTrueOrderByCreatedAtDesc();
+        if (maxPrice != null) {
+            filters = filters.and(ServiceSpecifications.priceAtMost(maxPrice));
         }
 
-        // Apply sorting if needed (only if not already sorted by repository)
-        if (sortBy != null && !sortBy.equals("newest") && (search != null || (minPrice == null && maxPrice == null))) {
-            services = applySorting(services, sortBy);
+        if (searched) {
+            List<Long> rankedIds = searchByTerm(search.trim());
+            if (order == ServiceSortOrder.RELEVANCE) {
+                return relevancePage(rankedIds, filters, after, size);
+            }
+            if (rankedIds.isEmpty()) {
+                return toPage(List.of(), null);
+            }
+            filters = filters.and(ServiceSpecifications.idIn(rankedIds));
         }
 
-        return serviceMapper.toResponseList(services);
+        if (after != null) {
+            filters = filters.and(switch (order) {
+                case PRICE_LOW -> ServiceSpecifications.priceAbove(after.price(), after.id());
+                case PRICE_HIGH -> ServiceSpecifications.priceBelow(after.price(), after.id());
+                default -> ServiceSpecifications.createdBefore(after.createdAt(), after.id());
+            });
+        }
+
+        // One row past the page tells whether another page exists
+        List<Service> services = serviceRepository.findBy(filters, query -> query
+                .sortBy(order.toSort())
+                .limit(size + 1)
+                .all());
+
+        if (services.size() <= size) {
+            return toPage(services, null);
+        }
+        List<Service> page = services.subList(0, size);
+        return toPage(page, ServiceCursor.after(order, page.get(size - 1)));
     }
 
     /**
@@ -112,44 +172,110 @@ public class PublicServiceService {
     }
 
     /**
-     * Filter services by category with optional price range and sorting
+     * Find providers whose weekly availability covers [startTime, endTime) on a day
+     * Answered from the in-memory availability index - the availability table is not scanned
+     * @param dayOfWeekStr Day of week (MONDAY..SUNDAY) - used when no date is given
+     * @param dateStr Date (YYYY-MM-DD) - its day of week is used
      */
-    private List<Service> filterByCategory(Integer categoryId, BigDecimal minPrice,
-                                            BigDecimal maxPrice, String sortBy) {
-        if (minPrice != null || maxPrice != null) {
-            BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
-            BigDecimal max = maxPrice != null ? maxPrice : new BigDecimal("999999.99");
-            return serviceRepository.findByCategoryAndPriceRange(categoryId, min, max);
+    @Transactional(readOnly = true)
+    public List<AvailableProviderResponse> findAvailableProviders(String dayOfWeekStr, String dateStr,
+                                                                  LocalTime startTime, LocalTime endTime) {
+        log.info("Finding providers available - day: {}, date: {}, from {} to {}",
+                dayOfWeekStr, dateStr, startTime, endTime);
+
+        if (!endTime.isAfter(startTime)) {
+            throw new BadRequestException("End time must be after start time");
         }
 
-        if ("price_low".equalsIgnoreCase(sortBy)) {
-            return serviceRepository.findByCategoryIdAndIsActiveTrueOrderByPriceAsc(categoryId);
-        } else if ("price_high".equalsIgnoreCase(sortBy)) {
-            return serviceRepository.findByCategoryIdAndIsActiveTrueOrderByPriceDesc(categoryId);
+        DayOfWeek dayOfWeek;
+        if (dateStr != null && !dateStr.isBlank()) {
+            dayOfWeek = DayOfWeek.valueOf(LocalDate.parse(dateStr).getDayOfWeek().name());
+        } else if (dayOfWeekStr != null && !dayOfWeekStr.isBlank()) {
+            dayOfWeek = DayOfWeek.valueOf(dayOfWeekStr.trim().toUpperCase());
+        } else {
+            throw new BadRequestException("Either dayOfWeek or date is required");
         }
 
-        return serviceRepository.findByCategoryIdAndIsActiveTrueOrderByCreatedAtDesc(categoryId);
+        List<Long> providerIds = availabilityIndex.findAvailableProviders(dayOfWeek, startTime, endTime);
+
+        return userRepository.findAllById(providerIds).stream()
+                .filter(provider -> provider.getAccountStatus() == AccountStatus.ACTIVE)
+                .sorted(Comparator.comparing(User::getId))
+                .map(provider -> AvailableProviderResponse.builder()
+                        .providerId(provider.getId())
+                        .firstName(provider.getFirstName())
+                        .lastName(provider.getLastName())
+                        .professionalTitle(provider.getProfessionalTitle())
+                        .profilePictureUrl(provider.getProfilePictureUrl())
+                        .build())
+                .toList();
     }
 
     /**
-     * Apply sorting to service list
+     * IDs of active services matching title / description terms, best match first (at most maxSearchMatches)
+     * INDEX backend: in-memory search index (until it is built at startup, the database is queried instead)
+     * POSTGRES backend: ranked full-text / fuzzy query
      */
-    private List<Service> applySorting(List<Service> services, String sortBy) {
-        switch (sortBy.toLowerCase()) {
-            case "price_low":
-                return services.stream()
-                        .sorted(Comparator.comparing(Service::getPrice))
-                        .toList();
-            case "price_high":
-                return services.stream()
-                        .sorted(Comparator.comparing(Service::getPrice).reversed())
-                        .toList();
-            case "newest":
-            default:
-                return services.stream()
-                        .sorted(Comparator.comparing(Service::getCreatedAt).reversed())
-                        .toList();
+    private List<Long> searchByTerm(String search) {
+        if (searchBackend == SearchBackend.POSTGRES || !serviceSearchIndex.isReady()) {
+            // Only letters / digits reach to_tsquery - no user input is parsed as tsquery syntax
+            String prefixQuery = Arrays.stream(TOKEN_SEPARATOR.split(search.toLowerCase(Locale.ROOT)))
+                    .filter(token -> !token.isEmpty())
+                    .map(token -> token + ":*")
+                    .collect(Collectors.joining(" & "));
+            if (prefixQuery.isEmpty()) {
+                return List.of();
+            }
+            return serviceRepository.searchIdsByTitleOrDescription(prefixQuery, search, maxSearchMatches);
         }
+
+        List<Long> rankedIds = serviceSearchIndex.search(search);
+        return rankedIds.size() > maxSearchMatches ? rankedIds.subList(0, maxSearchMatches) : rankedIds;
     }
-}
 
+    /**
+     * One page of search matches in rank order
+     * The rank is walked in chunks - each chunk is filtered by one ID-bounded query - until the page is full
+     * The cursor holds the rank position of the last service; if that service is still ranked, its current position wins
+     */
+    private ServicePageResponse relevancePage(List<Long> rankedIds, Specification<Service> filters,
+                                              ServiceCursor after, int size) {
+        int start = 0;
+        if (after != null) {
+            int currentPosition = rankedIds.indexOf(after.id());
+            start = (currentPosition >= 0 ? currentPosition : after.position()) + 1;
+        }
+
+        List<Service> services = new ArrayList<>(size + 1);
+        List<Integer> positions = new ArrayList<>(size + 1);
+        int position = start;
+        while (services.size() <= size && position < rankedIds.size()) {
+            List<Long> chunk = rankedIds.subList(position, Math.min(position + size + 1, rankedIds.size()));
+            Map<Long, Service> matchesById = serviceRepository.findAll(filters.and(ServiceSpecifications.idIn(chunk))).stream()
+                    .collect(Collectors.toMap(Service::getId, Function.identity()));
+
+            for (Long id : chunk) {
+                Service service = matchesById.get(id);
+                if (service != null && services.size() <= size) {
+                    services.add(service);
+                    positions.add(position);
+                }
+                position++;
+            }
+        }
+
+        if (services.size() <= size) {
+            return toPage(services, null);
+        }
+        Service last = services.get(size - 1);
+        return toPage(services.subList(0, size), ServiceCursor.afterRank(positions.get(size - 1), last.getId()));
+    }
+
+    private ServicePageResponse toPage(List<Service> services, ServiceCursor next) {
+        return ServicePageResponse.builder()
+                .content(serviceMapper.toResponseList(services))
+                .nextCursor(next != null ? next.encode() : null)
+                .hasNext(next != null)
+                .build();
+    }
+}
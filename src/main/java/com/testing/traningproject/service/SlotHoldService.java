@@ -0,0 +1,266 @@
+package com.testing.traningproject.service;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.exception.ResourceNotFoundException;
+import com.testing.traningproject.model.dto.request.HoldSlotRequest;
+import com.testing.traningproject.model.dto.response.SlotHoldResponse;
+import com.testing.traningproject.model.entity.TimeSlot;
+import com.testing.traningproject.repository.ServiceRepository;
+import com.testing.traningproject.repository.TimeSlotRepository;
+import com.testing.traningproject.service.calendar.TimeSlotsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Slot Hold Service
+ * Short reservation leases on time slots so the payment gateway is called outside any transaction
+ * - hold: AVAILABLE -> HELD (expires after booking.hold.ttl-seconds, never extended)
+ *   A customer holds at most booking.hold.max-per-customer slots at a time
+ * - confirm: HELD -> BOOKED, only while the customer still holds the slot
+ * - release / sweeper: HELD -> AVAILABLE
+ * Every transition is a single conditional UPDATE, so concurrent customers cannot hold the same slot
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotHoldService {
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final ServiceRepository serviceRepository;
+    private final TimeSlotService timeSlotService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking.hold.ttl-seconds:300}")
+    private long holdTtlSeconds;
+
+    @Value("${booking.hold.max-per-customer:30}")
+    private int maxHoldsPerCustomer;
+
+    /**
+     * Hold a slot for the customer before paying (customer endpoint)
+     */
+    @Transactional
+    public SlotHoldResponse holdSlot(Long customerId, HoldSlotRequest request) {
+        TimeSlot slot = holdSlot(customerId, request.getServiceId(),
+                request.getSlotId(), request.getSlotDate(), request.getStartTime());
+
+        return SlotHoldResponse.builder()
+                .slotId(slot.getId())
+                .serviceId(request.getServiceId())
+                .slotDate(slot.getSlotDate())
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .heldUntil(slot.getHeldUntil())
+                .build();
+    }
+
+    /**
+     * Validate and hold a slot for the customer - joins the caller's transaction
+     * The slot is referenced by ID or by date/start time (virtual slots have no ID until held)
+     * Holding a slot the customer already holds keeps the hold and its expiry
+     * @return The held slot, loaded after the update
+     */
+    @Transactional
+    public TimeSlot holdSlot(Long customerId, Long serviceId, Long slotId, LocalDate slotDate, LocalTime startTime) {
+        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+        if (!service.getIsActive()) {
+            throw new BadRequestException("Service is not active");
+        }
+
+        TimeSlot slot = (slotId != null)
+                ? timeSlotRepository.findById(slotId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"))
+                : timeSlotService.findOrMaterializeSlot(service, slotDate, startTime);
+
+        if (!slot.getService().getId().equals(service.getId())) {
+            throw new BadRequestException("Time slot does not belong to this service");
+        }
+
+        // Check if slot date is in the future
+        if (slot.getSlotDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot book a slot in the past");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime heldUntil = now.plusSeconds(holdTtlSeconds);
+        checkHoldLimit(customerId, List.of(slot.getId()), now);
+
+        if (timeSlotRepository.holdSlot(slot.getId(), customerId, heldUntil, now) == 0) {
+            throw new BadRequestException("Time slot is not available");
+        }
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId()));
+
+        log.info("Time slot ID: {} held for customer ID: {} until {}", slot.getId(), customerId, heldUntil);
+
+        return timeSlotRepository.findById(slot.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"));
+    }
+
+    /**
+     * Validate and hold every slot of a recurring series - joins the caller's transaction
+     * The first slot is referenced by ID or by date/start time; the others start at the same time
+     * every intervalWeeks weeks. All slots are held with one UPDATE - if any of them is taken the
+     * whole series fails
+     * @return The held slots ordered by date
+     */
+    @Transactional
+    public List<TimeSlot> holdSeries(Long customerId, Long serviceId, Long firstSlotId, LocalDate firstDate,
+                                     LocalTime startTime, int occurrences, int intervalWeeks) {
+        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+        if (!service.getIsActive()) {
+            throw new BadRequestException("Service is not active");
+        }
+
+        if (firstSlotId != null) {
+            TimeSlot firstSlot = timeSlotRepository.findById(firstSlotId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"));
+            if (!firstSlot.getService().getId().equals(service.getId())) {
+                throw new BadRequestException("Time slot does not belong to this service");
+            }
+            firstDate = firstSlot.getSlotDate();
+            startTime = firstSlot.getStartTime();
+        }
+
+        // Check if first slot date is in the future
+        if (firstDate.isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot book a slot in the past");
+        }
+
+        List<LocalDate> dates = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            dates.add(firstDate.plusWeeks((long) i * intervalWeeks));
+        }
+
+        List<TimeSlot> slots = timeSlotService.findOrMaterializeSlots(service, dates, startTime);
+        List<Long> slotIds = slots.stream().map(TimeSlot::getId).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime heldUntil = now.plusSeconds(holdTtlSeconds);
+        checkHoldLimit(customerId, slotIds, now);
+
+        if (timeSlotRepository.holdSlots(slotIds, customerId, heldUntil, now) != slotIds.size()) {
+            // Thrown inside the caller's transaction - the holds that did succeed are rolled back
+            throw new BadRequestException("One or more time slots of the series are not available");
+        }
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId()));
+
+        log.info("{} time slots held for customer ID: {} until {} (service ID: {})",
+                slotIds.size(), customerId, heldUntil, service.getId());
+
+        return timeSlotRepository.findAllById(slotIds).stream()
+                .sorted(Comparator.comparing(TimeSlot::getSlotDate))
+                .toList();
+    }
+
+    /**
+     * Reject holds that would take the customer above booking.hold.max-per-customer active holds
+     * Slots the customer already holds among slotIds are not counted twice
+     */
+    private void checkHoldLimit(Long customerId, Collection<Long> slotIds, LocalDateTime now) {
+        long activeHolds = timeSlotRepository.countActiveHoldsExcluding(customerId, slotIds, now);
+        if (activeHolds + slotIds.size() > maxHoldsPerCustomer) {
+            throw new BadRequestException("Too many time slots on hold - book or release a held slot first");
+        }
+    }
+
+    /**
+     * HELD -> BOOKED for the holding customer
+     * @param serviceId Service of the slot (the caller already knows it - saves reloading the slot)
+     * @return false when the hold expired and was released (or taken by someone else)
+     */
+    @Transactional
+    public boolean confirmHold(Long slotId, Long customerId, Long serviceId) {
+        boolean confirmed = timeSlotRepository.confirmHeldSlot(slotId, customerId, LocalDateTime.now()) == 1;
+        if (confirmed) {
+            eventPublisher.publishEvent(new TimeSlotsChangedEvent(serviceId));
+        }
+        return confirmed;
+    }
+
+    /**
+     * HELD -> AVAILABLE for the holding customer
+     * @return false when the customer does not hold the slot (anymore)
+     */
+    @Transactional
+    public boolean releaseHold(Long slotId, Long customerId) {
+        boolean released = timeSlotRepository.releaseHeldSlot(slotId, customerId, LocalDateTime.now()) == 1;
+        if (released) {
+            timeSlotRepository.findById(slotId).ifPresent(slot ->
+                    eventPublisher.publishEvent(new TimeSlotsChangedEvent(slot.getService().getId())));
+            log.info("Hold on time slot ID: {} released by customer ID: {}", slotId, customerId);
+        }
+        return released;
+    }
+
+    /**
+     * HELD -> BOOKED for all slots of a series the customer holds
+     * @return Number of slots confirmed (fewer than requested when some holds expired)
+     */
+    @Transactional
+    public int confirmHolds(Collection<Long> slotIds, Long customerId, Long serviceId) {
+        int confirmed = timeSlotRepository.confirmHeldSlots(slotIds, customerId, LocalDateTime.now());
+        if (confirmed > 0) {
+            eventPublisher.publishEvent(new TimeSlotsChangedEvent(serviceId));
+        }
+        return confirmed;
+    }
+
+    /**
+     * HELD -> AVAILABLE for all slots of a series the customer (still) holds
+     */
+    @Transactional
+    public int releaseHolds(Collection<Long> slotIds, Long customerId, Long serviceId) {
+        int released = timeSlotRepository.releaseHeldSlots(slotIds, customerId, LocalDateTime.now());
+        if (released > 0) {
+            eventPublisher.publishEvent(new TimeSlotsChangedEvent(serviceId));
+            log.info("{} holds released by customer ID: {}", released, customerId);
+        }
+        return released;
+    }
+
+    /**
+     * Release a hold without booking (customer endpoint)
+     */
+    @Transactional
+    public void cancelHold(Long customerId, Long slotId) {
+        if (!releaseHold(slotId, customerId)) {
+            throw new ResourceNotFoundException("No active hold on this time slot");
+        }
+    }
+
+    /**
+     * Sweeper - releases every expired hold with one UPDATE
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.sweep-interval-ms:30000}")
+    @Transactional
+    public void releaseExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> serviceIds = timeSlotRepository.findServiceIdsWithExpiredHolds(now);
+        if (serviceIds.isEmpty()) {
+            return;
+        }
+
+        int released = timeSlotRepository.releaseExpiredHolds(now);
+        serviceIds.forEach(serviceId -> eventPublisher.publishEvent(new TimeSlotsChangedEvent(serviceId)));
+
+        log.info("Released {} expired slot holds", released);
+    }
+}
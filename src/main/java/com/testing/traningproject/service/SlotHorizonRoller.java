@@ -0,0 +1,155 @@
+package com.testing.traningproject.service;
+
+import com.testing.traningproject.model.entity.ProviderAvailability;
+import com.testing.traningproject.model.enums.AvailabilityMode;
+import com.testing.traningproject.repository.ProviderAvailabilityRepository;
+import com.testing.traningproject.repository.ServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Slot Horizon Roller
+ * Keeps every active service materialized N days ahead so customer reads never generate slots
+ * - Nightly: materializes only the date that just entered the horizon
+ * - On availability/service changes: re-materializes the full horizon for that provider
+ * - On startup: catches up the full horizon (covers nights the application was down)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotHorizonRoller {
+
+    private final ServiceRepository serviceRepository;
+    private final ProviderAvailabilityRepository providerAvailabilityRepository;
+    private final TimeSlotService timeSlotService;
+
+    @Value("${timeslot.horizon-days:30}")
+    private int horizonDays;
+
+    // In VIRTUAL mode slots are computed on read - nothing is materialized ahead of time
+    @Value("${timeslot.availability-mode:MATERIALIZED}")
+    private AvailabilityMode availabilityMode;
+
+    /**
+     * Nightly incremental run - only the newly entering date is generated
+     */
+    @Scheduled(cron = "${timeslot.horizon.cron:0 5 0 * * *}")
+    public void rollForward() {
+        if (isVirtual()) {
+            return;
+        }
+
+        LocalDate enteringDate = LocalDate.now().plusDays(horizonDays - 1L);
+        log.info("Rolling slot horizon forward - materializing {}", enteringDate);
+
+        int inserted = materializeAllActiveServices(enteringDate, enteringDate.plusDays(1));
+
+        log.info("Slot horizon rolled forward to {} - {} slots inserted", enteringDate, inserted);
+    }
+
+    /**
+     * Startup catch-up of the full horizon
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (isVirtual()) {
+            log.info("Availability mode is VIRTUAL - skipping slot horizon catch-up");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        log.info("Catching up slot horizon ({} days) on startup", horizonDays);
+
+        int inserted = materializeAllActiveServices(today, today.plusDays(horizonDays));
+
+        log.info("Slot horizon catch-up completed - {} slots inserted", inserted);
+    }
+
+    /**
+     * Re-materialize the full horizon for all active services of a provider
+     * Triggered when the provider's availability changes
+     */
+    @Transactional
+    public void rollProvider(Long providerId) {
+        if (isVirtual()) {
+            return;
+        }
+
+        List<com.testing.traningproject.model.entity.Service> services =
+                serviceRepository.findByProviderIdAndIsActiveTrue(providerId);
+
+        if (services.isEmpty()) {
+            return;
+        }
+
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(providerId);
+
+        LocalDate today = LocalDate.now();
+        for (com.testing.traningproject.model.entity.Service service : services) {
+            timeSlotService.generateTimeSlotsForService(service, availabilities, today, today.plusDays(horizonDays));
+        }
+
+        log.info("Slot horizon refreshed for provider ID: {} ({} services)", providerId, services.size());
+    }
+
+    /**
+     * Materialize the full horizon for a single service (e.g., newly created or re-activated)
+     */
+    @Transactional
+    public void rollService(com.testing.traningproject.model.entity.Service service) {
+        if (isVirtual()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(service.getProvider().getId());
+
+        timeSlotService.generateTimeSlotsForService(service, availabilities, today, today.plusDays(horizonDays));
+    }
+
+    private boolean isVirtual() {
+        return availabilityMode == AvailabilityMode.VIRTUAL;
+    }
+
+    /**
+     * Materialize [startDate, endDate) for every active service
+     * Availability is loaded once for all providers; each service is written in its own transaction
+     * so one failing service does not roll back the others
+     */
+    private int materializeAllActiveServices(LocalDate startDate, LocalDate endDate) {
+        Map<Long, List<ProviderAvailability>> availabilityByProvider =
+                providerAvailabilityRepository.findByIsActiveTrue().stream()
+                        .collect(Collectors.groupingBy(availability -> availability.getProvider().getId()));
+
+        int inserted = 0;
+        for (com.testing.traningproject.model.entity.Service service :
+                serviceRepository.findByIsActiveTrueOrderByCreatedAtDesc()) {
+
+            List<ProviderAvailability> availabilities =
+                    availabilityByProvider.getOrDefault(service.getProvider().getId(), List.of());
+            if (availabilities.isEmpty()) {
+                continue;
+            }
+
+            try {
+                inserted += timeSlotService.generateTimeSlotsForService(service, availabilities, startDate, endDate);
+            } catch (Exception e) {
+                log.error("Failed to materialize time slots for service ID: {} - {}", service.getId(), e.getMessage());
+            }
+        }
+        return inserted;
+    }
+}
@@ -9,6 +9,7 @@ import com.testing.traningproject.model.dto.response.SubscriptionPlanResponse;
 import com.testing.traningproject.model.dto.response.SubscriptionResponse;
 import com.testing.traningproject.model.entity.*;
 import com.testing.traningproject.model.enums.AccountStatus;
+import com.testing.traningproject.model.enums.PaymentGateway;
 import com.testing.traningproject.model.enums.RoleName;
 import com.testing.traningproject.model.enums.SubscriptionStatus;
 import com.testing.traningproject.model.enums.TransactionStatus;
@@ -16,6 +17,7 @@ import com.testing.traningproject.repository.SubscriptionPlanRepository;
 import com.testing.traningproject.repository.SubscriptionRepository;
 import com.testing.traningproject.repository.TransactionRepository;
 import com.testing.traningproject.repository.UserRepository;
+import com.testing.traningproject.service.payment.AsyncPaymentStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -109,16 +111,19 @@ public class SubscriptionService {
         // Process payment via Strategy Pattern
         String paymentTransactionId;
         String maskedCard;
+        PaymentGateway paymentGateway;
         try {
             // Get payment strategy based on payment method
-            var paymentStrategy = paymentStrategyFactory.getStrategy(request.getPaymentMethod());
+            var paymentStrategy = paymentStrategyFactory.getAsyncStrategy(request.getPaymentMethod());
+            paymentGateway = paymentStrategy.getGateway();
 
-            // Process payment
-            paymentTransactionId = paymentStrategy.processPayment(
+            // Process payment (bounded by the gateway's bulkhead and timeout)
+            paymentTransactionId = AsyncPaymentStrategy.await(paymentStrategy.processPayment(
+                user.getId(),
                 plan.getPrice(),
                 request.getPaymentCard(),
                 "Subscription payment for: " + plan.getName()
-            );
+            ));
 
             // Mask card number for storage
             maskedCard = request.getPaymentCard().getCardNumber().substring(0, 4) + "********" +
@@ -139,6 +144,7 @@ public class SubscriptionService {
                 .transactionType(com.testing.traningproject.model.enums.TransactionType.SUBSCRIPTION_PAYMENT)
                 .amount(plan.getPrice())
                 .paymentMethod(request.getPaymentMethod() + " - " + maskedCard)
+                .paymentGateway(paymentGateway)
                 .status(TransactionStatus.SUCCESS)
                 .paymentGatewayTransactionId(paymentTransactionId)
                 .createdAt(LocalDateTime.now())
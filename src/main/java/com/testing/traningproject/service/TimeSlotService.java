@@ -1,24 +1,49 @@
 package com.testing.traningproject.service;
 
+import com.testing.traningproject.exception.BadRequestException;
 import com.testing.traningproject.exception.ResourceNotFoundException;
 import com.testing.traningproject.mapper.TimeSlotMapper;
+import com.testing.traningproject.model.dto.request.BlockTimeSlotRequest;
+import com.testing.traningproject.model.dto.request.BulkTimeSlotStatusRequest;
+import com.testing.traningproject.model.dto.response.BulkTimeSlotStatusResponse;
+import com.testing.traningproject.model.dto.response.DaySlotSummaryResponse;
+import com.testing.traningproject.model.dto.response.SlotMonthSummaryResponse;
 import com.testing.traningproject.model.dto.response.TimeSlotResponse;
 import com.testing.traningproject.model.entity.ProviderAvailability;
 import com.testing.traningproject.model.entity.TimeSlot;
+import com.testing.traningproject.model.enums.AvailabilityMode;
 import com.testing.traningproject.model.enums.DayOfWeek;
 import com.testing.traningproject.model.enums.TimeSlotStatus;
+import com.testing.traningproject.model.projection.SlotStatusCountProjection;
 import com.testing.traningproject.repository.ProviderAvailabilityRepository;
 import com.testing.traningproject.repository.ServiceRepository;
 import com.testing.traningproject.repository.TimeSlotRepository;
+import com.testing.traningproject.service.calendar.DayCalendar;
+import com.testing.traningproject.service.calendar.MonthCalendar;
+import com.testing.traningproject.service.calendar.SlotCalendarCache;
+import com.testing.traningproject.service.calendar.TimeSlotsChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * Time Slot Service
@@ -32,8 +57,16 @@ public class TimeSlotService {
     private final TimeSlotRepository timeSlotRepository;
     private final ServiceRepository serviceRepository;
     private final ProviderAvailabilityRepository providerAvailabilityRepository;
+    private final SlotCalendarCache slotCalendarCache;
+    private final ApplicationEventPublisher eventPublisher;
     private final TimeSlotMapper timeSlotMapper; // ✅ MapStruct mapper
 
+    @Value("${timeslot.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${timeslot.availability-mode:MATERIALIZED}")
+    private AvailabilityMode availabilityMode;
+
     /**
      * Get available time slots for a service with optional date filtering
      * @param serviceId Service ID
@@ -48,13 +81,6 @@ public class TimeSlotService {
         log.info("Fetching available time slots for service ID: {} (from: {}, to: {}, limit: {})",
                 serviceId, fromDateStr, toDateStr, limit);
 
-        // Validate service exists
-        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
-
-        // Generate time slots for the next 30 days if not already generated
-        generateTimeSlotsForService(service);
-
         // Parse dates
         LocalDate fromDate = (fromDateStr != null && !fromDateStr.isBlank())
                 ? LocalDate.parse(fromDateStr)
@@ -62,20 +88,42 @@ public class TimeSlotService {
 
         LocalDate toDate = (toDateStr != null && !toDateStr.isBlank())
                 ? LocalDate.parse(toDateStr)
-                : fromDate.plusDays(30); // Default: next 30 days (matches slot generation period)
+                : fromDate.plusDays(horizonDays); // Default: matches the materialized horizon
 
-        // Get available time slots within date range
-        List<TimeSlot> availableSlots = timeSlotRepository
-                .findByServiceIdAndStatusAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
-                        serviceId,
-                        TimeSlotStatus.AVAILABLE,
-                        fromDate,
-                        toDate
-                );
+        List<TimeSlot> availableSlots;
+
+        if (availabilityMode == AvailabilityMode.VIRTUAL) {
+            // Compute open slots from the provider's weekly availability
+            com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+            availableSlots = findVirtualSlots(service, fromDate, toDate).stream()
+                    .filter(slot -> slot.getStatus() == TimeSlotStatus.AVAILABLE)
+                    .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                    .toList();
+        } else {
+            // Validate service exists
+            com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+            // Slots are materialized ahead of time by SlotHorizonRoller - this is a pure read
+            // Answer from the cached bitset calendars when the slots can be encoded
+            Optional<List<TimeSlotResponse>> fromCalendar =
+                    readFromCalendars(List.of(service), fromDate, toDate, TimeSlotStatus.AVAILABLE, limit);
+            if (fromCalendar.isPresent()) {
+                log.info("Found {} available slots for service ID: {} (calendar)", fromCalendar.get().size(), serviceId);
+                return fromCalendar.get();
+            }
 
-        // Apply limit
-        if (limit > 0 && availableSlots.size() > limit) {
-            availableSlots = availableSlots.subList(0, limit);
+            // Get available time slots within date range (limit applied in the database)
+            availableSlots = timeSlotRepository
+                    .findByServiceIdAndStatusAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+                            serviceId,
+                            TimeSlotStatus.AVAILABLE,
+                            fromDate,
+                            toDate,
+                            limit > 0 ? Limit.of(limit) : Limit.unlimited()
+                    );
         }
 
         log.info("Found {} available slots for service ID: {}", availableSlots.size(), serviceId);
@@ -84,88 +132,281 @@ public class TimeSlotService {
     }
 
     /**
-     * Generate time slots for a service based on provider's availability
-     * Generates slots for the next 30 days
+     * Per-day available/booked/blocked counts of a service for one month (calendar shading)
+     * MATERIALIZED: one GROUP BY slot_date, status aggregate | VIRTUAL: counted from the computed slots
+     * @param monthStr Month (YYYY-MM) or null for the current month
      */
-    @Transactional
-    public void generateTimeSlotsForService(com.testing.traningproject.model.entity.Service service) {
-        Long providerId = service.getProvider().getId();
-        Integer serviceDuration = service.getDurationMinutes();
+    @Transactional(readOnly = true)
+    public SlotMonthSummaryResponse getMonthSummary(Long serviceId, String monthStr) {
+        YearMonth month = (monthStr != null && !monthStr.isBlank())
+                ? YearMonth.parse(monthStr)
+                : YearMonth.now();
 
-        // Get provider's availability
-        List<ProviderAvailability> availabilities =
-                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(providerId);
+        log.info("Fetching slot summary for service ID: {} ({})", serviceId, month);
 
+        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+        // Counts per day, indexed by status ordinal
+        Map<LocalDate, long[]> countsByDate = new TreeMap<>();
+
+        if (availabilityMode == AvailabilityMode.VIRTUAL) {
+            for (TimeSlot slot : findVirtualSlots(service, month.atDay(1), month.atEndOfMonth())) {
+                countsByDate.computeIfAbsent(slot.getSlotDate(), date -> new long[TimeSlotStatus.values().length])
+                        [slot.getStatus().ordinal()]++;
+            }
+        } else {
+            for (SlotStatusCountProjection row : timeSlotRepository
+                    .countByServiceIdAndSlotDateBetweenGroupByDateAndStatus(
+                            serviceId, month.atDay(1), month.atEndOfMonth())) {
+                countsByDate.computeIfAbsent(row.getSlotDate(), date -> new long[TimeSlotStatus.values().length])
+                        [row.getStatus().ordinal()] = row.getSlotCount();
+            }
+        }
+
+        List<DaySlotSummaryResponse> days = countsByDate.entrySet().stream()
+                .map(entry -> DaySlotSummaryResponse.builder()
+                        .date(entry.getKey())
+                        .available(entry.getValue()[TimeSlotStatus.AVAILABLE.ordinal()])
+                        .booked(entry.getValue()[TimeSlotStatus.BOOKED.ordinal()])
+                        .blocked(entry.getValue()[TimeSlotStatus.BLOCKED.ordinal()])
+                        .held(entry.getValue()[TimeSlotStatus.HELD.ordinal()])
+                        .build())
+                .toList();
+
+        return SlotMonthSummaryResponse.builder()
+                .serviceId(serviceId)
+                .month(month.toString())
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Materialize the slots of a service for [startDate, endDate) from the provider's availability
+     * Set-based: the whole candidate set is computed in memory, existing keys are fetched with
+     * one range query and only the missing rows are written in a single JDBC batch
+     * @param availabilities Active availability of the service's provider
+     * @return Number of slots inserted
+     */
+    @Transactional
+    public int generateTimeSlotsForService(com.testing.traningproject.model.entity.Service service,
+                                           List<ProviderAvailability> availabilities,
+                                           LocalDate startDate,
+                                           LocalDate endDate) {
         if (availabilities.isEmpty()) {
-            log.warn("No availability set for provider ID: {}", providerId);
-            return;
+            log.warn("No availability set for provider ID: {}", service.getProvider().getId());
+            return 0;
         }
 
-        // Generate slots for next 30 days
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = startDate.plusDays(30);
+        List<TimeSlot> candidates = buildCandidateSlots(service, availabilities, startDate, endDate);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
 
-        for (LocalDate date = startDate; date.isBefore(endDate); date = date.plusDays(1)) {
-            // Get day of week for this date
-            java.time.DayOfWeek javaDayOfWeek = date.getDayOfWeek();
-            DayOfWeek dayOfWeek = convertToDayOfWeek(javaDayOfWeek);
+        // Fetch keys of slots that already exist in the range (one query)
+        Set<String> existingKeys = timeSlotRepository
+                .findSlotKeysByServiceIdAndSlotDateBetween(service.getId(), startDate, endDate.minusDays(1))
+                .stream()
+                .map(key -> slotKey(key.getSlotDate(), key.getStartTime()))
+                .collect(Collectors.toSet());
+
+        List<TimeSlot> missingSlots = candidates.stream()
+                .filter(slot -> !existingKeys.contains(slotKey(slot.getSlotDate(), slot.getStartTime())))
+                .toList();
+
+        // Insert only missing rows - ON CONFLICT DO NOTHING covers concurrent generation
+        int inserted = timeSlotRepository.insertIgnoringDuplicates(missingSlots);
+        if (inserted > 0) {
+            eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId()));
+        }
 
-            // Find availability for this day
-            List<ProviderAvailability> dayAvailability = availabilities.stream()
-                    .filter(av -> av.getDayOfWeek() == dayOfWeek)
-                    .toList();
+        log.info("Time slots generated for service ID: {} - {} candidates, {} inserted ({} to {})",
+                service.getId(), candidates.size(), inserted, startDate, endDate);
+        return inserted;
+    }
+
+    /**
+     * Compute every slot a service should have in [startDate, endDate) - no database access
+     * Creates slots based on service duration (e.g., 120-minute service = one 2-hour slot)
+     */
+    private List<TimeSlot> buildCandidateSlots(com.testing.traningproject.model.entity.Service service,
+                                               List<ProviderAvailability> availabilities,
+                                               LocalDate startDate,
+                                               LocalDate endDate) {
+        int durationMinutes = service.getDurationMinutes();
+
+        // Group availability by day once instead of filtering for every date
+        Map<DayOfWeek, List<ProviderAvailability>> availabilityByDay = availabilities.stream()
+                .collect(Collectors.groupingBy(ProviderAvailability::getDayOfWeek,
+                        () -> new EnumMap<>(DayOfWeek.class), Collectors.toList()));
+
+        List<TimeSlot> candidates = new ArrayList<>();
+
+        for (LocalDate date = startDate; date.isBefore(endDate); date = date.plusDays(1)) {
+            List<ProviderAvailability> dayAvailability =
+                    availabilityByDay.getOrDefault(convertToDayOfWeek(date.getDayOfWeek()), List.of());
 
             // Generate slots for each availability period
             for (ProviderAvailability availability : dayAvailability) {
-                generateSlotsForPeriod(service, date, availability.getStartTime(),
-                        availability.getEndTime(), serviceDuration);
+                // Work in minutes of day so a period ending near midnight cannot wrap around
+                int periodEnd = availability.getEndTime().toSecondOfDay() / 60;
+                int current = availability.getStartTime().toSecondOfDay() / 60;
+
+                // Generate slots until we can't fit a full service duration
+                // Move to next slot (don't overlap - jump by full service duration)
+                for (; current + durationMinutes <= periodEnd; current += durationMinutes) {
+                    candidates.add(TimeSlot.builder()
+                            .service(service)
+                            .slotDate(date)
+                            .startTime(LocalTime.ofSecondOfDay(current * 60L))
+                            .endTime(LocalTime.ofSecondOfDay((current + durationMinutes) * 60L))
+                            .status(TimeSlotStatus.AVAILABLE)
+                            .build());
+                }
             }
         }
 
-        log.info("Time slots generated successfully for service ID: {}", service.getId());
+        return candidates;
     }
 
     /**
-     * Generate time slots for a specific date and time period
-     * Creates slots based on service duration (e.g., 120-minute service = one 2-hour slot)
+     * All slots of a service in [fromDate, toDate] in VIRTUAL mode (inclusive range)
      */
-    private void generateSlotsForPeriod(com.testing.traningproject.model.entity.Service service,
-                                        LocalDate date,
-                                        LocalTime startTime,
-                                        LocalTime endTime,
-                                        Integer durationMinutes) {
-        LocalTime currentTime = startTime;
-
-        // Generate slots until we can't fit a full service duration
-        while (currentTime.plusMinutes(durationMinutes).isBefore(endTime)
-                || currentTime.plusMinutes(durationMinutes).equals(endTime)) {
-
-            LocalTime slotEndTime = currentTime.plusMinutes(durationMinutes);
-
-            // Check if slot already exists
-            boolean exists = timeSlotRepository.existsByServiceIdAndSlotDateAndStartTime(
-                    service.getId(), date, currentTime);
-
-            if (!exists) {
-                // Create new time slot with service duration
-                TimeSlot timeSlot = TimeSlot.builder()
-                        .service(service)
-                        .slotDate(date)
-                        .startTime(currentTime)
-                        .endTime(slotEndTime)
-                        .status(TimeSlotStatus.AVAILABLE)
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-
-                timeSlotRepository.save(timeSlot);
-
-                log.debug("Created slot: {} - {} to {}", date, currentTime, slotEndTime);
+    private List<TimeSlot> findVirtualSlots(com.testing.traningproject.model.entity.Service service,
+                                            LocalDate fromDate,
+                                            LocalDate toDate) {
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(service.getProvider().getId());
+
+        List<TimeSlot> persistedSlots = timeSlotRepository
+                .findByServiceIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(service.getId(), fromDate, toDate);
+
+        return overlayVirtualSlots(service, availabilities, persistedSlots, fromDate, toDate);
+    }
+
+    /**
+     * Overlay the stored slots of a service on the slots computed from availability (VIRTUAL mode)
+     * - A stored row always wins over the computed slot with the same key (it carries the real status and ID)
+     * - Stored BOOKED/BLOCKED rows outside the current availability are kept
+     * - Stored AVAILABLE rows outside the current availability are stale and dropped
+     * Computed slots are transient (no ID) until they are booked or blocked
+     */
+    private List<TimeSlot> overlayVirtualSlots(com.testing.traningproject.model.entity.Service service,
+                                               List<ProviderAvailability> availabilities,
+                                               List<TimeSlot> persistedSlots,
+                                               LocalDate fromDate,
+                                               LocalDate toDate) {
+        Map<String, TimeSlot> slotsByKey = new HashMap<>();
+
+        // Inactive services offer nothing new - only their stored rows remain visible
+        if (Boolean.TRUE.equals(service.getIsActive())) {
+            for (TimeSlot candidate : buildCandidateSlots(service, availabilities, fromDate, toDate.plusDays(1))) {
+                slotsByKey.put(slotKey(candidate.getSlotDate(), candidate.getStartTime()), candidate);
+            }
+        }
+
+        for (TimeSlot persisted : persistedSlots) {
+            String key = slotKey(persisted.getSlotDate(), persisted.getStartTime());
+            if (persisted.getStatus() != TimeSlotStatus.AVAILABLE || slotsByKey.containsKey(key)) {
+                slotsByKey.put(key, persisted);
             }
+        }
+
+        return slotsByKey.values().stream()
+                .sorted(Comparator.comparing(TimeSlot::getSlotDate).thenComparing(TimeSlot::getStartTime))
+                .toList();
+    }
+
+    /**
+     * Find the slot of a service by date and start time
+     * In VIRTUAL mode a slot that is not stored yet is validated against the provider's
+     * availability and persisted first, so it can be booked or blocked
+     */
+    @Transactional
+    public TimeSlot findOrMaterializeSlot(com.testing.traningproject.model.entity.Service service,
+                                          LocalDate slotDate,
+                                          LocalTime startTime) {
+        Optional<TimeSlot> existing =
+                timeSlotRepository.findByServiceIdAndSlotDateAndStartTime(service.getId(), slotDate, startTime);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        if (availabilityMode != AvailabilityMode.VIRTUAL) {
+            throw new ResourceNotFoundException("Time slot not found");
+        }
 
-            // Move to next slot (don't overlap - jump by full service duration)
-            currentTime = slotEndTime;
+        if (!Boolean.TRUE.equals(service.getIsActive())) {
+            throw new BadRequestException("Service is not active");
         }
+
+        if (slotDate.isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot use a time slot in the past");
+        }
+
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(service.getProvider().getId());
+
+        TimeSlot candidate = buildCandidateSlots(service, availabilities, slotDate, slotDate.plusDays(1)).stream()
+                .filter(slot -> slot.getStartTime().equals(startTime))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException(
+                        "No time slot is offered on " + slotDate + " at " + startTime));
+
+        // ON CONFLICT DO NOTHING - a concurrent request may have persisted the same slot
+        timeSlotRepository.insertIgnoringDuplicates(List.of(candidate));
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId()));
+        log.info("Virtual slot persisted for service ID: {} - {} {}", service.getId(), slotDate, startTime);
+
+        return timeSlotRepository.findByServiceIdAndSlotDateAndStartTime(service.getId(), slotDate, startTime)
+                .orElseThrow(() -> new ResourceNotFoundException("Time slot not found"));
+    }
+
+    /**
+     * Slots of a service starting at startTime on each of the dates (recurring series), ordered by date
+     * In VIRTUAL mode missing slots are computed from the provider's availability and persisted in one batch
+     * @throws BadRequestException when a date has no such slot
+     */
+    @Transactional
+    public List<TimeSlot> findOrMaterializeSlots(com.testing.traningproject.model.entity.Service service,
+                                                 List<LocalDate> slotDates,
+                                                 LocalTime startTime) {
+        List<TimeSlot> slots = timeSlotRepository
+                .findByServiceIdAndStartTimeAndSlotDateInOrderBySlotDateAsc(service.getId(), startTime, slotDates);
+        if (slots.size() == slotDates.size()) {
+            return slots;
+        }
+
+        Set<LocalDate> existingDates = slots.stream().map(TimeSlot::getSlotDate).collect(Collectors.toSet());
+        List<LocalDate> missingDates = slotDates.stream().filter(date -> !existingDates.contains(date)).toList();
+
+        if (availabilityMode != AvailabilityMode.VIRTUAL) {
+            throw new BadRequestException("No time slot is offered on " + missingDates.get(0) + " at " + startTime);
+        }
+
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(service.getProvider().getId());
+
+        List<TimeSlot> candidates = new ArrayList<>();
+        for (LocalDate date : missingDates) {
+            TimeSlot candidate = buildCandidateSlots(service, availabilities, date, date.plusDays(1)).stream()
+                    .filter(slot -> slot.getStartTime().equals(startTime))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException(
+                            "No time slot is offered on " + date + " at " + startTime));
+            candidates.add(candidate);
+        }
+
+        timeSlotRepository.insertIgnoringDuplicates(candidates);
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(service.getId()));
+        log.info("{} virtual slots persisted for service ID: {} at {}", candidates.size(), service.getId(), startTime);
+
+        return timeSlotRepository
+                .findByServiceIdAndStartTimeAndSlotDateInOrderBySlotDateAsc(service.getId(), startTime, slotDates);
+    }
+
+    private String slotKey(LocalDate date, LocalTime startTime) {
+        return date + "T" + startTime;
     }
 
     /**
@@ -207,8 +448,33 @@ public class TimeSlotService {
                 ? TimeSlotStatus.valueOf(statusStr.toUpperCase())
                 : null;
 
+        // A provider only sees the slots of their own services (VIRTUAL slots come from the owner's availability)
+        if (serviceId != null) {
+            com.testing.traningproject.model.entity.Service service = serviceRepository.findById(serviceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+            if (!service.getProvider().getId().equals(providerId)) {
+                throw new com.testing.traningproject.exception.ForbiddenException(
+                        "You can only view time slots of your own services");
+            }
+        }
+
         List<TimeSlot> slots;
 
+        if (availabilityMode == AvailabilityMode.VIRTUAL) {
+            slots = findVirtualProviderSlots(providerId, serviceId, fromDate, toDate, status);
+            return timeSlotMapper.toResponseList(slots);
+        }
+
+        // Answer from the cached bitset calendars when the slots can be encoded
+        List<com.testing.traningproject.model.entity.Service> services = (serviceId != null)
+                ? serviceRepository.findAllById(List.of(serviceId))
+                : serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId);
+
+        Optional<List<TimeSlotResponse>> fromCalendar = readFromCalendars(services, fromDate, toDate, status, 0);
+        if (fromCalendar.isPresent()) {
+            return fromCalendar.get();
+        }
+
         if (serviceId != null) {
             // Filter by specific service
             if (status != null) {
@@ -220,9 +486,6 @@ public class TimeSlotService {
             }
         } else {
             // Get all slots for provider's services
-            List<com.testing.traningproject.model.entity.Service> services =
-                    serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId);
-
             List<Long> serviceIds = services.stream()
                     .map(com.testing.traningproject.model.entity.Service::getId)
                     .toList();
@@ -239,6 +502,97 @@ public class TimeSlotService {
         return timeSlotMapper.toResponseList(slots);
     }
 
+    /**
+     * Read slots from the cached bitset calendars (MATERIALIZED mode) - no TimeSlot entities are loaded
+     * Slots are returned ordered by date and start time; createdAt/updatedAt are not part of the calendar
+     * @param status Status to return, or null for all
+     * @param limit Maximum number of slots, or 0 for no limit
+     * @return empty when a month cannot be encoded as quarter-hour bitmaps (use the entity path)
+     */
+    private Optional<List<TimeSlotResponse>> readFromCalendars(
+            List<com.testing.traningproject.model.entity.Service> services,
+            LocalDate fromDate, LocalDate toDate, TimeSlotStatus status, int limit) {
+
+        if (services.isEmpty() || toDate.isBefore(fromDate)) {
+            return Optional.of(List.of());
+        }
+
+        Map<Long, Map<YearMonth, MonthCalendar>> calendars = slotCalendarCache.getCalendars(
+                services.stream().map(com.testing.traningproject.model.entity.Service::getId).toList(),
+                fromDate, toDate);
+        if (calendars == null) {
+            return Optional.empty();
+        }
+
+        List<TimeSlotResponse> responses = new ArrayList<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            int dayStart = responses.size();
+
+            for (com.testing.traningproject.model.entity.Service service : services) {
+                MonthCalendar month = calendars.get(service.getId()).get(YearMonth.from(date));
+                DayCalendar day = month.day(date);
+                if (day == null) {
+                    continue;
+                }
+
+                LocalDate slotDate = date;
+                day.forEachSlot(status, (quarter, slotStatus, slotId) -> {
+                    LocalTime startTime = LocalTime.ofSecondOfDay(quarter * DayCalendar.QUARTER_MINUTES * 60L);
+                    responses.add(TimeSlotResponse.builder()
+                            .id(slotId)
+                            .serviceId(service.getId())
+                            .serviceTitle(service.getTitle())
+                            .slotDate(slotDate)
+                            .dayOfWeek(slotDate.getDayOfWeek().name())
+                            .startTime(startTime)
+                            .endTime(startTime.plusMinutes(month.getSlotMinutes()))
+                            .status(slotStatus.name())
+                            .build());
+                });
+            }
+
+            // Several services on one day - keep the start time order across them
+            if (services.size() > 1) {
+                responses.subList(dayStart, responses.size()).sort(Comparator.comparing(TimeSlotResponse::getStartTime));
+            }
+
+            if (limit > 0 && responses.size() >= limit) {
+                return Optional.of(responses.subList(0, limit));
+            }
+        }
+
+        return Optional.of(responses);
+    }
+
+    /**
+     * Provider slots in VIRTUAL mode - availability is loaded once and stored rows with one query
+     */
+    private List<TimeSlot> findVirtualProviderSlots(Long providerId, Long serviceId,
+                                                    LocalDate fromDate, LocalDate toDate,
+                                                    TimeSlotStatus status) {
+        List<com.testing.traningproject.model.entity.Service> services = (serviceId != null)
+                ? List.of(serviceRepository.findById(serviceId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Service not found")))
+                : serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId);
+
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(providerId);
+
+        Map<Long, List<TimeSlot>> persistedByService = timeSlotRepository
+                .findByServiceIdInAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+                        services.stream().map(com.testing.traningproject.model.entity.Service::getId).toList(),
+                        fromDate, toDate)
+                .stream()
+                .collect(Collectors.groupingBy(slot -> slot.getService().getId()));
+
+        return services.stream()
+                .flatMap(service -> overlayVirtualSlots(service, availabilities,
+                        persistedByService.getOrDefault(service.getId(), List.of()), fromDate, toDate).stream())
+                .filter(slot -> status == null || slot.getStatus() == status)
+                .sorted(Comparator.comparing(TimeSlot::getSlotDate).thenComparing(TimeSlot::getStartTime))
+                .toList();
+    }
+
     /**
      * Block a time slot (prevent bookings)
      */
@@ -255,8 +609,35 @@ public class TimeSlotService {
                     "You don't have permission to block this time slot");
         }
 
-        // Check if already booked
-        if (slot.getStatus() == TimeSlotStatus.BOOKED) {
+        return applyBlock(slot);
+    }
+
+    /**
+     * Block a time slot by service, date and start time
+     * In VIRTUAL mode the slot is persisted first as it may only exist as a computed slot
+     */
+    @Transactional
+    public TimeSlotResponse blockTimeSlot(Long providerId, BlockTimeSlotRequest request) {
+        log.info("Provider ID: {} blocking time slot of service ID: {} on {} at {}",
+                providerId, request.getServiceId(), request.getSlotDate(), request.getStartTime());
+
+        com.testing.traningproject.model.entity.Service service = serviceRepository.findById(request.getServiceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
+
+        // Verify ownership
+        if (!service.getProvider().getId().equals(providerId)) {
+            throw new com.testing.traningproject.exception.ForbiddenException(
+                    "You don't have permission to block this time slot");
+        }
+
+        TimeSlot slot = findOrMaterializeSlot(service, request.getSlotDate(), request.getStartTime());
+
+        return applyBlock(slot);
+    }
+
+    private TimeSlotResponse applyBlock(TimeSlot slot) {
+        // Check if already booked (or held by a customer who is paying)
+        if (slot.getStatus() == TimeSlotStatus.BOOKED || slot.getStatus() == TimeSlotStatus.HELD) {
             throw new com.testing.traningproject.exception.BadRequestException(
                     "Cannot block a time slot that is already booked");
         }
@@ -265,11 +646,97 @@ public class TimeSlotService {
         slot.setUpdatedAt(LocalDateTime.now());
 
         timeSlotRepository.save(slot);
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(slot.getService().getId()));
 
-        log.info("Time slot ID: {} blocked successfully", slotId);
+        log.info("Time slot ID: {} blocked successfully", slot.getId());
         return timeSlotMapper.toResponse(slot);
     }
 
+    /**
+     * Block every AVAILABLE slot in a date range / daily time window with one UPDATE
+     * Booked slots are never touched
+     */
+    @Transactional
+    public BulkTimeSlotStatusResponse bulkBlockTimeSlots(Long providerId, BulkTimeSlotStatusRequest request) {
+        // Virtual slots only exist once stored - persist the range first so it can be blocked
+        if (availabilityMode == AvailabilityMode.VIRTUAL) {
+            materializeRange(providerId, request);
+        }
+        return bulkUpdateStatus(providerId, request, TimeSlotStatus.AVAILABLE, TimeSlotStatus.BLOCKED);
+    }
+
+    /**
+     * Unblock every BLOCKED slot in a date range / daily time window with one UPDATE
+     */
+    @Transactional
+    public BulkTimeSlotStatusResponse bulkUnblockTimeSlots(Long providerId, BulkTimeSlotStatusRequest request) {
+        return bulkUpdateStatus(providerId, request, TimeSlotStatus.BLOCKED, TimeSlotStatus.AVAILABLE);
+    }
+
+    private BulkTimeSlotStatusResponse bulkUpdateStatus(Long providerId, BulkTimeSlotStatusRequest request,
+                                                        TimeSlotStatus currentStatus, TimeSlotStatus newStatus) {
+        LocalTime fromTime = request.getFromTime() != null ? request.getFromTime() : LocalTime.MIN;
+        LocalTime toTime = request.getToTime() != null ? request.getToTime() : LocalTime.MAX;
+
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new BadRequestException("To date must not be before from date");
+        }
+        if (!toTime.isAfter(fromTime)) {
+            throw new BadRequestException("To time must be after from time");
+        }
+
+        log.info("Provider ID: {} changing slots {} -> {} (serviceId: {}, {} to {}, {} - {})",
+                providerId, currentStatus, newStatus, request.getServiceId(),
+                request.getFromDate(), request.getToDate(), fromTime, toTime);
+
+        int affected = timeSlotRepository.updateStatusInRange(
+                providerId, request.getServiceId(),
+                request.getFromDate(), request.getToDate(),
+                fromTime, toTime,
+                currentStatus, newStatus, LocalDateTime.now());
+
+        if (affected > 0) {
+            // Cached calendars of the affected services are stale
+            List<Long> serviceIds = (request.getServiceId() != null)
+                    ? List.of(request.getServiceId())
+                    : serviceRepository.findByProviderIdOrderByCreatedAtDesc(providerId).stream()
+                            .map(com.testing.traningproject.model.entity.Service::getId)
+                            .toList();
+            serviceIds.forEach(serviceId -> eventPublisher.publishEvent(new TimeSlotsChangedEvent(serviceId)));
+        }
+
+        log.info("Provider ID: {} - {} slots changed to {}", providerId, affected, newStatus);
+
+        return BulkTimeSlotStatusResponse.builder()
+                .status(newStatus.name())
+                .fromDate(request.getFromDate())
+                .toDate(request.getToDate())
+                .affectedSlots(affected)
+                .build();
+    }
+
+    /**
+     * Persist the computed slots of the provider's active services in the request range (VIRTUAL mode)
+     */
+    private void materializeRange(Long providerId, BulkTimeSlotStatusRequest request) {
+        // Past dates cannot be booked anyway
+        LocalDate startDate = request.getFromDate().isBefore(LocalDate.now()) ? LocalDate.now() : request.getFromDate();
+        if (startDate.isAfter(request.getToDate())) {
+            return;
+        }
+
+        List<ProviderAvailability> availabilities =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(providerId);
+
+        for (com.testing.traningproject.model.entity.Service service :
+                serviceRepository.findByProviderIdAndIsActiveTrue(providerId)) {
+            if (request.getServiceId() != null && !request.getServiceId().equals(service.getId())) {
+                continue;
+            }
+            generateTimeSlotsForService(service, availabilities, startDate, request.getToDate().plusDays(1));
+        }
+    }
+
     /**
      * Unblock a time slot (make it available again)
      */
@@ -296,6 +763,7 @@ public class TimeSlotService {
         slot.setUpdatedAt(LocalDateTime.now());
 
         timeSlotRepository.save(slot);
+        eventPublisher.publishEvent(new TimeSlotsChangedEvent(slot.getService().getId()));
 
         log.info("Time slot ID: {} unblocked successfully", slotId);
         return timeSlotMapper.toResponse(slot);
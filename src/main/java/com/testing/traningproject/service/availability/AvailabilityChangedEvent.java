@@ -0,0 +1,8 @@
+package com.testing.traningproject.service.availability;
+
+/**
+ * Published when a provider's weekly availability is created or deleted
+ * The availability index refreshes that provider once the transaction commits
+ */
+public record AvailabilityChangedEvent(Long providerId) {
+}
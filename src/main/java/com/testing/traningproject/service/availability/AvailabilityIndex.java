@@ -0,0 +1,274 @@
+package com.testing.traningproject.service.availability;
+
+import com.testing.traningproject.model.entity.ProviderAvailability;
+import com.testing.traningproject.model.enums.DayOfWeek;
+import com.testing.traningproject.repository.ProviderAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Availability Index
+ * In-memory index of the weekly availability of all providers, one snapshot per day of week
+ * - Per provider: availability merged into sorted, non-overlapping minute ranges
+ * - Per day: all ranges of all providers sorted by start with a max-end segment tree
+ *   ("which providers are free for [start, end)" without scanning the availability table)
+ * Snapshots are immutable - readers never lock, a change swaps in a rebuilt snapshot for the affected days
+ * Built on startup, refreshed per provider after availability changes commit on this instance and rebuilt
+ * every availability.index.rebuild-interval-ms - changes made on other instances show up within that interval
+ * Until the startup build completes, searches build the day's snapshot from the database
+ * Read-only use (provider search) - write-path validation queries the database
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityIndex {
+
+    private final ProviderAvailabilityRepository providerAvailabilityRepository;
+
+    private volatile Map<DayOfWeek, DaySnapshot> snapshots = emptySnapshots();
+
+    private volatile boolean ready;
+
+    /**
+     * Build the whole index from the active availability (one query)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<ProviderAvailability> availabilities = providerAvailabilityRepository.findByIsActiveTrue();
+
+        Map<DayOfWeek, List<ProviderAvailability>> availabilityByDay = availabilities.stream()
+                .collect(Collectors.groupingBy(ProviderAvailability::getDayOfWeek,
+                        () -> new EnumMap<>(DayOfWeek.class), Collectors.toList()));
+
+        Map<DayOfWeek, DaySnapshot> rebuilt = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            rebuilt.put(day, snapshotOf(availabilityByDay.getOrDefault(day, List.of())));
+        }
+
+        snapshots = rebuilt;
+        ready = true;
+        log.info("Availability index built - {} availability periods", availabilities.size());
+    }
+
+    /**
+     * Rebuild every day snapshot on a timer, since AvailabilityChangedEvent only reaches the instance that saved the change
+     */
+    @Scheduled(initialDelayString = "${availability.index.rebuild-interval-ms:60000}",
+            fixedDelayString = "${availability.index.rebuild-interval-ms:60000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Swap in the provider's new ranges after the availability write commits, so a rollback never reaches the index
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        refreshProvider(event.providerId());
+    }
+
+    /**
+     * Reload a provider's availability and swap in new snapshots for every day
+     */
+    public synchronized void refreshProvider(Long providerId) {
+        Map<DayOfWeek, List<ProviderAvailability>> availabilityByDay =
+                providerAvailabilityRepository.findByProviderIdAndIsActiveTrue(providerId).stream()
+                        .collect(Collectors.groupingBy(ProviderAvailability::getDayOfWeek,
+                                () -> new EnumMap<>(DayOfWeek.class), Collectors.toList()));
+
+        Map<DayOfWeek, DaySnapshot> refreshed = new EnumMap<>(snapshots);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DaySnapshot current = refreshed.get(day);
+            List<ProviderAvailability> dayAvailability = availabilityByDay.getOrDefault(day, List.of());
+
+            // Skip days where the provider had and still has nothing
+            if (dayAvailability.isEmpty() && !current.rangesByProvider.containsKey(providerId)) {
+                continue;
+            }
+
+            Map<Long, Ranges> ranges = new HashMap<>(current.rangesByProvider);
+            if (dayAvailability.isEmpty()) {
+                ranges.remove(providerId);
+            } else {
+                ranges.put(providerId, Ranges.of(dayAvailability));
+            }
+            refreshed.put(day, new DaySnapshot(ranges));
+        }
+
+        snapshots = refreshed;
+        log.debug("Availability index refreshed for provider ID: {}", providerId);
+    }
+
+    /**
+     * IDs of all providers whose availability covers the whole window [start, end) on that day
+     * O(log n + k log n) for k matching providers; one query for the day before the startup build completed
+     */
+    public List<Long> findAvailableProviders(DayOfWeek day, LocalTime start, LocalTime end) {
+        DaySnapshot snapshot = ready
+                ? snapshots.get(day)
+                : snapshotOf(providerAvailabilityRepository.findByDayOfWeekAndIsActiveTrue(day));
+        return snapshot.findCovering(toMinute(start), toMinute(end));
+    }
+
+    private static DaySnapshot snapshotOf(List<ProviderAvailability> dayAvailability) {
+        Map<Long, Ranges> ranges = new HashMap<>();
+        dayAvailability.stream()
+                .collect(Collectors.groupingBy(availability -> availability.getProvider().getId()))
+                .forEach((providerId, providerAvailability) -> ranges.put(providerId, Ranges.of(providerAvailability)));
+        return new DaySnapshot(ranges);
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static Map<DayOfWeek, DaySnapshot> emptySnapshots() {
+        Map<DayOfWeek, DaySnapshot> empty = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            empty.put(day, new DaySnapshot(Map.of()));
+        }
+        return empty;
+    }
+
+    /**
+     * Sorted, non-overlapping minute ranges of one provider on one day
+     * Touching periods (09:00-12:00, 12:00-15:00) are merged so a window spanning both is covered
+     */
+    private static final class Ranges {
+
+        private final int[] starts;
+        private final int[] ends;
+
+        private Ranges(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        static Ranges of(List<ProviderAvailability> availabilities) {
+            List<ProviderAvailability> sorted = availabilities.stream()
+                    .sorted(Comparator.comparing(ProviderAvailability::getStartTime))
+                    .toList();
+
+            int[] starts = new int[sorted.size()];
+            int[] ends = new int[sorted.size()];
+            int count = 0;
+
+            for (ProviderAvailability availability : sorted) {
+                int start = toMinute(availability.getStartTime());
+                int end = toMinute(availability.getEndTime());
+
+                if (count > 0 && start <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], end);
+                } else {
+                    starts[count] = start;
+                    ends[count] = end;
+                    count++;
+                }
+            }
+
+            return new Ranges(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+        }
+    }
+
+    /**
+     * All providers' ranges for one day of week
+     * Ranges are ordered by start; maxEnd is a segment tree over their ends
+     */
+    private static final class DaySnapshot {
+
+        private final Map<Long, Ranges> rangesByProvider;
+        private final int[] starts;
+        private final int[] ends;
+        private final long[] owners;
+        private final int[] maxEnd;
+
+        DaySnapshot(Map<Long, Ranges> rangesByProvider) {
+            this.rangesByProvider = Map.copyOf(rangesByProvider);
+
+            List<long[]> entries = new ArrayList<>();
+            rangesByProvider.forEach((providerId, ranges) -> {
+                for (int i = 0; i < ranges.starts.length; i++) {
+                    entries.add(new long[]{ranges.starts[i], ranges.ends[i], providerId});
+                }
+            });
+            entries.sort(Comparator.comparingLong(entry -> entry[0]));
+
+            int size = entries.size();
+            this.starts = new int[size];
+            this.ends = new int[size];
+            this.owners = new long[size];
+            for (int i = 0; i < size; i++) {
+                long[] entry = entries.get(i);
+                starts[i] = (int) entry[0];
+                ends[i] = (int) entry[1];
+                owners[i] = entry[2];
+            }
+
+            this.maxEnd = new int[Math.max(1, 4 * size)];
+            if (size > 0) {
+                build(1, 0, size);
+            }
+        }
+
+        private int build(int node, int low, int high) {
+            if (high - low == 1) {
+                return maxEnd[node] = ends[low];
+            }
+            int mid = (low + high) >>> 1;
+            return maxEnd[node] = Math.max(build(2 * node, low, mid), build(2 * node + 1, mid, high));
+        }
+
+        List<Long> findCovering(int start, int end) {
+            // Only ranges starting at or before the window can cover it - they form a prefix
+            int prefix = countStartsAtOrBefore(start);
+            List<Long> providerIds = new ArrayList<>();
+            if (prefix > 0) {
+                collect(1, 0, starts.length, prefix, end, providerIds);
+            }
+            return providerIds;
+        }
+
+        private void collect(int node, int low, int high, int prefix, int end, List<Long> out) {
+            // Prune subtrees outside the prefix or where no range reaches the end of the window
+            if (low >= prefix || maxEnd[node] < end) {
+                return;
+            }
+            if (high - low == 1) {
+                out.add(owners[low]);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            collect(2 * node, low, mid, prefix, end, out);
+            collect(2 * node + 1, mid, high, prefix, end, out);
+        }
+
+        private int countStartsAtOrBefore(int minute) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.testing.traningproject.service.booking;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.model.entity.Booking;
+import com.testing.traningproject.model.entity.BookingEvent;
+import com.testing.traningproject.model.enums.BookingStatus;
+import com.testing.traningproject.repository.BookingEventRepository;
+import com.testing.traningproject.repository.BookingRepository;
+import com.testing.traningproject.service.support.TransactionBatchBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Booking State Machine
+ * The only place a booking changes status - every change is validated against the allowed transitions
+ * and appended to booking_event in the same transaction
+ * - PENDING -> CONFIRMED (an unpaid PENDING booking is discarded, never cancelled)
+ * - CONFIRMED -> COMPLETED | CANCELLED | NO_SHOW
+ * - COMPLETED, CANCELLED, NO_SHOW are final
+ * - An unpaid PENDING booking is deleted and logged as PENDING -> DISCARDED (see discard)
+ * The audit trail goes through a TransactionBatchBuffer - transitionAll over N bookings is one booking_event batch
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStateMachine {
+
+    private static final Map<BookingStatus, Set<BookingStatus>> TRANSITIONS = new EnumMap<>(BookingStatus.class);
+
+    static {
+        TRANSITIONS.put(BookingStatus.PENDING, EnumSet.of(BookingStatus.CONFIRMED));
+        TRANSITIONS.put(BookingStatus.CONFIRMED,
+                EnumSet.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED, BookingStatus.NO_SHOW));
+        TRANSITIONS.put(BookingStatus.COMPLETED, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(BookingStatus.CANCELLED, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(BookingStatus.NO_SHOW, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(BookingStatus.DISCARDED, EnumSet.noneOf(BookingStatus.class));
+    }
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Can a booking in this status move to the target status
+     */
+    public static boolean canTransition(BookingStatus from, BookingStatus to) {
+        return TRANSITIONS.get(from).contains(to);
+    }
+
+    /**
+     * Record the creation of saved (PENDING) bookings
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookings) {
+            record(booking, null, booking.getStatus(), now);
+        }
+    }
+
+    /**
+     * Move a managed booking to the target status (written at commit)
+     * Sets completedAt / cancelledAt when the target status is COMPLETED / CANCELLED
+     * @throws BadRequestException when the transition is not allowed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transition(Booking booking, BookingStatus target) {
+        transition(booking, target, LocalDateTime.now());
+    }
+
+    /**
+     * Same as transition(booking, target) with the timestamp of the whole operation
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transition(Booking booking, BookingStatus target, LocalDateTime now) {
+        BookingStatus current = booking.getStatus();
+        if (!canTransition(current, target)) {
+            throw new BadRequestException("Cannot move booking from " + current + " to " + target);
+        }
+
+        booking.setStatus(target);
+        booking.setUpdatedAt(now);
+        if (target == BookingStatus.COMPLETED) {
+            booking.setCompletedAt(now);
+        } else if (target == BookingStatus.CANCELLED) {
+            booking.setCancelledAt(now);
+        }
+
+        record(booking, current, target, now);
+    }
+
+    /**
+     * Move bookings that all have the same status to the target status with one UPDATE
+     * The caller must hold row locks on the bookings (their status cannot change underneath)
+     * and must not use the entities afterwards - the UPDATE clears the persistence context
+     * @throws BadRequestException when a transition is not allowed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int transitionAll(List<Booking> bookings, BookingStatus target, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        BookingStatus current = bookings.get(0).getStatus();
+        for (Booking booking : bookings) {
+            if (booking.getStatus() != current || !canTransition(current, target)) {
+                throw new BadRequestException("Cannot move booking from " + booking.getStatus() + " to " + target);
+            }
+            record(booking, current, target, now);
+        }
+
+        return bookingRepository.updateStatus(bookings.stream().map(Booking::getId).toList(), current, target, now);
+    }
+
+    /**
+     * Delete PENDING bookings that never got paid (payment failed, hold expired or abandoned)
+     * Logged as PENDING -> DISCARDED so projections built from the log stay balanced
+     * without counting them as cancellations
+     * The bookings are locked first - a booking discarded concurrently is logged only once
+     * @return Number of bookings deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int discard(Collection<Long> bookingIds) {
+        List<Booking> bookings = bookingRepository.findPendingByIdInForUpdate(bookingIds);
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookings) {
+            record(booking, BookingStatus.PENDING, BookingStatus.DISCARDED, now);
+        }
+        bookingRepository.deleteAllByIdInBatch(bookings.stream().map(Booking::getId).toList());
+        log.info("{} unpaid bookings discarded", bookings.size());
+        return bookings.size();
+    }
+
+    private void record(Booking booking, BookingStatus from, BookingStatus to, LocalDateTime now) {
+        TransactionBatchBuffer.add(this, bookingEventRepository::insertAll, BookingEvent.builder()
+                .bookingId(booking.getId())
+                .serviceId(booking.getService().getId())
+                .providerId(booking.getService().getProvider().getId())
+                .customerId(booking.getCustomer().getId())
+                .fromStatus(from)
+                .toStatus(to)
+                .amount(booking.getTotalPrice())
+                .occurredAt(now)
+                .build());
+        log.debug("Booking ID: {} - {} -> {}", booking.getId(), from, to);
+    }
+}
@@ -0,0 +1,108 @@
+package com.testing.traningproject.service.booking;
+
+import com.testing.traningproject.model.entity.BookingEvent;
+import com.testing.traningproject.model.entity.ProjectionCheckpoint;
+import com.testing.traningproject.model.entity.ProviderBookingStats;
+import com.testing.traningproject.model.enums.BookingStatus;
+import com.testing.traningproject.repository.BookingEventRepository;
+import com.testing.traningproject.repository.ProjectionCheckpointRepository;
+import com.testing.traningproject.repository.ProviderBookingStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Booking Stats Projector
+ * Folds booking_event into provider_booking_stats incrementally
+ * - Each batch reads the events after the checkpoint, sums them into one delta per provider,
+ *   upserts the deltas with one JDBC batch and advances the checkpoint - all in one transaction
+ * - The checkpoint row is locked, so concurrent instances never apply an event twice
+ * - IDs are assigned at insert but become visible at commit, so the log is read in (inserting transaction, id)
+ *   order and only up to the oldest transaction still running - a slow transaction holds the projection back
+ *   instead of committing an event behind the checkpoint
+ * Rebuilding the read model = truncating it and resetting the checkpoint to (0, 0)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStatsProjector {
+
+    static final String PROJECTION_NAME = "provider_booking_stats";
+
+    private final BookingEventRepository bookingEventRepository;
+    private final ProviderBookingStatsRepository providerBookingStatsRepository;
+    private final ProjectionCheckpointRepository projectionCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.stats.projector.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Apply new events until caught up
+     */
+    @Scheduled(fixedDelayString = "${booking.stats.projector.interval-ms:5000}")
+    public void project() {
+        int applied;
+        int total = 0;
+        do {
+            Integer batch = transactionTemplate.execute(status -> applyBatch());
+            applied = (batch != null) ? batch : 0;
+            total += applied;
+        } while (applied == batchSize);
+
+        if (total > 0) {
+            log.info("Provider booking stats projected - {} events applied", total);
+        }
+    }
+
+    private int applyBatch() {
+        projectionCheckpointRepository.initialize(PROJECTION_NAME);
+        ProjectionCheckpoint checkpoint = projectionCheckpointRepository.findForUpdate(PROJECTION_NAME)
+                .orElseThrow(() -> new IllegalStateException("Missing checkpoint: " + PROJECTION_NAME));
+
+        List<BookingEvent> events = bookingEventRepository.findFinishedAfter(
+                checkpoint.getLastTxId(), checkpoint.getLastEventId(), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, ProviderBookingStats> deltas = new HashMap<>();
+        for (BookingEvent event : events) {
+            ProviderBookingStats delta = deltas.computeIfAbsent(event.getProviderId(),
+                    providerId -> ProviderBookingStats.builder().providerId(providerId).build());
+            if (event.getFromStatus() != null) {
+                add(delta, event.getFromStatus(), -1, event.getAmount());
+            }
+            add(delta, event.getToStatus(), 1, event.getAmount());
+        }
+
+        providerBookingStatsRepository.applyDeltas(deltas.values());
+        // Managed - the new position is written at commit together with the deltas
+        BookingEvent last = events.get(events.size() - 1);
+        checkpoint.setLastTxId(last.getTxId());
+        checkpoint.setLastEventId(last.getId());
+        return events.size();
+    }
+
+    private static void add(ProviderBookingStats delta, BookingStatus status, int sign, BigDecimal amount) {
+        switch (status) {
+            case PENDING -> delta.setPending(delta.getPending() + sign);
+            case CONFIRMED -> delta.setConfirmed(delta.getConfirmed() + sign);
+            case COMPLETED -> {
+                delta.setCompleted(delta.getCompleted() + sign);
+                delta.setCompletedRevenue(delta.getCompletedRevenue().add(sign > 0 ? amount : amount.negate()));
+            }
+            case CANCELLED -> delta.setCancelled(delta.getCancelled() + sign);
+            case NO_SHOW -> delta.setNoShow(delta.getNoShow() + sign);
+            case DISCARDED -> { } // Deleted unpaid booking - it only leaves PENDING
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.testing.traningproject.service.booking;
+
+import com.testing.traningproject.model.entity.Booking;
+import com.testing.traningproject.model.enums.BookingStatus;
+import com.testing.traningproject.model.enums.NotificationType;
+import com.testing.traningproject.repository.BookingRepository;
+import com.testing.traningproject.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Booking Sweeper
+ * Moves bookings the request paths never finish out of the active set
+ * - CONFIRMED bookings whose slot ended more than the grace period ago -> NO_SHOW
+ * - PENDING bookings older than the pending timeout (payment never finished) are discarded,
+ *   which also frees their slot for other customers (booking.slot_id is unique)
+ *   A payment captured for them (request failed before it could confirm or compensate) is reversed
+ * Each page is one short transaction: lock the next IDs (keyset, SKIP LOCKED), queue the
+ * notifications (one outbox JDBC batch) and apply the change with one set-based statement
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSweeper {
+
+    private final BookingRepository bookingRepository;
+    private final BookingStateMachine bookingStateMachine;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${booking.sweeper.no-show-grace-hours:24}")
+    private long noShowGraceHours;
+
+    @Value("${booking.sweeper.pending-timeout-minutes:30}")
+    private long pendingTimeoutMinutes;
+
+    /**
+     * Sweep both kinds of bookings until no page is left
+     */
+    @Scheduled(fixedDelayString = "${booking.sweeper.interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int noShows = sweepPages(afterId -> markNoShowPage(afterId, now.minusHours(noShowGraceHours)));
+        int expired = sweepPages(afterId -> discardStalePendingPage(afterId, now.minusMinutes(pendingTimeoutMinutes)));
+
+        if (noShows > 0 || expired > 0) {
+            log.info("Booking sweep - {} marked NO_SHOW, {} stale PENDING discarded", noShows, expired);
+        }
+    }
+
+    private int sweepPages(PageSweep pageSweep) {
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            long cursor = afterId;
+            Page page = transactionTemplate.execute(status -> pageSweep.sweep(cursor));
+            if (page == null || page.lockedIds() == 0) {
+                return total;
+            }
+            total += page.changed();
+            if (page.lockedIds() < batchSize) {
+                return total;
+            }
+            afterId = page.lastId();
+        }
+    }
+
+    private Page markNoShowPage(long afterId, LocalDateTime cutoff) {
+        List<Long> ids = bookingRepository.lockEndedConfirmedIds(
+                afterId, cutoff.toLocalDate(), cutoff.toLocalTime(), batchSize);
+        if (ids.isEmpty()) {
+            return new Page(0, 0, afterId);
+        }
+
+        List<Booking> bookings = bookingRepository.findWithDetailsByIdIn(ids);
+        for (Booking booking : bookings) {
+            // Queue BOOKING_NO_SHOW notification to customer
+            outboxService.enqueueNotification(
+                booking.getCustomer(),
+                NotificationType.BOOKING_NO_SHOW,
+                "Booking Marked as No-Show",
+                "Your booking for '" + booking.getService().getTitle() + "' on " +
+                booking.getSlot().getSlotDate() + " at " + booking.getSlot().getStartTime() +
+                " was not completed and has been marked as a no-show."
+            );
+
+            // Queue BOOKING_NO_SHOW notification to provider
+            outboxService.enqueueNotification(
+                booking.getService().getProvider(),
+                NotificationType.BOOKING_NO_SHOW,
+                "Booking Marked as No-Show",
+                "The booking for '" + booking.getService().getTitle() + "' by " +
+                booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName() +
+                " on " + booking.getSlot().getSlotDate() + " was not marked as completed and is now a no-show."
+            );
+        }
+
+        int changed = bookingStateMachine.transitionAll(bookings, BookingStatus.NO_SHOW, LocalDateTime.now());
+        return new Page(ids.size(), changed, ids.get(ids.size() - 1));
+    }
+
+    private Page discardStalePendingPage(long afterId, LocalDateTime createdBefore) {
+        List<Long> ids = bookingRepository.lockStalePendingIds(afterId, createdBefore, batchSize);
+        if (ids.isEmpty()) {
+            return new Page(0, 0, afterId);
+        }
+
+        // Loaded with details first - discard then finds them in the persistence context
+        List<Booking> bookings = bookingRepository.findWithDetailsByIdIn(ids);
+
+        // Captured payments of the page, one reversal per gateway transaction (a series shares one)
+        Map<String, List<Booking>> captured = bookings.stream()
+                .filter(booking -> booking.getPaymentGatewayTransactionId() != null)
+                .collect(Collectors.groupingBy(Booking::getPaymentGatewayTransactionId));
+        captured.forEach((paymentTransactionId, paid) -> outboxService.enqueuePaymentReversal(
+                paid.get(0).getCustomer().getId(),
+                paid.get(0).getPaymentGateway(),
+                paymentTransactionId,
+                paid.stream().map(Booking::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add),
+                "booking abandoned after payment"));
+
+        for (Booking booking : bookings) {
+            // Queue BOOKING_CANCELLED notification to customer
+            outboxService.enqueueNotification(
+                booking.getCustomer(),
+                NotificationType.BOOKING_CANCELLED,
+                "Booking Expired",
+                "Your booking for '" + booking.getService().getTitle() + "' on " +
+                booking.getSlot().getSlotDate() + " at " + booking.getSlot().getStartTime() +
+                " expired because the payment was not completed."
+            );
+        }
+
+        int changed = bookingStateMachine.discard(ids);
+        if (!captured.isEmpty()) {
+            log.warn("{} captured payments of abandoned bookings queued for reversal", captured.size());
+        }
+        return new Page(ids.size(), changed, ids.get(ids.size() - 1));
+    }
+
+    @FunctionalInterface
+    private interface PageSweep {
+        Page sweep(long afterId);
+    }
+
+    private record Page(int lockedIds, int changed, long lastId) {
+    }
+}
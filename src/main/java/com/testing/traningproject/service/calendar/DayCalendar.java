@@ -0,0 +1,119 @@
+package com.testing.traningproject.service.calendar;
+
+import com.testing.traningproject.model.enums.TimeSlotStatus;
+import com.testing.traningproject.model.projection.TimeSlotCalendarProjection;
+
+import java.util.List;
+
+/**
+ * Day Calendar
+ * Slot starts of one service on one day as quarter-hour bitmaps - 96 bits (two longs) per status
+ * Bit q of a status is set when a slot with that status starts at q * 15 minutes
+ * Slot IDs are kept in start order; when they are consecutive (the usual case for batch
+ * materialized days) only the first ID is stored
+ */
+public final class DayCalendar {
+
+    public static final int QUARTER_MINUTES = 15;
+    public static final int QUARTERS_PER_DAY = 24 * 60 / QUARTER_MINUTES;
+
+    private static final int WORDS = 2;
+    private static final TimeSlotStatus[] STATUSES = TimeSlotStatus.values();
+
+    /**
+     * Receives slots in start order
+     */
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void visit(int quarter, TimeSlotStatus status, long slotId);
+    }
+
+    // [status.ordinal() * WORDS + word]
+    private final long[] bits;
+    private final long firstId;
+    private final long[] ids; // null when IDs are consecutive from firstId
+
+    private DayCalendar(long[] bits, long firstId, long[] ids) {
+        this.bits = bits;
+        this.firstId = firstId;
+        this.ids = ids;
+    }
+
+    /**
+     * Build from the rows of one day, ordered by start time and quarter-hour aligned
+     */
+    static DayCalendar of(List<TimeSlotCalendarProjection> rows) {
+        long[] bits = new long[STATUSES.length * WORDS];
+        long[] ids = new long[rows.size()];
+        boolean consecutive = true;
+
+        for (int i = 0; i < rows.size(); i++) {
+            TimeSlotCalendarProjection row = rows.get(i);
+            int quarter = row.getStartTime().toSecondOfDay() / 60 / QUARTER_MINUTES;
+            bits[row.getStatus().ordinal() * WORDS + (quarter >>> 6)] |= 1L << quarter;
+
+            ids[i] = row.getId();
+            consecutive &= ids[i] == ids[0] + i;
+        }
+
+        return new DayCalendar(bits, ids[0], consecutive ? null : ids);
+    }
+
+    /**
+     * Is a slot with this status starting at the quarter
+     */
+    public boolean has(TimeSlotStatus status, int quarter) {
+        return (bits[status.ordinal() * WORDS + (quarter >>> 6)] & (1L << quarter)) != 0;
+    }
+
+    /**
+     * Number of slots with this status
+     */
+    public int count(TimeSlotStatus status) {
+        int base = status.ordinal() * WORDS;
+        return Long.bitCount(bits[base]) + Long.bitCount(bits[base + 1]);
+    }
+
+    /**
+     * Visit slots in start order - all statuses when status is null
+     */
+    public void forEachSlot(TimeSlotStatus status, SlotVisitor visitor) {
+        for (int word = 0; word < WORDS; word++) {
+            long remaining = (status != null) ? bits[status.ordinal() * WORDS + word] : occupied(word);
+            while (remaining != 0) {
+                int quarter = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                TimeSlotStatus slotStatus = (status != null) ? status : statusAt(quarter);
+                visitor.visit(quarter, slotStatus, idAt(quarter));
+            }
+        }
+    }
+
+    private long occupied(int word) {
+        long union = 0;
+        for (int s = 0; s < STATUSES.length; s++) {
+            union |= bits[s * WORDS + word];
+        }
+        return union;
+    }
+
+    private TimeSlotStatus statusAt(int quarter) {
+        for (TimeSlotStatus status : STATUSES) {
+            if (has(status, quarter)) {
+                return status;
+            }
+        }
+        throw new IllegalStateException("No slot starts at quarter " + quarter);
+    }
+
+    private long idAt(int quarter) {
+        // Rank of the quarter among all occupied quarters = position in start order
+        int word = quarter >>> 6;
+        int rank = Long.bitCount(occupied(word) & ((1L << quarter) - 1));
+        if (word == 1) {
+            rank += Long.bitCount(occupied(0));
+        }
+        return (ids == null) ? firstId + rank : ids[rank];
+    }
+}
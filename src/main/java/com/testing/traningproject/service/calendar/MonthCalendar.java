@@ -0,0 +1,76 @@
+package com.testing.traningproject.service.calendar;
+
+import com.testing.traningproject.model.projection.TimeSlotCalendarProjection;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Month Calendar
+ * Day calendars of one service for one month plus the slot length shared by all its slots
+ * Only months whose slots are quarter-hour aligned and of one length can be encoded -
+ * anything else is read through the entity path
+ */
+public final class MonthCalendar {
+
+    private final YearMonth month;
+    private final int slotMinutes;
+    private final DayCalendar[] days; // index = day of month - 1, null when the day has no slots
+
+    private MonthCalendar(YearMonth month, int slotMinutes, DayCalendar[] days) {
+        this.month = month;
+        this.slotMinutes = slotMinutes;
+        this.days = days;
+    }
+
+    /**
+     * Build from the rows of one service and month, ordered by date and start time
+     * @return null when the rows cannot be encoded as quarter-hour bitmaps
+     */
+    static MonthCalendar of(YearMonth month, List<TimeSlotCalendarProjection> rows) {
+        DayCalendar[] days = new DayCalendar[month.lengthOfMonth()];
+        int slotMinutes = 0;
+
+        List<TimeSlotCalendarProjection> dayRows = new ArrayList<>();
+        for (TimeSlotCalendarProjection row : rows) {
+            int startMinute = row.getStartTime().toSecondOfDay() / 60;
+            int lengthMinutes = row.getEndTime().toSecondOfDay() / 60 - startMinute;
+
+            if (startMinute % DayCalendar.QUARTER_MINUTES != 0
+                    || row.getStartTime().getSecond() != 0
+                    || lengthMinutes <= 0
+                    || (slotMinutes != 0 && lengthMinutes != slotMinutes)) {
+                return null;
+            }
+            slotMinutes = lengthMinutes;
+
+            if (!dayRows.isEmpty() && !dayRows.get(0).getSlotDate().equals(row.getSlotDate())) {
+                days[dayRows.get(0).getSlotDate().getDayOfMonth() - 1] = DayCalendar.of(dayRows);
+                dayRows = new ArrayList<>();
+            }
+            dayRows.add(row);
+        }
+        if (!dayRows.isEmpty()) {
+            days[dayRows.get(0).getSlotDate().getDayOfMonth() - 1] = DayCalendar.of(dayRows);
+        }
+
+        return new MonthCalendar(month, slotMinutes, days);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Calendar of a date in this month, or null when it has no slots
+     */
+    public DayCalendar day(LocalDate date) {
+        return days[date.getDayOfMonth() - 1];
+    }
+}
@@ -0,0 +1,215 @@
+package com.testing.traningproject.service.calendar;
+
+import com.testing.traningproject.model.projection.SlotMonthFingerprintProjection;
+import com.testing.traningproject.model.projection.TimeSlotCalendarProjection;
+import com.testing.traningproject.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Slot Calendar Cache
+ * Caches bitset month calendars per (service, month) so slot reads do not load TimeSlot entities
+ * - Misses are loaded with one projection query for all missing services
+ * - Entries expire after a TTL and are evicted once a slot change of the service commits
+ * - Eviction is in-process only, so an entry older than revalidate-after-ms is checked against the month's
+ *   change fingerprint (slot count + version sum, one grouped query) before it is served - slot changes
+ *   made on other instances are seen after at most that long, without reloading unchanged months
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotCalendarCache {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    @Value("${timeslot.calendar.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${timeslot.calendar.revalidate-after-ms:2000}")
+    private long revalidateAfterMs;
+
+    @Value("${timeslot.calendar.max-entries:20000}")
+    private int maxEntries;
+
+    private final Map<CalendarKey, CachedMonth> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction - a load that raced with an eviction is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Month calendars covering [fromDate, toDate] for each service
+     * @return null when a month of any service cannot be encoded (caller uses the entity path)
+     */
+    public Map<Long, Map<YearMonth, MonthCalendar>> getCalendars(Collection<Long> serviceIds,
+                                                                 LocalDate fromDate,
+                                                                 LocalDate toDate) {
+        YearMonth firstMonth = YearMonth.from(fromDate);
+        YearMonth lastMonth = YearMonth.from(toDate);
+        long now = System.currentTimeMillis();
+
+        Map<Long, Map<YearMonth, MonthCalendar>> calendars = new HashMap<>();
+        Set<Long> missingServices = new LinkedHashSet<>();
+        Map<CalendarKey, CachedMonth> unvalidated = new HashMap<>();
+
+        for (Long serviceId : serviceIds) {
+            Map<YearMonth, MonthCalendar> months = new HashMap<>();
+            for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                CalendarKey key = new CalendarKey(serviceId, month);
+                CachedMonth cached = entries.get(key);
+                if (cached == null || cached.expiresAt < now) {
+                    missingServices.add(serviceId);
+                    break;
+                }
+                if (cached.calendar == null) {
+                    return null;
+                }
+                if (cached.validatedAt + revalidateAfterMs < now) {
+                    unvalidated.put(key, cached);
+                }
+                months.put(month, cached.calendar);
+            }
+            calendars.put(serviceId, months);
+        }
+
+        unvalidated.keySet().removeIf(key -> missingServices.contains(key.serviceId()));
+        if (!unvalidated.isEmpty()) {
+            missingServices.addAll(revalidate(unvalidated, firstMonth, lastMonth, now));
+        }
+
+        if (!missingServices.isEmpty() && !load(missingServices, firstMonth, lastMonth, calendars)) {
+            return null;
+        }
+        return calendars;
+    }
+
+    /**
+     * Drop all cached months of a service once its slot changes are committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeSlotsChanged(TimeSlotsChangedEvent event) {
+        evict(event.serviceId());
+    }
+
+    /**
+     * Compare cached months with the current fingerprints - matching ones are marked validated
+     * @return Services with a changed month (reloaded by the caller)
+     */
+    private Set<Long> revalidate(Map<CalendarKey, CachedMonth> cachedMonths, YearMonth firstMonth,
+                                 YearMonth lastMonth, long now) {
+        Set<Long> serviceIds = cachedMonths.keySet().stream().map(CalendarKey::serviceId).collect(Collectors.toSet());
+        Map<CalendarKey, Fingerprint> current = timeSlotRepository
+                .findMonthFingerprintsByServiceIdInAndSlotDateBetween(
+                        serviceIds, firstMonth.atDay(1), lastMonth.atEndOfMonth())
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> new CalendarKey(row.getServiceId(), YearMonth.of(row.getSlotYear(), row.getSlotMonth())),
+                        Fingerprint::of));
+
+        Set<Long> changedServices = new LinkedHashSet<>();
+        cachedMonths.forEach((key, cached) -> {
+            if (cached.fingerprint.equals(current.getOrDefault(key, Fingerprint.EMPTY))) {
+                entries.replace(key, cached, cached.validated(now));
+            } else {
+                changedServices.add(key.serviceId());
+            }
+        });
+
+        if (!changedServices.isEmpty()) {
+            log.debug("Slot calendars of {} services changed on another instance - reloading", changedServices.size());
+        }
+        return changedServices;
+    }
+
+    public void evict(Long serviceId) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.serviceId().equals(serviceId));
+    }
+
+    private boolean load(Set<Long> serviceIds, YearMonth firstMonth, YearMonth lastMonth,
+                         Map<Long, Map<YearMonth, MonthCalendar>> calendars) {
+        long loadGeneration = generation.get();
+
+        Map<Long, List<TimeSlotCalendarProjection>> rowsByService = timeSlotRepository
+                .findCalendarRowsByServiceIdInAndSlotDateBetween(
+                        serviceIds, firstMonth.atDay(1), lastMonth.atEndOfMonth())
+                .stream()
+                .collect(Collectors.groupingBy(TimeSlotCalendarProjection::getServiceId));
+
+        long loadedAt = System.currentTimeMillis();
+        long expiresAt = loadedAt + ttlSeconds * 1000;
+        Map<CalendarKey, CachedMonth> loaded = new HashMap<>();
+        boolean encodable = true;
+
+        for (Long serviceId : serviceIds) {
+            Map<YearMonth, List<TimeSlotCalendarProjection>> rowsByMonth =
+                    rowsByService.getOrDefault(serviceId, List.of()).stream()
+                            .collect(Collectors.groupingBy(row -> YearMonth.from(row.getSlotDate())));
+
+            Map<YearMonth, MonthCalendar> months = new HashMap<>();
+            for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                List<TimeSlotCalendarProjection> rows = rowsByMonth.getOrDefault(month, List.of());
+                MonthCalendar calendar = MonthCalendar.of(month, rows);
+                loaded.put(new CalendarKey(serviceId, month),
+                        new CachedMonth(calendar, Fingerprint.of(rows), expiresAt, loadedAt));
+                encodable &= calendar != null;
+                months.put(month, calendar);
+            }
+            calendars.put(serviceId, months);
+        }
+
+        if (generation.get() == loadGeneration) {
+            if (entries.size() + loaded.size() > maxEntries) {
+                long now = System.currentTimeMillis();
+                entries.values().removeIf(cached -> cached.expiresAt < now);
+                if (entries.size() + loaded.size() > maxEntries) {
+                    entries.clear();
+                }
+            }
+            entries.putAll(loaded);
+        }
+
+        log.debug("Slot calendars loaded for {} services ({} to {})", serviceIds.size(), firstMonth, lastMonth);
+        return encodable;
+    }
+
+    private record CalendarKey(Long serviceId, YearMonth month) {
+    }
+
+    private record CachedMonth(MonthCalendar calendar, Fingerprint fingerprint, long expiresAt, long validatedAt) {
+
+        CachedMonth validated(long now) {
+            return new CachedMonth(calendar, fingerprint, expiresAt, now);
+        }
+    }
+
+    /**
+     * Slot count and version sum of a month - changes with every slot insert, update or delete
+     */
+    private record Fingerprint(long slotCount, long versionSum) {
+
+        static final Fingerprint EMPTY = new Fingerprint(0, 0);
+
+        static Fingerprint of(SlotMonthFingerprintProjection row) {
+            return new Fingerprint(row.getSlotCount(), row.getVersionSum() != null ? row.getVersionSum() : 0);
+        }
+
+        static Fingerprint of(List<TimeSlotCalendarProjection> rows) {
+            return new Fingerprint(rows.size(), rows.stream().mapToLong(TimeSlotCalendarProjection::getVersion).sum());
+        }
+    }
+}
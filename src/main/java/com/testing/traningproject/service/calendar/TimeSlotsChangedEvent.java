@@ -0,0 +1,8 @@
+package com.testing.traningproject.service.calendar;
+
+/**
+ * Published when time slots of a service are created, deleted or change status
+ * Cached calendars of that service are evicted once the transaction commits
+ */
+public record TimeSlotsChangedEvent(Long serviceId) {
+}
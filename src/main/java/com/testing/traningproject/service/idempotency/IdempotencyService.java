@@ -0,0 +1,263 @@
+package com.testing.traningproject.service.idempotency;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.exception.DuplicateResourceException;
+import com.testing.traningproject.exception.ForbiddenException;
+import com.testing.traningproject.exception.ResourceNotFoundException;
+import com.testing.traningproject.exception.UnauthorizedException;
+import com.testing.traningproject.model.entity.IdempotencyRecord;
+import com.testing.traningproject.model.enums.IdempotencyStatus;
+import com.testing.traningproject.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency Service
+ * Runs a write request at most once per (user, endpoint, Idempotency-Key)
+ * - Completed responses are kept in a bounded in-memory LRU in front of the idempotency_record table
+ * - A retry with the same key returns the stored response without touching the gateway or writing anything
+ * - The key is claimed with one INSERT ... ON CONFLICT before the request runs, so two concurrent retries
+ *   cannot both run; the loser gets 409 while the first one is in progress
+ * - Requests rejected before any payment (4xx) release the key, so the client may fix and retry them
+ * - Any other failure (gateway timeout, 503, 500) may come after the charge went through - the key is
+ *   recorded as FAILED and never runs again; the client checks its bookings and retries with a new key
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.in-progress-timeout-seconds:600}")
+    private long inProgressTimeoutSeconds;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private int maxCacheEntries;
+
+    // Access-ordered LRU of completed responses
+    private final Map<CacheKey, CachedResponse> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> eldest) {
+            return size() > maxCacheEntries;
+        }
+    };
+
+    /**
+     * Run the action once for the key, or return the response stored by an earlier run
+     * @param idempotencyKey Idempotency-Key header - the action simply runs when it is absent
+     * @param request Request body (hashed to detect a key reused for a different request)
+     */
+    public <T> T execute(Long userId, String endpoint, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        CacheKey cacheKey = new CacheKey(userId, endpoint, idempotencyKey);
+        String requestHash = hashRequest(idempotencyKey, request);
+        T replayed = replayOrClaim(cacheKey, requestHash, responseType);
+        if (replayed != null) {
+            return replayed;
+        }
+
+        // First run - store the response, or release the key if the request failed
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            fail(cacheKey, e);
+            throw e;
+        }
+
+        complete(cacheKey, requestHash, response);
+        return response;
+    }
+
+    /**
+     * Same as execute for actions that complete asynchronously (e.g., after a non-blocking gateway call)
+     * The key stays IN_PROGRESS until the future completes; it is completed or released from its callback
+     */
+    public <T> CompletableFuture<T> executeAsync(Long userId, String endpoint, String idempotencyKey, Object request,
+                                                 Class<T> responseType, Supplier<CompletableFuture<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        CacheKey cacheKey = new CacheKey(userId, endpoint, idempotencyKey);
+        String requestHash = hashRequest(idempotencyKey, request);
+        T replayed = replayOrClaim(cacheKey, requestHash, responseType);
+        if (replayed != null) {
+            return CompletableFuture.completedFuture(replayed);
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = action.get();
+        } catch (RuntimeException e) {
+            fail(cacheKey, e);
+            throw e;
+        }
+
+        return future.whenComplete((response, failure) -> {
+            if (failure != null) {
+                fail(cacheKey, failure);
+            } else {
+                complete(cacheKey, requestHash, response);
+            }
+        });
+    }
+
+    private String hashRequest(String idempotencyKey, Object request) {
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        return hash(jsonMapper.writeValueAsString(request));
+    }
+
+    /**
+     * Stored response for the key, or null when this request claimed the key and has to run
+     */
+    private <T> T replayOrClaim(CacheKey cacheKey, String requestHash, Class<T> responseType) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. In-memory hit
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(cacheKey);
+        }
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        // 2. Claim the key - if someone else owns it, replay the stored response
+        Integer claimed = transactionTemplate.execute(status -> idempotencyRecordRepository.claim(
+                cacheKey.userId(), cacheKey.endpoint(), cacheKey.idempotencyKey(), requestHash, now,
+                now.plusHours(ttlHours), now.minusSeconds(inProgressTimeoutSeconds)));
+
+        if (claimed == null || claimed == 0) {
+            IdempotencyRecord record = idempotencyRecordRepository
+                    .findByUserIdAndEndpointAndIdempotencyKey(cacheKey.userId(), cacheKey.endpoint(), cacheKey.idempotencyKey())
+                    .orElseThrow(() -> new DuplicateResourceException(
+                            "A request with this Idempotency-Key is still being processed"));
+
+            if (record.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+            }
+            if (record.getStatus() == IdempotencyStatus.FAILED) {
+                throw new DuplicateResourceException("A request with this Idempotency-Key failed and the payment may "
+                        + "have gone through (" + record.getResponseBody() + ") - check your bookings before retrying with a new key");
+            }
+
+            CachedResponse stored = new CachedResponse(record.getRequestHash(), record.getResponseBody(), record.getExpiresAt());
+            remember(cacheKey, stored);
+            return replay(stored, requestHash, responseType);
+        }
+
+        return null;
+    }
+
+    private void complete(CacheKey cacheKey, String requestHash, Object response) {
+        String responseBody = jsonMapper.writeValueAsString(response);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.complete(
+                cacheKey.userId(), cacheKey.endpoint(), cacheKey.idempotencyKey(), responseBody));
+        remember(cacheKey, new CachedResponse(requestHash, responseBody, LocalDateTime.now().plusHours(ttlHours)));
+    }
+
+    /**
+     * Release the key when the request was rejected before any payment, otherwise record it as FAILED
+     */
+    private void fail(CacheKey cacheKey, Throwable failure) {
+        Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause() : failure;
+        if (isRejectedBeforePayment(cause)) {
+            release(cacheKey);
+            return;
+        }
+
+        String error = (cause.getMessage() != null) ? cause.getMessage() : cause.getClass().getSimpleName();
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.fail(
+                cacheKey.userId(), cacheKey.endpoint(), cacheKey.idempotencyKey(), error));
+        log.warn("Idempotency-Key kept as FAILED after an ambiguous failure: {}", error);
+    }
+
+    /**
+     * 4xx outcomes - validation, missing / taken resources, declined payments - nothing was charged
+     */
+    private static boolean isRejectedBeforePayment(Throwable cause) {
+        return cause instanceof BadRequestException
+                || cause instanceof ResourceNotFoundException
+                || cause instanceof DuplicateResourceException
+                || cause instanceof ForbiddenException
+                || cause instanceof UnauthorizedException
+                || cause instanceof OptimisticLockingFailureException;
+    }
+
+    private void release(CacheKey cacheKey) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(
+                cacheKey.userId(), cacheKey.endpoint(), cacheKey.idempotencyKey()));
+    }
+
+    /**
+     * Delete expired records (hourly)
+     */
+    @Scheduled(cron = "${idempotency.purge.cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Purged {} expired idempotency records", deleted);
+    }
+
+    private <T> T replay(CachedResponse cached, String requestHash, Class<T> responseType) {
+        if (!cached.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+        log.info("Replaying stored response for repeated Idempotency-Key");
+        return jsonMapper.readValue(cached.responseBody(), responseType);
+    }
+
+    private void remember(CacheKey key, CachedResponse response) {
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CacheKey(Long userId, String endpoint, String idempotencyKey) {
+    }
+
+    private record CachedResponse(String requestHash, String responseBody, LocalDateTime expiresAt) {
+    }
+}
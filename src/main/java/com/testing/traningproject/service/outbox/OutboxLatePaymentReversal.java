@@ -0,0 +1,35 @@
+package com.testing.traningproject.service.outbox;
+
+import com.testing.traningproject.model.enums.PaymentGateway;
+import com.testing.traningproject.service.payment.LatePaymentReversal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Late Payment Reversal through the outbox
+ * Queues a PAYMENT_REVERSAL in its own transaction, so the relay retries the refund until the gateway accepts it
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxLatePaymentReversal implements LatePaymentReversal {
+
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void reverse(Long customerId, PaymentGateway paymentGateway, String paymentTransactionId, BigDecimal amount) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxService.enqueuePaymentReversal(customerId,
+                    paymentGateway, paymentTransactionId, amount, "payment completed after the request timed out"));
+            log.warn("Payment completed after timeout queued for reversal - Gateway TXN ID: {}", paymentTransactionId);
+        } catch (RuntimeException e) {
+            log.error("Payment completed after timeout could not be queued for reversal - Gateway TXN ID: {} - " +
+                    "Customer ID: {} - Amount: {}: {}", paymentTransactionId, customerId, amount, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package com.testing.traningproject.service.outbox;
+
+import com.testing.traningproject.exception.ResourceNotFoundException;
+import com.testing.traningproject.model.entity.Booking;
+import com.testing.traningproject.model.entity.OutboxEvent;
+import com.testing.traningproject.model.entity.Refund;
+import com.testing.traningproject.model.entity.Transaction;
+import com.testing.traningproject.model.entity.User;
+import com.testing.traningproject.model.enums.NotificationType;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import com.testing.traningproject.model.enums.RefundStatus;
+import com.testing.traningproject.model.enums.TransactionStatus;
+import com.testing.traningproject.model.enums.TransactionType;
+import com.testing.traningproject.repository.BookingRepository;
+import com.testing.traningproject.repository.OutboxEventRepository;
+import com.testing.traningproject.repository.RefundRepository;
+import com.testing.traningproject.repository.TransactionRepository;
+import com.testing.traningproject.repository.UserRepository;
+import com.testing.traningproject.service.payment.AsyncPaymentStrategy;
+import com.testing.traningproject.service.payment.PaymentStrategyFactory;
+import com.testing.traningproject.service.payment.RefundItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox Payment Handler
+ * Dispatches PAYOUT, BATCH_PAYOUT, REFUND, BATCH_REFUND and PAYMENT_REVERSAL outbox events
+ * - Short transaction: load what the gateway needs (skip if an earlier attempt already committed)
+ * - Gateway call outside any transaction
+ * - Short transaction: record the transaction, queue the notification and mark the event processed
+ * A gateway failure (or bulkhead rejection / timeout) propagates to OutboxRelay, which reschedules the event
+ * The event's lease is renewed before every gateway call and the call is bounded by the gateway client timeout
+ * (below the lease), so no other relay re-claims an event while its call runs; completing is fenced by the claim
+ * Payouts and refunds go through the gateway stored on the booking (the one the customer paid with)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPaymentHandler {
+
+    private final BookingRepository bookingRepository;
+    private final RefundRepository refundRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final PaymentStrategyFactory paymentStrategyFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.lease-seconds:300}")
+    private long leaseSeconds;
+
+    /**
+     * Pay the provider of a completed booking
+     */
+    public void handlePayout(OutboxEvent event) {
+        OutboxService.PayoutPayload payload = outboxService.readPayload(event, OutboxService.PayoutPayload.class);
+
+        PayoutCall call = transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(payload.bookingId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+
+            // An earlier attempt already recorded the payout
+            if (transactionRepository.findByBookingIdAndTransactionType(booking.getId(), TransactionType.PAYOUT) != null) {
+                return null;
+            }
+
+            return new PayoutCall(booking.getTotalPrice(), booking.getService().getProvider().getEmail(),
+                    booking.getService().getTitle(), booking.getPaymentGateway());
+        });
+
+        if (call == null) {
+            markProcessed(event);
+            return;
+        }
+
+        // Process PAYOUT via Strategy Pattern - no transaction open
+        renewLease(event);
+        AsyncPaymentStrategy paymentStrategy = paymentStrategyFactory.getAsyncStrategy(call.paymentGateway());
+        String payoutId = AsyncPaymentStrategy.await(paymentStrategy.processPayout(
+                call.amount(),
+                call.providerEmail(),
+                "Payout for completed booking: " + call.serviceTitle()
+        ));
+        log.info("Payout processed successfully via {} - Payout ID: {} for provider: {}",
+                paymentStrategy.getPaymentMethodName(), payoutId, call.providerEmail());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Booking booking = bookingRepository.findById(payload.bookingId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+            User provider = booking.getService().getProvider();
+
+            Transaction payout = Transaction.builder()
+                    .user(provider)
+                    .booking(booking)
+                    .transactionType(TransactionType.PAYOUT)
+                    .amount(call.amount())
+                    .paymentMethod("Platform Payout via " + paymentStrategy.getPaymentMethodName())
+                    .paymentGateway(call.paymentGateway())
+                    .status(TransactionStatus.SUCCESS)
+                    .paymentGatewayTransactionId(payoutId)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            transactionRepository.save(payout);
+            log.info("PAYOUT transaction created with ID: {} - Amount: {} for provider ID: {}",
+                    payout.getId(), payout.getAmount(), provider.getId());
+
+            // Send notification to provider about payout
+            outboxService.enqueueNotification(
+                provider,
+                NotificationType.PAYMENT_SUCCESS,
+                "Payout Processed 💰",
+                "Payment of $" + payout.getAmount() + " for booking #" + booking.getId() +
+                " ('" + booking.getService().getTitle() + "') has been processed and will be transferred to your account."
+            );
+
+            complete(event);
+        });
+    }
+
+    /**
+     * Pay a provider for many completed bookings with one gateway payout per payment gateway
+     * Each booking still gets its own PAYOUT transaction (same gateway payout ID), inserted with one JDBC batch
+     * Bookings paid out by an earlier attempt are skipped, so a retry after a partial failure pays only the rest
+     */
+    public void handleBatchPayout(OutboxEvent event) {
+        OutboxService.BatchPayoutPayload payload =
+                outboxService.readPayload(event, OutboxService.BatchPayoutPayload.class);
+
+        List<BatchPayoutCall> calls = transactionTemplate.execute(status -> {
+            Set<Long> paidBookingIds = transactionRepository
+                    .findByBookingIdInAndTransactionType(payload.bookingIds(), TransactionType.PAYOUT).stream()
+                    .map(transaction -> transaction.getBooking().getId())
+                    .collect(Collectors.toSet());
+
+            List<Long> unpaidBookingIds = payload.bookingIds().stream()
+                    .filter(bookingId -> !paidBookingIds.contains(bookingId))
+                    .toList();
+            if (unpaidBookingIds.isEmpty()) {
+                return List.of();
+            }
+
+            String providerEmail = userRepository.findById(payload.providerId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Provider not found"))
+                    .getEmail();
+
+            // One payout per gateway the customers paid with
+            Map<PaymentGateway, Map<Long, BigDecimal>> amountsByGateway = new EnumMap<>(PaymentGateway.class);
+            for (Booking booking : bookingRepository.findAllById(unpaidBookingIds)) {
+                amountsByGateway
+                        .computeIfAbsent(booking.getPaymentGateway(), gateway -> new LinkedHashMap<>())
+                        .put(booking.getId(), booking.getTotalPrice());
+            }
+
+            return amountsByGateway.entrySet().stream()
+                    .map(entry -> new BatchPayoutCall(entry.getKey(), providerEmail, entry.getValue()))
+                    .toList();
+        });
+
+        for (BatchPayoutCall call : calls) {
+            BigDecimal total = call.total();
+
+            // Process PAYOUT via Strategy Pattern - no transaction open
+            renewLease(event);
+            AsyncPaymentStrategy paymentStrategy = paymentStrategyFactory.getAsyncStrategy(call.paymentGateway());
+            String payoutId = AsyncPaymentStrategy.await(paymentStrategy.processPayout(
+                    total,
+                    call.providerEmail(),
+                    "Payout for " + call.amounts().size() + " completed bookings"
+            ));
+            log.info("Batch payout processed successfully via {} - Payout ID: {} - {} bookings - Amount: {}",
+                    paymentStrategy.getPaymentMethodName(), payoutId, call.amounts().size(), total);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                User provider = userRepository.getReferenceById(payload.providerId());
+
+                List<Transaction> payouts = call.amounts().entrySet().stream()
+                        .map(entry -> Transaction.builder()
+                                .user(provider)
+                                .booking(bookingRepository.getReferenceById(entry.getKey()))
+                                .transactionType(TransactionType.PAYOUT)
+                                .amount(entry.getValue())
+                                .paymentMethod("Platform Payout via " + paymentStrategy.getPaymentMethodName())
+                                .paymentGateway(call.paymentGateway())
+                                .status(TransactionStatus.SUCCESS)
+                                .paymentGatewayTransactionId(payoutId)
+                                .build())
+                        .toList();
+
+                transactionRepository.insertAll(payouts);
+                log.info("{} PAYOUT transactions created for provider ID: {}", payouts.size(), payload.providerId());
+
+                // Send notification to provider about payout
+                outboxService.enqueueNotification(
+                    provider,
+                    NotificationType.PAYMENT_SUCCESS,
+                    "Payout Processed 💰",
+                    "Payment of $" + total + " for " + payouts.size() + " completed bookings " +
+                    "has been processed and will be transferred to your account."
+                );
+            });
+        }
+
+        markProcessed(event);
+    }
+
+    /**
+     * Return an approved refund to the customer's original payment method
+     */
+    public void handleRefund(OutboxEvent event) {
+        OutboxService.RefundPayload payload = outboxService.readPayload(event, OutboxService.RefundPayload.class);
+
+        RefundCall call = transactionTemplate.execute(status -> {
+            Refund refund = refundRepository.findById(payload.refundId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Refund not found"));
+
+            // Already completed by an earlier attempt (or no longer approved)
+            if (refund.getStatus() != RefundStatus.APPROVED) {
+                return null;
+            }
+
+            Transaction originalTransaction = transactionRepository.findByBookingIdAndTransactionType(
+                    refund.getBooking().getId(), TransactionType.BOOKING_PAYMENT);
+
+            return new RefundCall(refund.getRefundAmount(),
+                    originalTransaction != null ? originalTransaction.getPaymentGatewayTransactionId() : "N/A",
+                    refund.getBooking().getPaymentGateway());
+        });
+
+        if (call == null) {
+            markProcessed(event);
+            return;
+        }
+
+        // Process REFUND via Strategy Pattern - no transaction open
+        renewLease(event);
+        AsyncPaymentStrategy paymentStrategy = paymentStrategyFactory.getAsyncStrategy(call.paymentGateway());
+        String refundTransactionId = AsyncPaymentStrategy.await(
+                paymentStrategy.processRefund(call.originalTransactionId(), call.amount()));
+        log.info("Refund processed successfully via {} - Refund ID: {}",
+                paymentStrategy.getPaymentMethodName(), refundTransactionId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Locked and re-checked - a refund completed meanwhile is not recorded twice
+            List<Refund> approved = refundRepository.findApprovedByIdInForUpdate(List.of(payload.refundId()));
+            if (approved.isEmpty()) {
+                log.error("Refund ID: {} was settled meanwhile - gateway refund {} not recorded, reconcile it",
+                        payload.refundId(), refundTransactionId);
+                complete(event);
+                return;
+            }
+            Refund refund = approved.get(0);
+            Booking booking = refund.getBooking();
+
+            Transaction refundTransaction = Transaction.builder()
+                    .user(booking.getCustomer())
+                    .booking(booking)
+                    .transactionType(TransactionType.REFUND)
+                    .amount(call.amount())
+                    .paymentMethod("Refund to original payment method")
+                    .paymentGateway(call.paymentGateway())
+                    .status(TransactionStatus.SUCCESS)
+                    .paymentGatewayTransactionId(refundTransactionId)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            transactionRepository.save(refundTransaction);
+            log.info("REFUND transaction created with ID: {} - Amount: {}", refundTransaction.getId(), call.amount());
+
+            // Update refund with transaction ID
+            refund.setTransaction(refundTransaction);
+            refund.setStatus(RefundStatus.COMPLETED);
+            refund.setUpdatedAt(LocalDateTime.now());
+            refundRepository.save(refund);
+            log.info("Refund ID: {} marked as COMPLETED", refund.getId());
+
+            // Send REFUND_APPROVED notification to customer
+            outboxService.enqueueNotification(
+                booking.getCustomer(),
+                NotificationType.REFUND_APPROVED,
+                "Refund Approved ✅",
+                "Your refund of $" + call.amount() + " for booking #" + booking.getId() +
+                " has been approved and returned to your original payment method."
+            );
+
+            complete(event);
+        });
+    }
+
+    /**
+     * Settle many approved refunds with one gateway batch refund per payment gateway
+     * REFUND transactions are inserted with one JDBC batch and the refunds completed with one UPDATE
+     * Refunds completed by an earlier attempt are skipped, so a retry after a partial failure settles only the rest
+     */
+    public void handleBatchRefund(OutboxEvent event) {
+        OutboxService.BatchRefundPayload payload =
+                outboxService.readPayload(event, OutboxService.BatchRefundPayload.class);
+
+        List<BatchRefundCall> calls = transactionTemplate.execute(status -> {
+            List<Refund> refunds = refundRepository.findApprovedWithBookingByIdIn(payload.refundIds());
+            if (refunds.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, String> paymentIdsByBooking = transactionRepository
+                    .findByBookingIdInAndTransactionType(
+                            refunds.stream().map(refund -> refund.getBooking().getId()).toList(),
+                            TransactionType.BOOKING_PAYMENT).stream()
+                    .filter(transaction -> transaction.getPaymentGatewayTransactionId() != null)
+                    .collect(Collectors.toMap(transaction -> transaction.getBooking().getId(),
+                            Transaction::getPaymentGatewayTransactionId,
+                            (first, second) -> first));
+
+            // One batch refund per gateway the customers paid with
+            Map<PaymentGateway, List<RefundLine>> linesByGateway = new EnumMap<>(PaymentGateway.class);
+            for (Refund refund : refunds) {
+                Booking booking = refund.getBooking();
+                linesByGateway
+                        .computeIfAbsent(booking.getPaymentGateway(), gateway -> new ArrayList<>())
+                        .add(new RefundLine(refund.getId(), booking.getId(), booking.getCustomer().getId(),
+                                refund.getRefundAmount(), paymentIdsByBooking.getOrDefault(booking.getId(), "N/A")));
+            }
+
+            return linesByGateway.entrySet().stream()
+                    .map(entry -> new BatchRefundCall(entry.getKey(), entry.getValue()))
+                    .toList();
+        });
+
+        for (BatchRefundCall call : calls) {
+            // Process REFUNDs via Strategy Pattern - one gateway request, no transaction open
+            renewLease(event);
+            AsyncPaymentStrategy paymentStrategy = paymentStrategyFactory.getAsyncStrategy(call.paymentGateway());
+            List<String> refundTransactionIds = AsyncPaymentStrategy.await(paymentStrategy.processBatchRefund(
+                    call.lines().stream()
+                            .map(line -> new RefundItem(line.originalTransactionId(), line.amount()))
+                            .toList()));
+            log.info("Batch refund processed successfully via {} - {} refunds",
+                    paymentStrategy.getPaymentMethodName(), refundTransactionIds.size());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Locked and re-checked - refunds completed meanwhile are not recorded twice
+                Set<Long> approvedIds = refundRepository.findApprovedByIdInForUpdate(
+                                call.lines().stream().map(RefundLine::refundId).toList()).stream()
+                        .map(Refund::getId)
+                        .collect(Collectors.toSet());
+
+                List<RefundLine> settledLines = new ArrayList<>(call.lines().size());
+                List<Transaction> refundTransactions = new ArrayList<>(call.lines().size());
+                for (int i = 0; i < call.lines().size(); i++) {
+                    RefundLine line = call.lines().get(i);
+                    if (!approvedIds.contains(line.refundId())) {
+                        log.error("Refund ID: {} was settled meanwhile - gateway refund {} not recorded, reconcile it",
+                                line.refundId(), refundTransactionIds.get(i));
+                        continue;
+                    }
+                    settledLines.add(line);
+                    refundTransactions.add(Transaction.builder()
+                            .user(userRepository.getReferenceById(line.customerId()))
+                            .booking(bookingRepository.getReferenceById(line.bookingId()))
+                            .transactionType(TransactionType.REFUND)
+                            .amount(line.amount())
+                            .paymentMethod("Refund to original payment method")
+                            .paymentGateway(call.paymentGateway())
+                            .status(TransactionStatus.SUCCESS)
+                            .paymentGatewayTransactionId(refundTransactionIds.get(i))
+                            .build());
+                }
+
+                if (settledLines.isEmpty()) {
+                    return;
+                }
+
+                transactionRepository.insertAll(refundTransactions);
+                int completed = refundRepository.completeSettled(
+                        settledLines.stream().map(RefundLine::refundId).toList(), LocalDateTime.now());
+                log.info("{} REFUND transactions created, {} refunds marked as COMPLETED",
+                        refundTransactions.size(), completed);
+
+                // Send REFUND_APPROVED notification to every customer
+                for (RefundLine line : settledLines) {
+                    outboxService.enqueueNotification(
+                        userRepository.getReferenceById(line.customerId()),
+                        NotificationType.REFUND_APPROVED,
+                        "Refund Approved ✅",
+                        "Your refund of $" + line.amount() + " for booking #" + line.bookingId() +
+                        " has been approved and returned to your original payment method."
+                    );
+                }
+            });
+        }
+
+        markProcessed(event);
+    }
+
+    /**
+     * Give back a captured payment whose bookings were discarded (hold expired while paying)
+     * There is no booking or refund row - the REFUND transaction is recorded for the customer only
+     */
+    public void handlePaymentReversal(OutboxEvent event) {
+        OutboxService.PaymentReversalPayload payload =
+                outboxService.readPayload(event, OutboxService.PaymentReversalPayload.class);
+
+        // Process REFUND via Strategy Pattern - no transaction open
+        renewLease(event);
+        AsyncPaymentStrategy paymentStrategy = paymentStrategyFactory.getAsyncStrategy(payload.paymentGateway());
+        String refundTransactionId = AsyncPaymentStrategy.await(
+                paymentStrategy.processRefund(payload.paymentTransactionId(), payload.amount()));
+        log.info("Refund after {} processed via {} - Gateway TXN ID: {} - Refund ID: {}", payload.reason(),
+                paymentStrategy.getPaymentMethodName(), payload.paymentTransactionId(), refundTransactionId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User customer = userRepository.getReferenceById(payload.customerId());
+
+            Transaction refundTransaction = Transaction.builder()
+                    .user(customer)
+                    .transactionType(TransactionType.REFUND)
+                    .amount(payload.amount())
+                    .paymentMethod("Refund to original payment method")
+                    .paymentGateway(payload.paymentGateway())
+                    .status(TransactionStatus.SUCCESS)
+                    .paymentGatewayTransactionId(refundTransactionId)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            transactionRepository.save(refundTransaction);
+            log.info("REFUND transaction created with ID: {} - Amount: {}", refundTransaction.getId(), payload.amount());
+
+            // Send REFUND_APPROVED notification to customer
+            outboxService.enqueueNotification(
+                customer,
+                NotificationType.REFUND_APPROVED,
+                "Payment Refunded",
+                "Your payment could not be applied (" + payload.reason() + "). " +
+                "The payment of $" + payload.amount() + " has been returned to your original payment method."
+            );
+
+            complete(event);
+        });
+    }
+
+    private void markProcessed(OutboxEvent event) {
+        transactionTemplate.executeWithoutResult(status -> complete(event));
+    }
+
+    /**
+     * Extend the event's lease before a gateway call
+     * @throws IllegalStateException when another relay re-claimed the event (its call must not run twice)
+     */
+    private void renewLease(OutboxEvent event) {
+        Integer renewed = transactionTemplate.execute(status -> outboxEventRepository.renewLease(
+                event.getId(), event.getAttempts(), LocalDateTime.now().plusSeconds(leaseSeconds)));
+        if (renewed == null || renewed == 0) {
+            throw new IllegalStateException("Outbox event ID: " + event.getId() + " was re-claimed by another relay");
+        }
+    }
+
+    /**
+     * Mark the event processed in the current transaction
+     * @throws IllegalStateException when another relay re-claimed the event - rolls the completion back
+     */
+    private void complete(OutboxEvent event) {
+        if (outboxEventRepository.markProcessed(event.getId(), event.getAttempts(), LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Outbox event ID: " + event.getId() + " was re-claimed by another relay");
+        }
+    }
+
+    private record PayoutCall(BigDecimal amount, String providerEmail, String serviceTitle, PaymentGateway paymentGateway) {
+    }
+
+    private record BatchPayoutCall(PaymentGateway paymentGateway, String providerEmail, Map<Long, BigDecimal> amounts) {
+
+        BigDecimal total() {
+            return amounts.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    private record RefundCall(BigDecimal amount, String originalTransactionId, PaymentGateway paymentGateway) {
+    }
+
+    private record RefundLine(Long refundId, Long bookingId, Long customerId, BigDecimal amount,
+                              String originalTransactionId) {
+    }
+
+    private record BatchRefundCall(PaymentGateway paymentGateway, List<RefundLine> lines) {
+    }
+}
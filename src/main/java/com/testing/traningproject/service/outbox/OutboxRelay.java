@@ -0,0 +1,185 @@
+package com.testing.traningproject.service.outbox;
+
+import com.testing.traningproject.model.entity.Notification;
+import com.testing.traningproject.model.entity.OutboxEvent;
+import com.testing.traningproject.model.enums.OutboxEventType;
+import com.testing.traningproject.repository.NotificationRepository;
+import com.testing.traningproject.repository.OutboxEventRepository;
+import com.testing.traningproject.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox Relay
+ * Background dispatcher of outbox events
+ * - Claims due events in batches (FOR UPDATE SKIP LOCKED + lease), so relays on several instances never overlap
+ * - Notifications of a batch are inserted with one JDBC batch
+ * - Payouts and refunds go to the payment gateway event by event (OutboxPaymentHandler), which renews the
+ *   event's lease before every gateway call - a batch never outlives the lease of its last events
+ * - The claim's attempts count is a fencing token: a relay whose event was re-claimed cannot complete,
+ *   reschedule or fail it anymore
+ * - Failures are retried with exponential backoff and marked FAILED after outbox.max-attempts
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final OutboxPaymentHandler paymentHandler;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-backoff-seconds:15}")
+    private long retryBackoffSeconds;
+
+    @Value("${outbox.retention-days:7}")
+    private long retentionDays;
+
+    /**
+     * Dispatch due events until the queue is drained
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:2000}")
+    public void relay() {
+        List<OutboxEvent> events;
+        do {
+            events = transactionTemplate.execute(status -> claimBatch());
+            dispatch(events);
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * Delete dispatched events older than outbox.retention-days
+     */
+    @Scheduled(cron = "${outbox.purge.cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteProcessedBefore(cutoff));
+        log.info("Purged {} processed outbox events older than {}", deleted, cutoff);
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> ids = outboxEventRepository.lockDueEventIds(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        outboxEventRepository.claim(ids, now.plusSeconds(leaseSeconds));
+        return outboxEventRepository.findByIdInOrderByIdAsc(ids);
+    }
+
+    private void dispatch(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<OutboxEvent> notifications = events.stream()
+                .filter(event -> event.getEventType() == OutboxEventType.NOTIFICATION)
+                .toList();
+        dispatchNotifications(notifications);
+
+        for (OutboxEvent event : events) {
+            try {
+                switch (event.getEventType()) {
+                    case PAYOUT -> paymentHandler.handlePayout(event);
+                    case BATCH_PAYOUT -> paymentHandler.handleBatchPayout(event);
+                    case REFUND -> paymentHandler.handleRefund(event);
+                    case BATCH_REFUND -> paymentHandler.handleBatchRefund(event);
+                    case PAYMENT_REVERSAL -> paymentHandler.handlePaymentReversal(event);
+                    case NOTIFICATION -> { }
+                }
+            } catch (Exception e) {
+                fail(event, e);
+            }
+        }
+
+        log.debug("Outbox relay dispatched {} events ({} notifications)", events.size(), notifications.size());
+    }
+
+    private void dispatchNotifications(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertNotifications(events));
+        } catch (Exception e) {
+            // One bad event fails the whole batch - retry one by one so only the bad one is rescheduled
+            log.warn("Notification batch of {} events failed, retrying individually: {}", events.size(), e.getMessage());
+            for (OutboxEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertNotifications(List.of(event)));
+                } catch (Exception eventFailure) {
+                    fail(event, eventFailure);
+                }
+            }
+        }
+    }
+
+    private void insertNotifications(List<OutboxEvent> events) {
+        List<Notification> notifications = events.stream()
+                .map(event -> {
+                    OutboxService.NotificationPayload payload =
+                            outboxService.readPayload(event, OutboxService.NotificationPayload.class);
+                    return Notification.builder()
+                            .user(userRepository.getReferenceById(payload.userId()))
+                            .notificationType(payload.type())
+                            .title(payload.title())
+                            .message(payload.message())
+                            .createdAt(event.getCreatedAt())
+                            .build();
+                })
+                .toList();
+
+        notificationRepository.insertAll(notifications);
+        outboxEventRepository.markProcessed(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+    }
+
+    private void fail(OutboxEvent event, Exception e) {
+        String error = (e.getMessage() != null) ? e.getMessage() : e.getClass().getName();
+
+        if (event.getAttempts() >= maxAttempts) {
+            Integer failed = transactionTemplate.execute(status ->
+                    outboxEventRepository.markFailed(event.getId(), event.getAttempts(), error));
+            if (failed == null || failed == 0) {
+                log.warn("Outbox event ID: {} was re-claimed by another relay: {}", event.getId(), error);
+                return;
+            }
+            log.error("Outbox event ID: {} ({}) failed after {} attempts: {}",
+                    event.getId(), event.getEventType(), event.getAttempts(), error);
+            return;
+        }
+
+        // 15s, 30s, 60s, ... capped at 2^10 times the base
+        long backoffSeconds = retryBackoffSeconds << Math.min(event.getAttempts() - 1, 10);
+        LocalDateTime retryAt = LocalDateTime.now().plusSeconds(backoffSeconds);
+        Integer rescheduled = transactionTemplate.execute(status ->
+                outboxEventRepository.reschedule(event.getId(), event.getAttempts(), retryAt, error));
+        if (rescheduled == null || rescheduled == 0) {
+            log.warn("Outbox event ID: {} was re-claimed by another relay: {}", event.getId(), error);
+            return;
+        }
+        log.warn("Outbox event ID: {} ({}) attempt {} failed, retrying at {}: {}",
+                event.getId(), event.getEventType(), event.getAttempts(), retryAt, error);
+    }
+}
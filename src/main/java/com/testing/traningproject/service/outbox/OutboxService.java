@@ -0,0 +1,144 @@
+package com.testing.traningproject.service.outbox;
+
+import com.testing.traningproject.model.entity.Booking;
+import com.testing.traningproject.model.entity.OutboxEvent;
+import com.testing.traningproject.model.entity.Refund;
+import com.testing.traningproject.model.entity.User;
+import com.testing.traningproject.model.enums.NotificationType;
+import com.testing.traningproject.model.enums.OutboxEventType;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import com.testing.traningproject.repository.OutboxEventRepository;
+import com.testing.traningproject.service.support.TransactionBatchBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox Service
+ * Records side effects of a business transaction as outbox rows in that same transaction
+ * - They commit or roll back together with the business writes
+ * - Rows are collected in a TransactionBatchBuffer, so a booking batch costs one outbox insert round trip
+ * - OutboxRelay dispatches them afterwards in batches and retries failures independently
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Payload of a NOTIFICATION event
+     */
+    public record NotificationPayload(Long userId, NotificationType type, String title, String message) {
+    }
+
+    /**
+     * Payload of a PAYOUT event - provider is paid the booking total
+     */
+    public record PayoutPayload(Long bookingId) {
+    }
+
+    /**
+     * Payload of a BATCH_PAYOUT event - provider is paid the total of all bookings with one payout per gateway
+     */
+    public record BatchPayoutPayload(Long providerId, List<Long> bookingIds) {
+    }
+
+    /**
+     * Payload of a REFUND event - an APPROVED refund is sent to the gateway
+     */
+    public record RefundPayload(Long refundId) {
+    }
+
+    /**
+     * Payload of a BATCH_REFUND event - APPROVED refunds settled with one batch refund per gateway
+     */
+    public record BatchRefundPayload(List<Long> refundIds) {
+    }
+
+    /**
+     * Payload of a PAYMENT_REVERSAL event - a captured payment without a booking is given back
+     */
+    public record PaymentReversalPayload(Long customerId, PaymentGateway paymentGateway,
+                                         String paymentTransactionId, BigDecimal amount, String reason) {
+    }
+
+    /**
+     * Queue a notification for the user
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotification(User user, NotificationType type, String title, String message) {
+        enqueue(OutboxEventType.NOTIFICATION, user.getId(),
+                new NotificationPayload(user.getId(), type, title, message));
+    }
+
+    /**
+     * Queue the provider payout of a completed booking
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePayout(Booking booking) {
+        enqueue(OutboxEventType.PAYOUT, booking.getId(), new PayoutPayload(booking.getId()));
+    }
+
+    /**
+     * Queue one aggregated payout for completed bookings of a provider
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueBatchPayout(Long providerId, List<Long> bookingIds) {
+        enqueue(OutboxEventType.BATCH_PAYOUT, providerId, new BatchPayoutPayload(providerId, bookingIds));
+    }
+
+    /**
+     * Queue the gateway refund of an approved refund
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueRefund(Refund refund) {
+        enqueue(OutboxEventType.REFUND, refund.getId(), new RefundPayload(refund.getId()));
+    }
+
+    /**
+     * Queue the settlement of many approved refunds
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueBatchRefund(List<Long> refundIds) {
+        enqueue(OutboxEventType.BATCH_REFUND, refundIds.get(0), new BatchRefundPayload(refundIds));
+    }
+
+    /**
+     * Queue the refund of a payment whose bookings were discarded after it was captured
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePaymentReversal(Long customerId, PaymentGateway paymentGateway, String paymentTransactionId,
+                                       BigDecimal amount, String reason) {
+        enqueue(OutboxEventType.PAYMENT_REVERSAL, customerId,
+                new PaymentReversalPayload(customerId, paymentGateway, paymentTransactionId, amount, reason));
+    }
+
+    private void enqueue(OutboxEventType type, Long aggregateId, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxEvent event = OutboxEvent.builder()
+                .eventType(type)
+                .aggregateId(aggregateId)
+                .payload(jsonMapper.writeValueAsString(payload))
+                .availableAt(now)
+                .createdAt(now)
+                .build();
+
+        TransactionBatchBuffer.add(this, outboxEventRepository::insertAll, event);
+        log.debug("Outbox event queued - Type: {} - Aggregate ID: {}", type, aggregateId);
+    }
+
+    <T> T readPayload(OutboxEvent event, Class<T> payloadType) {
+        return jsonMapper.readValue(event.getPayload(), payloadType);
+    }
+}
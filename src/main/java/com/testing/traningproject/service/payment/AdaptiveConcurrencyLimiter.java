@@ -0,0 +1,64 @@
+package com.testing.traningproject.service.payment;
+
+/**
+ * Adaptive Concurrency Limiter (AIMD)
+ * Caps the calls in flight to a gateway and adapts the cap to how the gateway behaves
+ * - A call that succeeds faster than slowCallMs raises the limit by 1 / limit (about +1 per limit calls)
+ * - A failed or slow call multiplies the limit by backoffRatio
+ * Calls over the limit are rejected immediately, so a degrading gateway sheds load before the bulkhead fills
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long slowCallMs) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.slowCallNanos = slowCallMs * 1_000_000;
+    }
+
+    /**
+     * Take a slot for one call - false when the limit is reached
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Give the slot back and adapt the limit to the outcome
+     */
+    public synchronized void release(boolean success, long latencyNanos) {
+        inFlight--;
+        if (success && latencyNanos <= slowCallNanos) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } else {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
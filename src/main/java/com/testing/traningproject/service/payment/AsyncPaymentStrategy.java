@@ -0,0 +1,68 @@
+package com.testing.traningproject.service.payment;
+
+import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.enums.PaymentGateway;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking variant of PaymentStrategy
+ * Gateway calls complete on the gateway's own threads, so request threads are not held while they run
+ * Futures fail with ServiceUnavailableException when the gateway is unhealthy, saturated or times out
+ */
+public interface AsyncPaymentStrategy {
+
+    /**
+     * Process payment
+     * @param customerId User being charged - a payment that succeeds after the future timed out is reversed to them
+     * @return Future of the transaction ID from payment gateway
+     */
+    CompletableFuture<String> processPayment(Long customerId, BigDecimal amount, PaymentCardRequest cardRequest,
+                                             String description);
+
+    /**
+     * Process refund
+     * @return Future of the refund transaction ID
+     */
+    CompletableFuture<String> processRefund(String originalTransactionId, BigDecimal amount);
+
+    /**
+     * Process many refunds with one gateway request
+     * @return Future of the refund transaction IDs, in the order of the refunds
+     */
+    CompletableFuture<List<String>> processBatchRefund(List<RefundItem> refunds);
+
+    /**
+     * Process payout to service provider
+     * @return Future of the payout transaction ID
+     */
+    CompletableFuture<String> processPayout(BigDecimal amount, String recipientEmail, String description);
+
+    /**
+     * Get payment method name
+     */
+    String getPaymentMethodName();
+
+    /**
+     * Gateway this strategy talks to (key of the PaymentStrategyFactory registry)
+     */
+    PaymentGateway getGateway();
+
+    /**
+     * Wait for a gateway call from code that has to block (background jobs)
+     * Rethrows the original exception instead of a CompletionException
+     */
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
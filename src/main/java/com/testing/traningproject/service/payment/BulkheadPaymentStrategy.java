@@ -0,0 +1,157 @@
+package com.testing.traningproject.service.payment;
+
+import com.testing.traningproject.exception.ServiceUnavailableException;
+import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead Payment Strategy
+ * Runs a blocking PaymentStrategy as an AsyncPaymentStrategy with per-gateway limits
+ * - Bulkhead: at most maxConcurrentCalls calls in flight (the gateway's connection pool) plus a
+ *   bounded queue - beyond that calls fail fast instead of piling up request threads
+ * - Timeout (payments only): the future fails after timeoutMs; the call itself keeps its thread until the
+ *   gateway answers, so a slow gateway fills only its own bulkhead
+ * - A payment that succeeds after its caller timed out is reversed through LatePaymentReversal (nobody records it);
+ *   a call still queued when its future timed out is never sent to the gateway
+ * - Refunds and payouts are not timed out: they are driven by the outbox relay, which retries a failed call -
+ *   failing the future while the call still runs would let a late success move the money twice
+ */
+@Slf4j
+public class BulkheadPaymentStrategy implements AsyncPaymentStrategy {
+
+    private final PaymentStrategy delegate;
+    private final LatePaymentReversal latePaymentReversal;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public BulkheadPaymentStrategy(PaymentStrategy delegate, LatePaymentReversal latePaymentReversal,
+                                   int maxConcurrentCalls, int queueCapacity, long timeoutMs) {
+        this.delegate = delegate;
+        this.latePaymentReversal = latePaymentReversal;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            delegate.getPaymentMethodName() + "-gateway-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public CompletableFuture<String> processPayment(Long customerId, BigDecimal amount, PaymentCardRequest cardRequest,
+                                                    String description) {
+        return withTimeout("payment", submit("payment", () -> delegate.processPayment(amount, cardRequest, description),
+                lateTransactionId -> latePaymentReversal.reverse(customerId, getGateway(), lateTransactionId, amount)));
+    }
+
+    @Override
+    public CompletableFuture<String> processRefund(String originalTransactionId, BigDecimal amount) {
+        return submit("refund", () -> delegate.processRefund(originalTransactionId, amount), null);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> processBatchRefund(List<RefundItem> refunds) {
+        return submit("batch refund", () -> delegate.processBatchRefund(refunds), null);
+    }
+
+    @Override
+    public CompletableFuture<String> processPayout(BigDecimal amount, String recipientEmail, String description) {
+        return submit("payout", () -> delegate.processPayout(amount, recipientEmail, description), null);
+    }
+
+    @Override
+    public String getPaymentMethodName() {
+        return delegate.getPaymentMethodName();
+    }
+
+    @Override
+    public PaymentGateway getGateway() {
+        return delegate.getGateway();
+    }
+
+    /**
+     * Calls currently running on the gateway
+     */
+    public int getActiveCalls() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Calls waiting for a free gateway thread
+     */
+    public int getQueuedCalls() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stop taking calls when the context closes (running calls are allowed to finish)
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the call on the bulkhead - the future completes with the gateway's own answer
+     * @param onLateSuccess Called with the result if the future was already failed (timed out), may be null
+     */
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> gatewayCall, Consumer<T> onLateSuccess) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    // Timed out while queued - the caller already failed, the gateway is never called
+                    log.warn("{} gateway {} skipped - timed out while queued", getPaymentMethodName(), operation);
+                    return;
+                }
+                T value;
+                try {
+                    value = gatewayCall.get();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                if (!result.complete(value) && onLateSuccess != null) {
+                    onLateSuccess.accept(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("{} gateway bulkhead full - {} rejected", getPaymentMethodName(), operation);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Payment gateway is busy (" + getPaymentMethodName() + "). Please try again shortly."));
+        }
+
+        return result;
+    }
+
+    /**
+     * Fail the future after timeoutMs - only for calls whose late success is compensated (onLateSuccess)
+     */
+    private <T> CompletableFuture<T> withTimeout(String operation, CompletableFuture<T> result) {
+        CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.completeExceptionally(new ServiceUnavailableException(
+                    "Payment gateway timed out (" + getPaymentMethodName() + ") after " + timeoutMs + " ms"))) {
+                log.warn("{} gateway {} timed out after {} ms", getPaymentMethodName(), operation, timeoutMs);
+            }
+        });
+
+        return result;
+    }
+}
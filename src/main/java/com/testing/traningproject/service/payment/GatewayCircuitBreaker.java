@@ -0,0 +1,129 @@
+package com.testing.traningproject.service.payment;
+
+/**
+ * Gateway Circuit Breaker
+ * Count-based sliding window over the last windowSize calls; a call is bad when it failed or was slower than slowCallMs
+ * - CLOSED: calls pass; opens when at least minimumCalls were recorded and the bad-call rate reaches the threshold
+ * - OPEN: calls are rejected immediately for openMs
+ * - HALF_OPEN: halfOpenCalls trial calls pass; all good -> CLOSED, any bad -> OPEN again
+ */
+public class GatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] window; // true = bad call
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int position;
+    private int badCalls;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenGood;
+    private long rejected;
+
+    public GatewayCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                                 long slowCallMs, long openMs, int halfOpenCalls) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallMs * 1_000_000;
+        this.openNanos = openMs * 1_000_000;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * May a call go to the gateway now
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenGood = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejected++;
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Record the outcome of a call that was let through
+     */
+    public synchronized void record(boolean success, long latencyNanos) {
+        boolean bad = !success || latencyNanos > slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (bad) {
+                open();
+            } else if (++halfOpenGood == halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return; // call started before the circuit opened
+        }
+
+        if (recorded == window.length) {
+            if (window[position]) {
+                badCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = bad;
+        if (bad) {
+            badCalls++;
+        }
+        position = (position + 1) % window.length;
+
+        if (recorded >= minimumCalls && badCalls * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Bad calls in the current window, in percent
+     */
+    public synchronized int getFailureRate() {
+        return (recorded == 0) ? 0 : badCalls * 100 / recorded;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        recorded = 0;
+        position = 0;
+        badCalls = 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.testing.traningproject.service.payment;
+
+import com.testing.traningproject.model.enums.PaymentGateway;
+
+import java.math.BigDecimal;
+
+/**
+ * Gives back a payment the gateway completed after its caller had already timed out
+ * Nobody records such a payment, so it has to be refunded to the customer that was charged
+ */
+@FunctionalInterface
+public interface LatePaymentReversal {
+
+    /**
+     * @param customerId User that was charged
+     * @param paymentTransactionId Gateway transaction ID of the late payment
+     */
+    void reverse(Long customerId, PaymentGateway paymentGateway, String paymentTransactionId, BigDecimal amount);
+}
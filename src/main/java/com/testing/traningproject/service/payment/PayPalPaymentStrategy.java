@@ -1,23 +1,31 @@
 package com.testing.traningproject.service.payment;
 
 import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * PayPal Payment Strategy Implementation (Simulated)
  */
 @Slf4j
+@RequiredArgsConstructor
 @Component("paypalPayment")
 public class PayPalPaymentStrategy implements PaymentStrategy {
 
+    private final PaymentGatewaySimulator gatewaySimulator;
+
     @Override
     public String processPayment(BigDecimal amount, PaymentCardRequest cardRequest, String description) {
         log.info("Processing PayPal payment - Amount: ${}, Card Holder: {}", amount, cardRequest.getCardHolderName());
 
         // Simulate PayPal API call
+        gatewaySimulator.call("paypal");
         String transactionId = "PAYPAL_" + System.currentTimeMillis() + "_" +
                               cardRequest.getCardNumber().substring(cardRequest.getCardNumber().length() - 4);
 
@@ -30,17 +38,34 @@ public class PayPalPaymentStrategy implements PaymentStrategy {
         log.info("Processing PayPal refund - Original TXN: {}, Amount: ${}", originalTransactionId, amount);
 
         // Simulate PayPal refund API call
+        gatewaySimulator.call("paypal");
         String refundId = "PAYPAL_REFUND_" + System.currentTimeMillis();
 
         log.info("PayPal refund successful - Refund ID: {}", refundId);
         return refundId;
     }
 
+    @Override
+    public List<String> processBatchRefund(List<RefundItem> refunds) {
+        log.info("Processing PayPal batch refund - {} refunds", refunds.size());
+
+        // Simulate PayPal batch refund API call (one request for the whole batch)
+        gatewaySimulator.call("paypal");
+        long batchId = System.currentTimeMillis();
+        List<String> refundIds = IntStream.range(0, refunds.size())
+                .mapToObj(index -> "PAYPAL_REFUND_" + batchId + "_" + (index + 1))
+                .toList();
+
+        log.info("PayPal batch refund successful - {} refunds", refundIds.size());
+        return refundIds;
+    }
+
     @Override
     public String processPayout(BigDecimal amount, String recipientEmail, String description) {
         log.info("Processing PayPal payout - Amount: ${}, Recipient: {}", amount, recipientEmail);
 
         // Simulate PayPal payout API call
+        gatewaySimulator.call("paypal");
         String payoutId = "PAYPAL_PAYOUT_" + System.currentTimeMillis();
 
         log.info("PayPal payout successful - Payout ID: {}", payoutId);
@@ -51,5 +76,9 @@ public class PayPalPaymentStrategy implements PaymentStrategy {
     public String getPaymentMethodName() {
         return "paypal";
     }
-}
 
+    @Override
+    public PaymentGateway getGateway() {
+        return PaymentGateway.PAYPAL;
+    }
+}
@@ -0,0 +1,132 @@
+package com.testing.traningproject.service.payment;
+
+import com.testing.traningproject.config.PaymentGatewayProperties;
+import com.testing.traningproject.config.PaymentSimulatorProperties;
+import com.testing.traningproject.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Payment Gateway Simulator
+ * Stands in for the network round trip of the simulated gateways (Stripe, PayPal)
+ * Every call follows the gateway's payment.simulator profile:
+ * - Rate limit: calls beyond rate-limit-per-second in the current second are refused
+ * - Timeouts: timeout-rate of the calls hang for hang-ms and then fail
+ * - Latency: the call blocks for a log-normal delay with the profile's p50 / p99
+ * - Errors: error-rate of the calls fail after their latency
+ * - Client timeout: a call that would take longer than the gateway's client-timeout-ms fails after it, like an
+ *   HTTP client read timeout - so even unbounded refunds / payouts end within the outbox lease
+ * Failures are ServiceUnavailableException (gateway 5xx / 429), so they exercise the bulkhead, circuit breaker
+ * and concurrency limit like a real gateway outage - booking throughput and tail latency can be measured locally
+ */
+@Component
+@Slf4j
+public class PaymentGatewaySimulator {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final PaymentSimulatorProperties properties;
+    private final PaymentGatewayProperties gatewayProperties;
+    private final Map<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+
+    public PaymentGatewaySimulator(PaymentSimulatorProperties properties, PaymentGatewayProperties gatewayProperties) {
+        this.properties = properties;
+        this.gatewayProperties = gatewayProperties;
+
+        // Fail at startup on a misspelled profile, not on the first payment
+        properties.forProfile(properties.getProfile());
+        properties.getGatewayProfile().values().forEach(properties::forProfile);
+        log.info("Payment gateway simulator profile: {} (per gateway: {})",
+                properties.getProfile(), properties.getGatewayProfile());
+    }
+
+    /**
+     * Simulate one gateway round trip
+     * @throws ServiceUnavailableException if the simulated gateway rate limits, times out or fails the call
+     */
+    public void call(String gateway) {
+        PaymentSimulatorProperties.Profile profile = properties.forGateway(gateway);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (profile.getRateLimitPerSecond() > 0
+                && !rateLimits.computeIfAbsent(gateway, name -> new RateLimit()).tryAcquire(profile.getRateLimitPerSecond())) {
+            log.debug("Simulated {} gateway call rate limited", gateway);
+            throw new ServiceUnavailableException("Payment gateway rate limit exceeded: " + gateway);
+        }
+
+        long clientTimeoutMs = gatewayProperties.forGateway(gateway).getClientTimeoutMs();
+
+        if (random.nextDouble() < profile.getTimeoutRate()) {
+            long hang = Math.min(profile.getHangMs(), clientTimeoutMs);
+            sleep(gateway, hang);
+            log.debug("Simulated {} gateway call hung for {} ms", gateway, hang);
+            throw new ServiceUnavailableException("Payment gateway did not respond: " + gateway);
+        }
+
+        long delay = latency(profile, random);
+        if (delay > clientTimeoutMs) {
+            sleep(gateway, clientTimeoutMs);
+            log.debug("Simulated {} gateway call timed out after {} ms", gateway, clientTimeoutMs);
+            throw new ServiceUnavailableException("Payment gateway did not respond within " + clientTimeoutMs + " ms: " + gateway);
+        }
+        sleep(gateway, delay);
+
+        if (random.nextDouble() < profile.getErrorRate()) {
+            log.debug("Simulated {} gateway call failed after {} ms", gateway, delay);
+            throw new ServiceUnavailableException("Payment gateway error: " + gateway);
+        }
+        log.debug("Simulated {} gateway call took {} ms", gateway, delay);
+    }
+
+    /**
+     * Log-normal delay: median e^mu = p50, 99th percentile e^(mu + Z_99 * sigma) = p99 (capped at hang-ms)
+     */
+    private static long latency(PaymentSimulatorProperties.Profile profile, ThreadLocalRandom random) {
+        if (profile.getP50Ms() <= 0) {
+            return 0;
+        }
+        if (profile.getP99Ms() <= profile.getP50Ms()) {
+            return profile.getP50Ms();
+        }
+
+        double mu = Math.log(profile.getP50Ms());
+        double sigma = (Math.log(profile.getP99Ms()) - mu) / Z_99;
+        return Math.min(Math.round(Math.exp(mu + sigma * random.nextGaussian())), profile.getHangMs());
+    }
+
+    private static void sleep(String gateway, long delay) {
+        if (delay <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Payment gateway call interrupted: " + gateway, e);
+        }
+    }
+
+    /**
+     * Fixed one-second window - enough to model a gateway's requests-per-second quota
+     */
+    private static final class RateLimit {
+
+        private long windowSecond;
+        private int calls;
+
+        synchronized boolean tryAcquire(int perSecond) {
+            long second = System.currentTimeMillis() / 1000;
+            if (second != windowSecond) {
+                windowSecond = second;
+                calls = 0;
+            }
+            return ++calls <= perSecond;
+        }
+    }
+}
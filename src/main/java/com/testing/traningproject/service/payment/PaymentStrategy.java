@@ -1,8 +1,10 @@
 package com.testing.traningproject.service.payment;
 
 import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.enums.PaymentGateway;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Strategy Pattern Interface for Payment Processing
@@ -27,6 +29,13 @@ public interface PaymentStrategy {
      */
     String processRefund(String originalTransactionId, BigDecimal amount);
 
+    /**
+     * Process many refunds with one gateway request (refund settlement)
+     * @param refunds Original transaction ID and amount of every refund
+     * @return Refund transaction IDs, in the order of the refunds
+     */
+    List<String> processBatchRefund(List<RefundItem> refunds);
+
     /**
      * Process payout to service provider
      * @param amount Amount to payout
@@ -40,5 +49,10 @@ public interface PaymentStrategy {
      * Get payment method name
      */
     String getPaymentMethodName();
+
+    /**
+     * Gateway this strategy talks to (key of the PaymentStrategyFactory registry)
+     */
+    PaymentGateway getGateway();
 }
 
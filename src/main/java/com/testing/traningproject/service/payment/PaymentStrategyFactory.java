@@ -1,21 +1,34 @@
 package com.testing.traningproject.service.payment;
 
 import com.testing.traningproject.exception.BadRequestException;
-import lombok.RequiredArgsConstructor;
+import com.testing.traningproject.model.dto.response.PaymentGatewayMetricsResponse;
+import com.testing.traningproject.model.enums.PaymentGateway;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Factory Pattern for Payment Strategy Selection
+ * Blocking strategies (PaymentStrategy) and their non-blocking, guarded variants (AsyncPaymentStrategy -
+ * circuit breaker, adaptive concurrency limit and bulkhead per gateway), registered by PaymentGateway
+ * The gateway is resolved from the customer's payment method once and then stored on the booking / transaction
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PaymentStrategyFactory {
 
-    private final Map<String, PaymentStrategy> paymentStrategies;
+    private final Map<PaymentGateway, PaymentStrategy> paymentStrategies = new EnumMap<>(PaymentGateway.class);
+    private final Map<PaymentGateway, AsyncPaymentStrategy> asyncPaymentStrategies = new EnumMap<>(PaymentGateway.class);
+
+    public PaymentStrategyFactory(List<PaymentStrategy> paymentStrategies,
+                                  List<AsyncPaymentStrategy> asyncPaymentStrategies) {
+        paymentStrategies.forEach(strategy -> this.paymentStrategies.put(strategy.getGateway(), strategy));
+        asyncPaymentStrategies.forEach(strategy -> this.asyncPaymentStrategies.put(strategy.getGateway(), strategy));
+    }
 
     /**
      * Get payment strategy based on payment method
@@ -23,27 +36,77 @@ public class PaymentStrategyFactory {
      * @return PaymentStrategy implementation
      */
     public PaymentStrategy getStrategy(String paymentMethod) {
+        return getStrategy(resolveGateway(paymentMethod));
+    }
+
+    /**
+     * Get payment strategy of a stored payment gateway
+     */
+    public PaymentStrategy getStrategy(PaymentGateway gateway) {
+        PaymentStrategy strategy = paymentStrategies.get(gateway);
+
+        if (strategy == null) {
+            log.error("Payment strategy not found for gateway: {}", gateway);
+            throw new BadRequestException("Payment gateway not available: " + gateway);
+        }
+
+        log.info("Selected payment strategy: {} for gateway: {}", strategy.getClass().getSimpleName(), gateway);
+        return strategy;
+    }
+
+    /**
+     * Get the non-blocking strategy (per-gateway circuit breaker, concurrency limit, bulkhead and timeout)
+     * based on payment method - calls to an unhealthy gateway fail fast with 503
+     * @param paymentMethod Payment method (stripe, paypal)
+     * @return AsyncPaymentStrategy implementation
+     */
+    public AsyncPaymentStrategy getAsyncStrategy(String paymentMethod) {
+        return getAsyncStrategy(resolveGateway(paymentMethod));
+    }
+
+    /**
+     * Get the non-blocking strategy of a stored payment gateway (payouts and refunds of existing bookings)
+     */
+    public AsyncPaymentStrategy getAsyncStrategy(PaymentGateway gateway) {
+        AsyncPaymentStrategy strategy = asyncPaymentStrategies.get(gateway);
+
+        if (strategy == null) {
+            log.error("Async payment strategy not found for gateway: {}", gateway);
+            throw new BadRequestException("Payment gateway not available: " + gateway);
+        }
+
+        log.debug("Selected async payment strategy: {} for gateway: {}", strategy.getPaymentMethodName(), gateway);
+        return strategy;
+    }
+
+    /**
+     * Circuit breaker, concurrency limit and bulkhead state of every gateway
+     */
+    public List<PaymentGatewayMetricsResponse> getGatewayMetrics() {
+        return asyncPaymentStrategies.values().stream()
+                .filter(ResilientPaymentStrategy.class::isInstance)
+                .map(strategy -> ((ResilientPaymentStrategy) strategy).getMetrics())
+                .sorted(Comparator.comparing(PaymentGatewayMetricsResponse::getGateway))
+                .toList();
+    }
+
+    /**
+     * Resolve the gateway of a customer's payment method
+     * @param paymentMethod Payment method (stripe, card, credit_card, paypal) - Stripe when not specified
+     */
+    public PaymentGateway resolveGateway(String paymentMethod) {
         if (paymentMethod == null || paymentMethod.trim().isEmpty()) {
             log.info("No payment method specified, defaulting to Stripe");
-            return paymentStrategies.get("stripePayment");
+            return PaymentGateway.STRIPE;
         }
 
         String normalizedMethod = paymentMethod.toLowerCase().trim();
 
-        PaymentStrategy strategy = switch (normalizedMethod) {
-            case "stripe", "card", "credit_card" -> paymentStrategies.get("stripePayment");
-            case "paypal" -> paymentStrategies.get("paypalPayment");
+        return switch (normalizedMethod) {
+            case "stripe", "card", "credit_card" -> PaymentGateway.STRIPE;
+            case "paypal" -> PaymentGateway.PAYPAL;
             default -> throw new BadRequestException("Unsupported payment method: " + paymentMethod +
                     ". Supported methods: stripe, paypal, card");
         };
-
-        if (strategy == null) {
-            log.error("Payment strategy not found for method: {}", paymentMethod);
-            throw new BadRequestException("Payment method not available: " + paymentMethod);
-        }
-
-        log.info("Selected payment strategy: {} for method: {}", strategy.getClass().getSimpleName(), paymentMethod);
-        return strategy;
     }
 }
-
@@ -0,0 +1,11 @@
+package com.testing.traningproject.service.payment;
+
+import java.math.BigDecimal;
+
+/**
+ * One refund of a gateway batch refund
+ * @param originalTransactionId Gateway transaction ID of the original payment
+ * @param amount Amount to refund
+ */
+public record RefundItem(String originalTransactionId, BigDecimal amount) {
+}
@@ -0,0 +1,117 @@
+package com.testing.traningproject.service.payment;
+
+import com.testing.traningproject.exception.ServiceUnavailableException;
+import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.dto.response.PaymentGatewayMetricsResponse;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Resilient Payment Strategy
+ * Guards a gateway's bulkhead with a circuit breaker and an adaptive concurrency limit
+ * Order per call: breaker (is the gateway healthy?) -> limiter (is there room?) -> bulkhead (threads + timeout)
+ * Rejections fail the future with ServiceUnavailableException immediately, without using a thread
+ */
+@Slf4j
+public class ResilientPaymentStrategy implements AsyncPaymentStrategy {
+
+    private final BulkheadPaymentStrategy delegate;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public ResilientPaymentStrategy(BulkheadPaymentStrategy delegate, GatewayCircuitBreaker circuitBreaker,
+                                    AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public CompletableFuture<String> processPayment(Long customerId, BigDecimal amount, PaymentCardRequest cardRequest,
+                                                    String description) {
+        return guard("payment", () -> delegate.processPayment(customerId, amount, cardRequest, description));
+    }
+
+    @Override
+    public CompletableFuture<String> processRefund(String originalTransactionId, BigDecimal amount) {
+        return guard("refund", () -> delegate.processRefund(originalTransactionId, amount));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> processBatchRefund(List<RefundItem> refunds) {
+        return guard("batch refund", () -> delegate.processBatchRefund(refunds));
+    }
+
+    @Override
+    public CompletableFuture<String> processPayout(BigDecimal amount, String recipientEmail, String description) {
+        return guard("payout", () -> delegate.processPayout(amount, recipientEmail, description));
+    }
+
+    @Override
+    public String getPaymentMethodName() {
+        return delegate.getPaymentMethodName();
+    }
+
+    @Override
+    public PaymentGateway getGateway() {
+        return delegate.getGateway();
+    }
+
+    /**
+     * Current breaker, limiter and bulkhead state
+     */
+    public PaymentGatewayMetricsResponse getMetrics() {
+        return PaymentGatewayMetricsResponse.builder()
+                .gateway(getPaymentMethodName())
+                .circuitState(circuitBreaker.getState().name())
+                .failureRate(circuitBreaker.getFailureRate())
+                .rejectedByCircuitBreaker(circuitBreaker.getRejected())
+                .concurrencyLimit(concurrencyLimiter.getLimit())
+                .inFlight(concurrencyLimiter.getInFlight())
+                .rejectedByLimiter(concurrencyLimiter.getRejected())
+                .activeCalls(delegate.getActiveCalls())
+                .queuedCalls(delegate.getQueuedCalls())
+                .build();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private <T> CompletableFuture<T> guard(String operation, Supplier<CompletableFuture<T>> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.debug("{} circuit open - {} rejected", getPaymentMethodName(), operation);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Payment gateway is unavailable (" + getPaymentMethodName() + "). Please try again later."));
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            // The breaker let the call through - count it as a bad call so a saturated gateway trips it too
+            circuitBreaker.record(false, 0);
+            log.debug("{} concurrency limit reached - {} rejected", getPaymentMethodName(), operation);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Payment gateway is busy (" + getPaymentMethodName() + "). Please try again shortly."));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, failure) -> {
+            long latency = System.nanoTime() - start;
+            concurrencyLimiter.release(failure == null, latency);
+            circuitBreaker.record(failure == null, latency);
+            if (failure != null) {
+                log.debug("{} {} failed after {} ms", getPaymentMethodName(), operation, latency / 1_000_000);
+            }
+        });
+    }
+}
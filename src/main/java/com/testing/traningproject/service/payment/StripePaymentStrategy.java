@@ -1,18 +1,25 @@
 package com.testing.traningproject.service.payment;
 
 import com.testing.traningproject.model.dto.request.PaymentCardRequest;
+import com.testing.traningproject.model.enums.PaymentGateway;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Stripe Payment Strategy Implementation (Simulated)
  */
 @Slf4j
+@RequiredArgsConstructor
 @Component("stripePayment")
 public class StripePaymentStrategy implements PaymentStrategy {
 
+    private final PaymentGatewaySimulator gatewaySimulator;
+
     @Override
     public String processPayment(BigDecimal amount, PaymentCardRequest cardRequest, String description) {
         log.info("Processing Stripe payment - Amount: ${}, Card: {}****{}",
@@ -21,6 +28,7 @@ public class StripePaymentStrategy implements PaymentStrategy {
                 cardRequest.getCardNumber().substring(cardRequest.getCardNumber().length() - 4));
 
         // Simulate Stripe API call
+        gatewaySimulator.call("stripe");
         String transactionId = "STRIPE_" + System.currentTimeMillis() + "_" +
                               cardRequest.getCardNumber().substring(cardRequest.getCardNumber().length() - 4);
 
@@ -33,17 +41,34 @@ public class StripePaymentStrategy implements PaymentStrategy {
         log.info("Processing Stripe refund - Original TXN: {}, Amount: ${}", originalTransactionId, amount);
 
         // Simulate Stripe refund API call
+        gatewaySimulator.call("stripe");
         String refundId = "STRIPE_REFUND_" + System.currentTimeMillis();
 
         log.info("Stripe refund successful - Refund ID: {}", refundId);
         return refundId;
     }
 
+    @Override
+    public List<String> processBatchRefund(List<RefundItem> refunds) {
+        log.info("Processing Stripe batch refund - {} refunds", refunds.size());
+
+        // Simulate Stripe batch refund API call (one request for the whole batch)
+        gatewaySimulator.call("stripe");
+        long batchId = System.currentTimeMillis();
+        List<String> refundIds = IntStream.range(0, refunds.size())
+                .mapToObj(index -> "STRIPE_REFUND_" + batchId + "_" + (index + 1))
+                .toList();
+
+        log.info("Stripe batch refund successful - {} refunds", refundIds.size());
+        return refundIds;
+    }
+
     @Override
     public String processPayout(BigDecimal amount, String recipientEmail, String description) {
         log.info("Processing Stripe payout - Amount: ${}, Recipient: {}", amount, recipientEmail);
 
         // Simulate Stripe payout API call
+        gatewaySimulator.call("stripe");
         String payoutId = "STRIPE_PAYOUT_" + System.currentTimeMillis();
 
         log.info("Stripe payout successful - Payout ID: {}", payoutId);
@@ -54,5 +79,9 @@ public class StripePaymentStrategy implements PaymentStrategy {
     public String getPaymentMethodName() {
         return "stripe";
     }
-}
 
+    @Override
+    public PaymentGateway getGateway() {
+        return PaymentGateway.STRIPE;
+    }
+}
@@ -0,0 +1,8 @@
+package com.testing.traningproject.service.search;
+
+/**
+ * Published when a service is created, updated or deleted
+ * The search index refreshes that service once the transaction commits
+ */
+public record ServiceChangedEvent(Long serviceId) {
+}
@@ -0,0 +1,78 @@
+package com.testing.traningproject.service.search;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.model.entity.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor of the public service listing - the last row of a page
+ * NEWEST: key = createdAt, PRICE_LOW / PRICE_HIGH: key = price, RELEVANCE: key = position in the search rank
+ * Encoded as URL-safe Base64 of "order|key|id"
+ */
+public record ServiceCursor(ServiceSortOrder order, String key, Long id) {
+
+    /**
+     * Cursor after a service of a database-ordered page
+     */
+    public static ServiceCursor after(ServiceSortOrder order, Service service) {
+        String key = order == ServiceSortOrder.NEWEST
+                ? service.getCreatedAt().toString()
+                : service.getPrice().toPlainString();
+        return new ServiceCursor(order, key, service.getId());
+    }
+
+    /**
+     * Cursor after a position of the search rank
+     */
+    public static ServiceCursor afterRank(int position, Long id) {
+        return new ServiceCursor(ServiceSortOrder.RELEVANCE, Integer.toString(position), id);
+    }
+
+    /**
+     * Decode a cursor issued for the same ordering
+     * @throws BadRequestException if the cursor is malformed or was issued for another sortBy
+     */
+    public static ServiceCursor decode(String cursor, ServiceSortOrder expectedOrder) {
+        ServiceCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 3 parts");
+            }
+            decoded = new ServiceCursor(ServiceSortOrder.valueOf(parts[0]), parts[1], Long.valueOf(parts[2]));
+            // Fail here rather than in the query if the key does not parse
+            switch (decoded.order()) {
+                case NEWEST -> decoded.createdAt();
+                case RELEVANCE -> decoded.position();
+                default -> decoded.price();
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (decoded.order() != expectedOrder) {
+            throw new BadRequestException("Cursor was issued for sortBy=" + decoded.order().name().toLowerCase());
+        }
+        return decoded;
+    }
+
+    public String encode() {
+        String raw = order.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    public BigDecimal price() {
+        return new BigDecimal(key);
+    }
+
+    public int position() {
+        return Integer.parseInt(key);
+    }
+}
@@ -0,0 +1,263 @@
+package com.testing.traningproject.service.search;
+
+import com.testing.traningproject.model.entity.Service;
+import com.testing.traningproject.model.enums.SearchBackend;
+import com.testing.traningproject.repository.ServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Service Search Index
+ * In-memory inverted index over the title and description of all active services
+ * - Tokens: lower-cased runs of letters / digits; a title token counts TITLE_WEIGHT times
+ * - Postings are kept in a sorted map, so a query term also matches the indexed terms it is a prefix of
+ *   (search-as-you-type) with one range lookup, capped at MAX_EXPANSIONS terms
+ * - Ranking: BM25 (k1 = 1.2, b = 0.75); a service has to match every query term
+ * A query reads only the postings of its terms - the service table is not scanned
+ * Built on startup, refreshed per service after service changes commit on this instance and rebuilt every
+ * service.search.index.rebuild-interval-ms - services changed on other instances show up within that interval
+ * (not built when service.search.backend=POSTGRES)
+ * Writers (rebuild / refresh) are serialized including their database read, so a rebuild that loaded its
+ * services before a change committed cannot overwrite the refresh of that change
+ * A rebuild indexes into new maps without the lock and swaps them in - searches only wait for the swap
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    // Prefix matches rank below exact matches of the same term
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final int MAX_EXPANSIONS = 50;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ServiceRepository serviceRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings index = new Postings();
+
+    private volatile boolean ready;
+
+    @Value("${service.search.backend:INDEX}")
+    private SearchBackend searchBackend;
+
+    /**
+     * Build the whole index from the active services (one query)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (searchBackend != SearchBackend.INDEX) {
+            log.info("Service search index disabled - search backend: {}", searchBackend);
+            return;
+        }
+
+        List<Service> services = serviceRepository.findByIsActiveTrueOrderByCreatedAtDesc();
+
+        Postings rebuilt = new Postings();
+        services.forEach(service -> rebuilt.add(service.getId(), Document.of(service)));
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        log.info("Service search index built - {} services, {} terms", services.size(), rebuilt.terms.size());
+    }
+
+    /**
+     * Re-tokenize every active service on a timer - edits made through another instance have no local ServiceChangedEvent
+     */
+    @Scheduled(initialDelayString = "${service.search.index.rebuild-interval-ms:60000}",
+            fixedDelayString = "${service.search.index.rebuild-interval-ms:60000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Re-index a created, edited or deactivated service after its commit (skipped with the POSTGRES backend)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServiceChanged(ServiceChangedEvent event) {
+        if (searchBackend == SearchBackend.INDEX) {
+            refreshService(event.serviceId());
+        }
+    }
+
+    /**
+     * Reload a service and re-index it (or drop it when it was deleted or deactivated)
+     */
+    public synchronized void refreshService(Long serviceId) {
+        Document document = serviceRepository.findById(serviceId)
+                .filter(service -> Boolean.TRUE.equals(service.getIsActive()))
+                .map(Document::of)
+                .orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            index.remove(serviceId);
+            if (document != null) {
+                index.add(serviceId, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Service search index refreshed for service ID: {}", serviceId);
+    }
+
+    /**
+     * False until the startup build has completed - PublicServiceService.searchByTerm runs the tsquery search until then
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * IDs of the active services matching every term of the query, best match first
+     * (ties: newest service first)
+     */
+    public List<Long> search(String query) {
+        List<String> queryTerms = tokenize(query).distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings current = index;
+            if (current.documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) current.totalLength / current.documents.size();
+
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = score(current, queryTerm, averageLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((serviceId, score) -> score + termScores.get(serviceId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 score of every service containing the term or a term it is a prefix of
+     * A service matching several expansions keeps its best one
+     */
+    private static Map<Long, Double> score(Postings current, String queryTerm, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        int expansions = 0;
+
+        for (Map.Entry<String, Map<Long, Integer>> entry : current.terms.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expansions++ == MAX_EXPANSIONS) {
+                break;
+            }
+
+            double weight = term.equals(queryTerm) ? 1.0 : PREFIX_WEIGHT;
+            Map<Long, Integer> termPostings = entry.getValue();
+            double idf = Math.log(1 + (current.documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+
+            termPostings.forEach((serviceId, frequency) -> {
+                double norm = K1 * (1 - B + B * current.documents.get(serviceId).length() / averageLength);
+                double score = weight * idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.merge(serviceId, score, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    /**
+     * Postings per term (sorted for prefix lookups), indexed documents and their total length
+     */
+    private static final class Postings {
+
+        private final NavigableMap<String, Map<Long, Integer>> terms = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        void add(Long serviceId, Document document) {
+            documents.put(serviceId, document);
+            totalLength += document.length();
+            document.frequencies().forEach((term, frequency) ->
+                    terms.computeIfAbsent(term, key -> new HashMap<>()).put(serviceId, frequency));
+        }
+
+        void remove(Long serviceId) {
+            Document document = documents.remove(serviceId);
+            if (document == null) {
+                return;
+            }
+
+            totalLength -= document.length();
+            document.frequencies().keySet().forEach(term -> {
+                Map<Long, Integer> termPostings = terms.get(term);
+                termPostings.remove(serviceId);
+                if (termPostings.isEmpty()) {
+                    terms.remove(term);
+                }
+            });
+        }
+    }
+
+    private static Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty());
+    }
+
+    /**
+     * Term frequencies of one service (title tokens weighted) and its length
+     */
+    private record Document(Map<String, Integer> frequencies, int length) {
+
+        static Document of(Service service) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(service.getTitle()).forEach(token -> frequencies.merge(token, TITLE_WEIGHT, Integer::sum));
+            tokenize(service.getDescription()).forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            return new Document(Map.copyOf(frequencies), length);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.testing.traningproject.service.search;
+
+import com.testing.traningproject.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * Orderings of the public service listing
+ * Every database ordering ends with id so the sort key is unique - required by keyset cursors
+ */
+public enum ServiceSortOrder {
+    RELEVANCE,   // Search rank - only with a search term
+    NEWEST,      // createdAt DESC, id DESC
+    PRICE_LOW,   // price ASC, id ASC
+    PRICE_HIGH;  // price DESC, id DESC
+
+    /**
+     * Resolve the sortBy request parameter
+     * No sortBy: RELEVANCE when searching, NEWEST otherwise
+     */
+    public static ServiceSortOrder of(String sortBy, boolean searched) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return searched ? RELEVANCE : NEWEST;
+        }
+        ServiceSortOrder order;
+        try {
+            order = valueOf(sortBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sortBy: " + sortBy);
+        }
+        if (order == RELEVANCE && !searched) {
+            throw new BadRequestException("sortBy=relevance requires a search term");
+        }
+        return order;
+    }
+
+    /**
+     * Database ordering (RELEVANCE is ordered by the search rank instead)
+     */
+    public Sort toSort() {
+        return switch (this) {
+            case PRICE_LOW -> Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case PRICE_HIGH -> Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"));
+            default -> Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.testing.traningproject.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transaction Batch Buffer
+ * Collects the rows one owner appends during a transaction and writes them with a single batch just before commit
+ * - Registered as a transaction synchronization on first use, one buffer per owner and transaction
+ * - A rolled-back transaction never reaches beforeCommit, so its rows are dropped with it
+ * @param <T> Row type handed to the writer
+ */
+public final class TransactionBatchBuffer<T> implements TransactionSynchronization {
+
+    private final Object owner;
+    private final Consumer<List<T>> writer;
+    private final List<T> rows = new ArrayList<>();
+
+    private TransactionBatchBuffer(Object owner, Consumer<List<T>> writer) {
+        this.owner = owner;
+        this.writer = writer;
+    }
+
+    /**
+     * Append a row to the owner's buffer of the current transaction
+     * @param owner Buffer identity (usually the calling bean) - the writer of its first call is kept
+     * @param writer Batch insert called once in beforeCommit, joins the committing transaction
+     * @throws IllegalStateException when transaction synchronization is not active
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void add(Object owner, Consumer<List<T>> writer, T row) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionBatchBuffer<?> buffer && buffer.owner == owner) {
+                ((TransactionBatchBuffer<T>) buffer).rows.add(row);
+                return;
+            }
+        }
+        TransactionBatchBuffer<T> buffer = new TransactionBatchBuffer<>(owner, writer);
+        buffer.rows.add(row);
+        TransactionSynchronizationManager.registerSynchronization(buffer);
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        writer.accept(rows);
+    }
+}
@@ -0,0 +1,92 @@
+package com.testing.traningproject.repository;
+
+import com.testing.traningproject.model.entity.Service;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceSpecificationsTest {
+
+    @SuppressWarnings("unchecked")
+    private final Root<Service> root = mock(Root.class);
+    private final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+    private final Path<Object> createdAtPath = mock(Path.class);
+    private final Path<Object> pricePath = mock(Path.class);
+    private final Path<Object> idPath = mock(Path.class);
+
+    private final Predicate keyPast = mock(Predicate.class);
+    private final Predicate keyEqual = mock(Predicate.class);
+    private final Predicate idPast = mock(Predicate.class);
+    private final Predicate tieBreak = mock(Predicate.class);
+    private final Predicate keyset = mock(Predicate.class);
+
+    @BeforeEach
+    void setUp() {
+        doReturn(createdAtPath).when(root).get("createdAt");
+        doReturn(pricePath).when(root).get("price");
+        doReturn(idPath).when(root).get("id");
+        when(cb.and(keyEqual, idPast)).thenReturn(tieBreak);
+        when(cb.or(keyPast, tieBreak)).thenReturn(keyset);
+    }
+
+    // Each keyset must read: key past the cursor, or the same key and the id past the cursor
+
+    @Test
+    void createdBeforeSeeksDescendingByCreatedAtThenId() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 2, 1, 8, 30);
+        stubComparisons(createdAtPath, createdAt, 5L, true);
+
+        Predicate predicate = ServiceSpecifications.createdBefore(createdAt, 5L).toPredicate(root, query, cb);
+
+        assertThat(predicate).isSameAs(keyset);
+    }
+
+    @Test
+    void priceAboveSeeksAscendingByPriceThenId() {
+        BigDecimal price = new BigDecimal("25.00");
+        stubComparisons(pricePath, price, 9L, false);
+
+        Predicate predicate = ServiceSpecifications.priceAbove(price, 9L).toPredicate(root, query, cb);
+
+        assertThat(predicate).isSameAs(keyset);
+    }
+
+    @Test
+    void priceBelowSeeksDescendingByPriceThenId() {
+        BigDecimal price = new BigDecimal("25.00");
+        stubComparisons(pricePath, price, 9L, true);
+
+        Predicate predicate = ServiceSpecifications.priceBelow(price, 9L).toPredicate(root, query, cb);
+
+        assertThat(predicate).isSameAs(keyset);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <Y extends Comparable<? super Y>> void stubComparisons(Path<Object> keyPath, Y key, Long id,
+                                                                   boolean descending) {
+        Path keyExpression = keyPath;
+        Path idExpression = idPath;
+        when(cb.equal(keyPath, key)).thenReturn(keyEqual);
+        if (descending) {
+            when(cb.lessThan(keyExpression, key)).thenReturn(keyPast);
+            when(cb.lessThan(idExpression, id)).thenReturn(idPast);
+        } else {
+            when(cb.greaterThan(keyExpression, key)).thenReturn(keyPast);
+            when(cb.greaterThan(idExpression, id)).thenReturn(idPast);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.testing.traningproject.service.booking;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.model.entity.Booking;
+import com.testing.traningproject.model.entity.BookingEvent;
+import com.testing.traningproject.model.entity.Service;
+import com.testing.traningproject.model.entity.User;
+import com.testing.traningproject.model.enums.BookingStatus;
+import com.testing.traningproject.repository.BookingEventRepository;
+import com.testing.traningproject.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookingStateMachineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    private final BookingEventRepository bookingEventRepository = mock(BookingEventRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingStateMachine stateMachine = new BookingStateMachine(bookingEventRepository, bookingRepository);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void allowsOnlyTheDocumentedTransitions() {
+        assertThat(BookingStateMachine.canTransition(BookingStatus.PENDING, BookingStatus.CONFIRMED)).isTrue();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.CONFIRMED, BookingStatus.COMPLETED)).isTrue();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.CONFIRMED, BookingStatus.CANCELLED)).isTrue();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.CONFIRMED, BookingStatus.NO_SHOW)).isTrue();
+
+        assertThat(BookingStateMachine.canTransition(BookingStatus.PENDING, BookingStatus.CANCELLED)).isFalse();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.PENDING, BookingStatus.COMPLETED)).isFalse();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.CONFIRMED, BookingStatus.PENDING)).isFalse();
+        assertThat(BookingStateMachine.canTransition(BookingStatus.CONFIRMED, BookingStatus.CONFIRMED)).isFalse();
+    }
+
+    @Test
+    void finalStatusesAllowNoTransition() {
+        for (BookingStatus from : List.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED,
+                BookingStatus.NO_SHOW, BookingStatus.DISCARDED)) {
+            for (BookingStatus to : BookingStatus.values()) {
+                assertThat(BookingStateMachine.canTransition(from, to)).as(from + " -> " + to).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void transitionAllUpdatesWithOneStatementAndBuffersEventsUntilCommit() {
+        List<Booking> bookings = List.of(booking(1L, BookingStatus.CONFIRMED), booking(2L, BookingStatus.CONFIRMED));
+        when(bookingRepository.updateStatus(List.of(1L, 2L), BookingStatus.CONFIRMED, BookingStatus.COMPLETED, NOW))
+                .thenReturn(2);
+
+        int updated = stateMachine.transitionAll(bookings, BookingStatus.COMPLETED, NOW);
+
+        assertThat(updated).isEqualTo(2);
+        verify(bookingEventRepository, never()).insertAll(anyList());
+
+        commit();
+
+        List<BookingEvent> events = insertedEvents();
+        assertThat(events).extracting(BookingEvent::getBookingId).containsExactly(1L, 2L);
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getFromStatus()).isEqualTo(BookingStatus.CONFIRMED);
+            assertThat(event.getToStatus()).isEqualTo(BookingStatus.COMPLETED);
+            assertThat(event.getOccurredAt()).isEqualTo(NOW);
+        });
+    }
+
+    @Test
+    void transitionAllRejectsMixedStatuses() {
+        List<Booking> bookings = List.of(booking(1L, BookingStatus.CONFIRMED), booking(2L, BookingStatus.PENDING));
+
+        assertThatThrownBy(() -> stateMachine.transitionAll(bookings, BookingStatus.CANCELLED, NOW))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(bookingRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void transitionAllRejectsDisallowedTransition() {
+        List<Booking> bookings = List.of(booking(1L, BookingStatus.PENDING));
+
+        assertThatThrownBy(() -> stateMachine.transitionAll(bookings, BookingStatus.CANCELLED, NOW))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("PENDING to CANCELLED");
+
+        verify(bookingRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void transitionAllOfNothingTouchesNothing() {
+        assertThat(stateMachine.transitionAll(List.of(), BookingStatus.CANCELLED, NOW)).isZero();
+
+        verifyNoInteractions(bookingRepository);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void eventsOfOneTransactionShareOneBatch() {
+        Booking confirmed = booking(1L, BookingStatus.CONFIRMED);
+        Booking pending = booking(2L, BookingStatus.PENDING);
+
+        stateMachine.transition(confirmed, BookingStatus.CANCELLED, NOW);
+        stateMachine.transition(pending, BookingStatus.CONFIRMED, NOW);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        assertThat(confirmed.getCancelledAt()).isEqualTo(NOW);
+
+        commit();
+
+        assertThat(insertedEvents()).extracting(BookingEvent::getToStatus)
+                .containsExactly(BookingStatus.CANCELLED, BookingStatus.CONFIRMED);
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.beforeCommit(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BookingEvent> insertedEvents() {
+        ArgumentCaptor<List<BookingEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookingEventRepository).insertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Booking booking(Long id, BookingStatus status) {
+        User provider = User.builder().id(100L).build();
+        Service service = Service.builder().id(10L).provider(provider).build();
+        return Booking.builder()
+                .id(id)
+                .customer(User.builder().id(200L).build())
+                .service(service)
+                .totalPrice(new BigDecimal("50.00"))
+                .status(status)
+                .build();
+    }
+}
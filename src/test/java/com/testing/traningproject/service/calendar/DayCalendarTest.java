@@ -0,0 +1,130 @@
+package com.testing.traningproject.service.calendar;
+
+import com.testing.traningproject.model.enums.TimeSlotStatus;
+import com.testing.traningproject.model.projection.TimeSlotCalendarProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 4);
+
+    @Test
+    void setsOneBitPerSlotStartAndStatus() {
+        DayCalendar calendar = DayCalendar.of(List.of(
+                row(10, "09:00", TimeSlotStatus.AVAILABLE),
+                row(11, "09:30", TimeSlotStatus.BOOKED),
+                row(12, "10:15", TimeSlotStatus.AVAILABLE)));
+
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 36)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.BOOKED, 38)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 41)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.BOOKED, 36)).isFalse();
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 37)).isFalse();
+
+        assertThat(calendar.count(TimeSlotStatus.AVAILABLE)).isEqualTo(2);
+        assertThat(calendar.count(TimeSlotStatus.BOOKED)).isEqualTo(1);
+        assertThat(calendar.count(TimeSlotStatus.HELD)).isZero();
+    }
+
+    @Test
+    void coversBothWordsOfTheDay() {
+        // Quarter 0, last quarter of word 0, first of word 1 and the last of the day
+        DayCalendar calendar = DayCalendar.of(List.of(
+                row(1, "00:00", TimeSlotStatus.AVAILABLE),
+                row(2, "15:45", TimeSlotStatus.AVAILABLE),
+                row(3, "16:00", TimeSlotStatus.HELD),
+                row(4, "23:45", TimeSlotStatus.BLOCKED)));
+
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 0)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 63)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.HELD, 64)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.BLOCKED, DayCalendar.QUARTERS_PER_DAY - 1)).isTrue();
+        assertThat(calendar.has(TimeSlotStatus.AVAILABLE, 64)).isFalse();
+
+        List<String> visited = visit(calendar, null);
+        assertThat(visited).containsExactly("0 AVAILABLE 1", "63 AVAILABLE 2", "64 HELD 3", "95 BLOCKED 4");
+    }
+
+    @Test
+    void visitsSlotsOfOneStatusWithTheirIds() {
+        DayCalendar calendar = DayCalendar.of(List.of(
+                row(20, "08:00", TimeSlotStatus.AVAILABLE),
+                row(21, "08:15", TimeSlotStatus.BOOKED),
+                row(22, "08:30", TimeSlotStatus.AVAILABLE),
+                row(23, "17:00", TimeSlotStatus.AVAILABLE)));
+
+        assertThat(visit(calendar, TimeSlotStatus.AVAILABLE))
+                .containsExactly("32 AVAILABLE 20", "34 AVAILABLE 22", "68 AVAILABLE 23");
+        assertThat(visit(calendar, TimeSlotStatus.BOOKED)).containsExactly("33 BOOKED 21");
+        assertThat(visit(calendar, TimeSlotStatus.HELD)).isEmpty();
+    }
+
+    @Test
+    void keepsNonConsecutiveIds() {
+        DayCalendar calendar = DayCalendar.of(List.of(
+                row(5, "09:00", TimeSlotStatus.AVAILABLE),
+                row(90, "12:00", TimeSlotStatus.BOOKED),
+                row(7, "18:00", TimeSlotStatus.AVAILABLE)));
+
+        assertThat(visit(calendar, null))
+                .containsExactly("36 AVAILABLE 5", "48 BOOKED 90", "72 AVAILABLE 7");
+        assertThat(visit(calendar, TimeSlotStatus.AVAILABLE))
+                .containsExactly("36 AVAILABLE 5", "72 AVAILABLE 7");
+    }
+
+    private static List<String> visit(DayCalendar calendar, TimeSlotStatus status) {
+        List<String> visited = new ArrayList<>();
+        calendar.forEachSlot(status, (quarter, slotStatus, slotId) ->
+                visited.add(quarter + " " + slotStatus + " " + slotId));
+        return visited;
+    }
+
+    private static TimeSlotCalendarProjection row(long id, String start, TimeSlotStatus status) {
+        return new Row(id, LocalTime.parse(start), status);
+    }
+
+    private record Row(Long id, LocalTime startTime, TimeSlotStatus status) implements TimeSlotCalendarProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getServiceId() {
+            return 1L;
+        }
+
+        @Override
+        public LocalDate getSlotDate() {
+            return DAY;
+        }
+
+        @Override
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public LocalTime getEndTime() {
+            return startTime.plusMinutes(DayCalendar.QUARTER_MINUTES);
+        }
+
+        @Override
+        public TimeSlotStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Long getVersion() {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.testing.traningproject.service.payment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 1_000_000;        // 1 ms
+    private static final long SLOW = 5_000_000_000L;   // 5 s
+
+    @Test
+    void rejectsCallsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, 1000);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void fastSuccessesRaiseTheLimitByAboutOnePerLimitCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5, 1000);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.release(true, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 2; i++) {
+            limiter.tryAcquire();
+            limiter.release(true, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitNeverExceedsMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 4, 0.5, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire();
+            limiter.release(true, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void failuresAndSlowCallsBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 0.5, 1000);
+
+        limiter.tryAcquire();
+        limiter.release(false, FAST);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        limiter.release(true, SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitNeverDropsBelowMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 0.5, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(false, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,118 @@
+package com.testing.traningproject.service.payment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayCircuitBreakerTest {
+
+    private static final long FAST = 1_000_000;        // 1 ms
+    private static final long SLOW = 5_000_000_000L;   // 5 s
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(10, 5, 50, 1000, 60_000, 2);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.record(false, FAST);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(100);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAndRejectsCalls() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(10, 4, 50, 1000, 60_000, 2);
+
+        breaker.record(true, FAST);
+        breaker.record(true, FAST);
+        breaker.record(false, FAST);
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+
+        breaker.record(false, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void countsSlowSuccessfulCallsAsBad() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(4, 4, 50, 1000, 60_000, 2);
+
+        breaker.record(true, FAST);
+        breaker.record(true, FAST);
+        breaker.record(true, SLOW);
+        breaker.record(true, SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(4, 4, 75, 1000, 60_000, 2);
+
+        breaker.record(false, FAST);
+        breaker.record(false, FAST);
+        breaker.record(true, FAST);
+        breaker.record(true, FAST);
+        assertThat(breaker.getFailureRate()).isEqualTo(50);
+
+        // Both failures slide out of the window
+        breaker.record(true, FAST);
+        breaker.record(true, FAST);
+
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenLetsTrialCallsThroughAndClosesWhenAllSucceed() {
+        GatewayCircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.record(true, FAST);
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.HALF_OPEN);
+        breaker.record(true, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpenReopensOnBadTrialCall() {
+        GatewayCircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.record(true, SLOW);
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoresOutcomesRecordedWhileOpen() {
+        GatewayCircuitBreaker breaker = openBreaker(60_000);
+
+        breaker.record(true, FAST);
+        breaker.record(true, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private static GatewayCircuitBreaker openBreaker(long openMs) {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(2, 2, 50, 1000, openMs, 2);
+        breaker.record(false, FAST);
+        breaker.record(false, FAST);
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
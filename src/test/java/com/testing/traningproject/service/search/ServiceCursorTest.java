@@ -0,0 +1,85 @@
+package com.testing.traningproject.service.search;
+
+import com.testing.traningproject.exception.BadRequestException;
+import com.testing.traningproject.model.entity.Service;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceCursorTest {
+
+    @Test
+    void newestCursorRoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000);
+        Service service = Service.builder().id(42L).createdAt(createdAt).price(new BigDecimal("10.00")).build();
+
+        ServiceCursor cursor = ServiceCursor.after(ServiceSortOrder.NEWEST, service);
+        ServiceCursor decoded = ServiceCursor.decode(cursor.encode(), ServiceSortOrder.NEWEST);
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.createdAt()).isEqualTo(createdAt);
+        assertThat(decoded.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void priceCursorKeepsTheExactPrice() {
+        Service service = Service.builder().id(7L).price(new BigDecimal("19.90")).build();
+
+        ServiceCursor decoded = ServiceCursor.decode(
+                ServiceCursor.after(ServiceSortOrder.PRICE_HIGH, service).encode(), ServiceSortOrder.PRICE_HIGH);
+
+        assertThat(decoded.price()).isEqualByComparingTo("19.90");
+        assertThat(decoded.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void rankCursorRoundTrips() {
+        ServiceCursor decoded = ServiceCursor.decode(
+                ServiceCursor.afterRank(20, 99L).encode(), ServiceSortOrder.RELEVANCE);
+
+        assertThat(decoded.position()).isEqualTo(20);
+        assertThat(decoded.id()).isEqualTo(99L);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = ServiceCursor.afterRank(123456, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsCursorIssuedForAnotherOrdering() {
+        String encoded = ServiceCursor.afterRank(5, 1L).encode();
+
+        assertThatThrownBy(() -> ServiceCursor.decode(encoded, ServiceSortOrder.NEWEST))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("sortBy=relevance");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> ServiceCursor.decode("not base64!", ServiceSortOrder.NEWEST))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ServiceCursor.decode(raw("NEWEST|2026-01-01T00:00"), ServiceSortOrder.NEWEST))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ServiceCursor.decode(raw("SOMETHING|1|1"), ServiceSortOrder.NEWEST))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ServiceCursor.decode(raw("PRICE_LOW|abc|1"), ServiceSortOrder.PRICE_LOW))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ServiceCursor.decode(raw("NEWEST|yesterday|1"), ServiceSortOrder.NEWEST))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ServiceCursor.decode(raw("RELEVANCE|3|x"), ServiceSortOrder.RELEVANCE))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package com.testing.traningproject.service.search;
+
+import com.testing.traningproject.model.entity.Service;
+import com.testing.traningproject.model.enums.SearchBackend;
+import com.testing.traningproject.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceSearchIndexTest {
+
+    private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+    private final List<Service> services = new ArrayList<>();
+    private ServiceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ServiceSearchIndex(serviceRepository);
+        ReflectionTestUtils.setField(index, "searchBackend", SearchBackend.INDEX);
+        when(serviceRepository.findByIsActiveTrueOrderByCreatedAtDesc()).thenReturn(services);
+    }
+
+    @Test
+    void isEmptyUntilBuilt() {
+        services.add(service(1L, "Yoga class", null));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("yoga")).isEmpty();
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("yoga")).containsExactly(1L);
+    }
+
+    @Test
+    void doesNotBuildWithPostgresBackend() {
+        ReflectionTestUtils.setField(index, "searchBackend", SearchBackend.POSTGRES);
+        services.add(service(1L, "Yoga class", null));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("yoga")).isEmpty();
+    }
+
+    @Test
+    void queryTermMatchesTermsItIsAPrefixOf() {
+        services.add(service(1L, "Yoga", null));
+        services.add(service(2L, "Yogalates", null));
+        services.add(service(3L, "Pilates", null));
+        index.rebuild();
+
+        assertThat(index.search("yo")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("YOGAL")).containsExactly(2L);
+        assertThat(index.search("zumba")).isEmpty();
+    }
+
+    @Test
+    void exactMatchRanksAbovePrefixMatch() {
+        services.add(service(1L, "Yogalates", null));
+        services.add(service(2L, "Yoga", null));
+        index.rebuild();
+
+        assertThat(index.search("yoga")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyQueryTermHasToMatch() {
+        services.add(service(1L, "Deep tissue massage", null));
+        services.add(service(2L, "Sports massage", null));
+        index.rebuild();
+
+        assertThat(index.search("massage deep")).containsExactly(1L);
+        assertThat(index.search("massage yoga")).isEmpty();
+    }
+
+    @Test
+    void titleMatchRanksAboveDescriptionMatch() {
+        services.add(service(1L, "Relaxing therapy", "Full body massage"));
+        services.add(service(2L, "Massage", "Relaxing full body session"));
+        index.rebuild();
+
+        assertThat(index.search("massage")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rarerTermWeighsMoreThanCommonTerm() {
+        services.add(service(1L, "Guitar", "lesson lesson advanced"));
+        services.add(service(2L, "Piano", "lesson advanced advanced"));
+        services.add(service(3L, "Violin", "lesson"));
+        services.add(service(4L, "Cello", "lesson"));
+        index.rebuild();
+
+        // "lesson" is in every service, "advanced" only in two - repeating the rare term counts more
+        assertThat(index.search("lesson advanced")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shorterDocumentRanksHigherForTheSameTermFrequency() {
+        services.add(service(1L, "Yoga", "Morning session in the park with mats and tea included"));
+        services.add(service(2L, "Yoga", null));
+        index.rebuild();
+
+        assertThat(index.search("yoga")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void tiesRankNewestServiceFirst() {
+        services.add(service(1L, "Yoga", null));
+        services.add(service(2L, "Yoga", null));
+        index.rebuild();
+
+        assertThat(index.search("yoga")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void refreshReindexesAndDropsDeactivatedServices() {
+        services.add(service(1L, "Yoga", null));
+        index.rebuild();
+
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service(1L, "Pilates", null)));
+        index.refreshService(1L);
+
+        assertThat(index.search("yoga")).isEmpty();
+        assertThat(index.search("pilates")).containsExactly(1L);
+
+        Service deactivated = service(1L, "Pilates", null);
+        deactivated.setIsActive(false);
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(deactivated));
+        index.refreshService(1L);
+
+        assertThat(index.search("pilates")).isEmpty();
+    }
+
+    private static Service service(Long id, String title, String description) {
+        return Service.builder().id(id).title(title).description(description).isActive(true).build();
+    }
+}